@@ -23,11 +23,13 @@ import io.vavr.collection.Array;
 import io.vavr.collection.CharSeq;
 import io.vavr.collection.Map;
 import io.vavr.control.Option;
+import org.openjdk.jmh.annotations.Mode;
 import org.openjdk.jmh.infra.BenchmarkParams;
 import org.openjdk.jmh.results.BenchmarkResult;
 import org.openjdk.jmh.results.Result;
 import org.openjdk.jmh.results.RunResult;
 import org.openjdk.jmh.util.ListStatistics;
+import org.openjdk.jmh.util.Statistics;
 
 import java.text.DecimalFormat;
 import java.util.Comparator;
@@ -82,6 +84,8 @@ public class BenchmarkPerformanceReporter {
     public void print() {
         printDetailedPerformanceReport();
         printRatioPerformanceReport();
+        printAllocationReport();
+        printLatencyReport();
     }
 
     /**
@@ -100,7 +104,7 @@ public class BenchmarkPerformanceReporter {
      * </ul>
      */
     public void printDetailedPerformanceReport() {
-        final Array<TestExecution> results = mapToTestExecutions();
+        final Array<TestExecution> results = mapToTestExecutions().reject(TestExecution::isLatency);
         if (results.isEmpty()) {
             return;
         }
@@ -120,13 +124,54 @@ public class BenchmarkPerformanceReporter {
      * </ul>
      */
     public void printRatioPerformanceReport() {
-        final Array<TestExecution> results = mapToTestExecutions();
+        final Array<TestExecution> results = mapToTestExecutions().reject(TestExecution::isLatency);
         if (results.isEmpty()) {
             return;
         }
         new RatioPerformanceReport(results, targetImplementation).print();
     }
 
+    /**
+     * Prints the allocation report for each test, if the benchmarks were run with allocation profiling.
+     * <br>
+     * For each test it prints out:
+     * <ul>
+     * <li>Group</li>
+     * <li>Test Name</li>
+     * <li>Implementation</li>
+     * <li>Parameters</li>
+     * <li>Bytes allocated per operation</li>
+     * <li>Bytes allocated per element - if the test has a {@code CONTAINER_SIZE} parameter</li>
+     * </ul>
+     */
+    public void printAllocationReport() {
+        final Array<TestExecution> results = mapToTestExecutions().filter(TestExecution::hasAllocation);
+        if (results.isEmpty()) {
+            return;
+        }
+        new AllocationReport(results).print();
+    }
+
+    /**
+     * Prints the latency percentiles for each test, if the benchmarks were run with latency sampling.
+     * <br>
+     * For each test it prints out:
+     * <ul>
+     * <li>Group</li>
+     * <li>Test Name</li>
+     * <li>Implementation</li>
+     * <li>Parameters</li>
+     * <li>p50, p99 and p99.9 - in microseconds per operation</li>
+     * </ul>
+     */
+    public void printLatencyReport() {
+        final Array<TestExecution> results = mapToTestExecutions().filter(TestExecution::isLatency);
+        if (results.isEmpty()) {
+            return;
+        }
+        new LatencyReport(results).print();
+    }
+
     private Array<TestExecution> mapToTestExecutions() {
         Array<TestExecution> executions = Array.empty();
         for (RunResult runResult : runResults) {
@@ -396,6 +441,100 @@ public class BenchmarkPerformanceReporter {
         }
     }
 
+    private class AllocationReport {
+        private final Array<TestExecution> results;
+        private final int paramKeySize;
+        private final int groupSize;
+        private final int nameSize;
+        private final int implSize;
+        private final int allocationSize;
+
+        public AllocationReport(Array<TestExecution> results) {
+            this.results = results;
+            paramKeySize = Math.max(results.map(r -> r.getParamKey().length()).max().get(), 10);
+            groupSize = Math.max(results.map(r -> r.getTarget().length()).max().get(), 10);
+            nameSize = Math.max(results.map(r -> r.getOperation().length()).max().get(), 10);
+            implSize = Math.max(results.map(r -> r.getImplementation().length()).max().get(), 10);
+            allocationSize = Math.max(results.map(r -> r.getAllocationFormatted().length()).max().get(), 15);
+        }
+
+        public void print() {
+            final String header = String.format("%s  %s  %s  %s  %s  %s",
+                    padLeft("Target", groupSize),
+                    padLeft("Operation", nameSize),
+                    padLeft("Impl", implSize),
+                    padRight("Params", paramKeySize),
+                    padRight("B/op", allocationSize),
+                    padRight("B/element", allocationSize)
+            );
+
+            System.out.println("\n\n");
+            System.out.println("Allocation Report");
+            System.out.println(CharSeq.of("=").repeat(header.length()));
+            System.out.println();
+            System.out.println(header);
+            for (TestExecution result : results) {
+                System.out.println(String.format("%s  %s  %s  %s  %s  %s",
+                        padLeft(result.getTarget(), groupSize),
+                        padLeft(result.getOperation(), nameSize),
+                        padLeft(result.getImplementation(), implSize),
+                        padRight(result.getParamKey(), paramKeySize),
+                        padRight(result.getAllocationFormatted(), allocationSize),
+                        padRight(result.getAllocationPerElementFormatted(), allocationSize)
+                ));
+            }
+            System.out.println("\n");
+        }
+    }
+
+    private class LatencyReport {
+        private final Array<TestExecution> results;
+        private final int paramKeySize;
+        private final int groupSize;
+        private final int nameSize;
+        private final int implSize;
+        private final int percentileSize;
+
+        public LatencyReport(Array<TestExecution> results) {
+            this.results = results;
+            paramKeySize = Math.max(results.map(r -> r.getParamKey().length()).max().get(), 10);
+            groupSize = Math.max(results.map(r -> r.getTarget().length()).max().get(), 10);
+            nameSize = Math.max(results.map(r -> r.getOperation().length()).max().get(), 10);
+            implSize = Math.max(results.map(r -> r.getImplementation().length()).max().get(), 10);
+            percentileSize = Math.max(results.map(r -> r.getPercentileFormatted(99.9).length()).max().get(), 12);
+        }
+
+        public void print() {
+            final String header = String.format("%s  %s  %s  %s  %s  %s  %s",
+                    padLeft("Target", groupSize),
+                    padLeft("Operation", nameSize),
+                    padLeft("Impl", implSize),
+                    padRight("Params", paramKeySize),
+                    padRight("p50 µs/op", percentileSize),
+                    padRight("p99 µs/op", percentileSize),
+                    padRight("p99.9 µs/op", percentileSize)
+            );
+
+            System.out.println("\n\n");
+            System.out.println("Latency Report");
+            System.out.println(CharSeq.of("=").repeat(header.length()));
+            System.out.println();
+            System.out.println(header);
+            for (TestExecution result : results) {
+                System.out.println(String.format("%s  %s  %s  %s  %s  %s  %s",
+                        padLeft(result.getTarget(), groupSize),
+                        padLeft(result.getOperation(), nameSize),
+                        padLeft(result.getImplementation(), implSize),
+                        padRight(result.getParamKey(), paramKeySize),
+                        padRight(result.getPercentileFormatted(50), percentileSize),
+                        padRight(result.getPercentileFormatted(99), percentileSize),
+                        padRight(result.getPercentileFormatted(99.9), percentileSize)
+                ));
+            }
+            System.out.println("\n");
+        }
+    }
+
     public static class TestExecution implements Comparable<TestExecution> {
         private static double outlierLowPct;
         private static double outlierHighPct;
@@ -408,6 +547,10 @@ public class BenchmarkPerformanceReporter {
         private final double score;
         private final double scoreError;
         private final String unit;
+        private final double allocation;
+        private final int elementCount;
+        private final boolean latency;
+        private final Statistics statistics;
 
         public static TestExecution of(BenchmarkResult benchmarkResult, double outlierLowPct, double outlierHighPct) {
             TestExecution.outlierLowPct = outlierLowPct;
@@ -428,6 +571,14 @@ public class BenchmarkPerformanceReporter {
             score = statistics.getMean();
             scoreError = statistics.getMeanErrorAt(0.999);
             unit = primaryResult.getScoreUnit();
+
+            final Result<?> allocationResult = benchmark.getSecondaryResults().get("gc.alloc.rate.norm");
+            allocation = (allocationResult == null) ? Double.NaN : allocationResult.getScore();
+            final String containerSize = benchmark.getParams().getParam("CONTAINER_SIZE");
+            elementCount = (containerSize == null) ? 0 : Integer.parseInt(containerSize);
+
+            latency = benchmark.getParams().getMode() == Mode.SampleTime;
+            this.statistics = primaryResult.getStatistics();
         }
 
         private ListStatistics createStatisticsWithoutOutliers(BenchmarkResult benchmark, double outlierLowPct, double outlierHighPct) {
@@ -495,6 +646,40 @@ public class BenchmarkPerformanceReporter {
             return unit;
         }
 
+        public boolean hasAllocation() {
+            return !Double.isNaN(allocation);
+        }
+
+        public String getAllocationFormatted() {
+            return DECIMAL_FORMAT.format(allocation);
+        }
+
+        public String getAllocationPerElementFormatted() {
+            return elementCount == 0 ? "" : DECIMAL_FORMAT.format(allocation / elementCount);
+        }
+
+        public boolean isLatency() {
+            return latency;
+        }
+
+        public String getPercentileFormatted(double percentile) {
+            return DECIMAL_FORMAT.format(statistics.getPercentile(percentile) * microsecondsPerUnit());
+        }
+
+        private double microsecondsPerUnit() {
+            final String timeUnit = unit.substring(0, unit.indexOf('/'));
+            switch (timeUnit) {
+                case "s":
+                    return 1_000_000;
+                case "ms":
+                    return 1_000;
+                case "us":
+                    return 1;
+                default:
+                    return 0.001;
+            }
+        }
+
         @Override
         public String toString() {
             return String.format("%s %s %s %s -> %s (± %s)", paramKey, target, operation, implementation, getScoreFormatted(), getScoreErrorPct());
@@ -19,13 +19,21 @@
  */
 package io.vavr;
 
+import io.vavr.cache.CacheBenchmark;
 import io.vavr.collection.*;
+import io.vavr.concurrent.FutureBenchmark;
+import io.vavr.control.Option;
+import io.vavr.control.Try;
 import io.vavr.control.LazyBenchmark;
 import io.vavr.idiom.ForBenchmark;
+import io.vavr.idiom.MemoizationBenchmark;
+import io.vavr.idiom.MonadicChainBenchmark;
 import io.vavr.idiom.PatternMatchingBenchmark;
 import io.vavr.idiom.TryBenchmark;
 import io.vavr.idiom.TupleBenchmark;
+import io.vavr.rrb.RrbVectorBenchmark;
 import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.profile.GCProfiler;
 import org.openjdk.jmh.results.RunResult;
 import org.openjdk.jmh.results.format.ResultFormatType;
 import org.openjdk.jmh.runner.Runner;
@@ -38,6 +46,8 @@ import org.openjdk.jmh.runner.options.VerboseMode;
 import java.util.Collection;
 import java.util.Random;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 import static io.vavr.API.Array;
 
@@ -45,28 +55,70 @@ public class JmhRunner {
   /**
    * Runs all the available benchmarks in precision mode.
    * Note: it takes about 3 hours.
+   * <br>
+   * Given a {@code -Xss<size>} argument (e.g. by the {@code stack-realism} Maven profile), runs them in stack size realism mode instead,
+   * see {@link #runStackRealismNoAsserts}.
    */
   public static void main(String[] args) {
     final Array<Class<?>> CLASSES = Array(
         ArrayBenchmark.class,
         BitSetBenchmark.class,
+        BulkBuildBenchmark.class,
         CharSeqBenchmark.class,
+        ConcurrentQueueBenchmark.class,
         HashSetBenchmark.class,
+        IntVectorViewBenchmark.class,
+        IteratorPipelineBenchmark.class,
+        LinkedHashBenchmark.class,
         ListBenchmark.class,
         MapBenchmark.class,
+        MultimapBenchmark.class,
+        PrimitiveVectorBenchmark.class,
         PriorityQueueBenchmark.class,
+        QueueBenchmark.class,
+        StreamBenchmark.class,
+        TreeBenchmark.class,
         VectorBenchmark.class,
 
+        CacheBenchmark.class,
+
+        RrbVectorBenchmark.class,
+
+        FutureBenchmark.class,
+
         LazyBenchmark.class,
 
         ForBenchmark.class,
+        MemoizationBenchmark.class,
+        MonadicChainBenchmark.class,
         PatternMatchingBenchmark.class,
         TryBenchmark.class,
         TupleBenchmark.class
-    );
-    runQuickNoAsserts(CLASSES);
+    ).appendAll(jdk21Classes());
+    final Option<String> stackSize = Array.of(args).find(arg -> arg.startsWith("-Xss")).map(arg -> arg.substring("-Xss".length()));
+    if (stackSize.isDefined()) {
+      runStackRealismNoAsserts(CLASSES, stackSize.get());
+    } else {
+      runQuickNoAsserts(CLASSES);
+    }
+  }
+
+  /* The benchmarks needing JDK 21, which are compiled by the jdk21 Maven profile only */
+  static final Array<String> JDK21_CLASS_NAMES = Array.of(
+      "io.vavr.concurrent.VirtualThreadBenchmark",
+      "io.vavr.idiom.SwitchPatternBenchmark"
+  );
+
+  static Array<Class<?>> jdk21Classes() {
+    return JDK21_CLASS_NAMES.flatMap(name -> Try.<Class<?>> of(() -> Class.forName(name)));
   }
 
+  /* The stack size of the forks, deep enough for every container size, i.e. it hides recursion in the benchmarked operations */
+  static final String FORK_STACK_SIZE = "150m";
+
+  /* The container sizes swept in stack size realism mode, overriding the CONTAINER_SIZE param of every benchmark having one */
+  static final Array<String> STACK_REALISM_CONTAINER_SIZES = Array.of("1000", "10000", "100000", "1000000");
+
   public enum Includes {
     JAVA("java"),
     FUNCTIONAL_JAVA("fjava"),
@@ -74,9 +126,12 @@ public class JmhRunner {
     PCOLLECTIONS("pcollections"),
     ECOLLECTIONS("ecollections"),
     ARGONA("agrona"),
+    JCTOOLS("jctools"),
+    GUAVA("guava"),
     HPPC("hppc"),
     FASTUTIL("fastutil"),
     CAPSULE("capsule"),
+    CHAMP("champ"),
     CLOJURE("clojure"),
     SCALAZ("scalaz"),
     SCALA("scala"),
@@ -96,32 +151,62 @@ public class JmhRunner {
 
   @SuppressWarnings("unused")
   public static void runQuickNoAsserts(Array<Class<?>> groups, Includes... includes) {
-    run(5, 5, 15, VerboseMode.NORMAL, PrintInlining.DISABLE, groups, includes).print();
+    run(5, 5, 15, VerboseMode.NORMAL, PrintInlining.DISABLE, ProfileAllocation.DISABLE, SampleLatency.DISABLE, groups, includes).print();
   }
 
   @SuppressWarnings("unused")
   public static void runNormalNoAsserts(Array<Class<?>> groups, Includes... includes) {
-    run(7, 6, 300, VerboseMode.NORMAL, PrintInlining.DISABLE, groups, includes).print();
+    run(7, 6, 300, VerboseMode.NORMAL, PrintInlining.DISABLE, ProfileAllocation.DISABLE, SampleLatency.DISABLE, groups, includes).print();
+  }
+
+  /**
+   * Same as {@link #runNormalNoAsserts}, but also reports the allocated bytes per operation (and per element, if the benchmark has a {@code CONTAINER_SIZE}).
+   */
+  @SuppressWarnings("unused")
+  public static void runNormalWithAllocationNoAsserts(Array<Class<?>> groups, Includes... includes) {
+    run(7, 6, 300, VerboseMode.NORMAL, PrintInlining.DISABLE, ProfileAllocation.ENABLE, SampleLatency.DISABLE, groups, includes).print();
+  }
+
+  /**
+   * Same as {@link #runNormalNoAsserts}, but also samples the time of every operation, i.e. reports the latency percentiles (e.g. p99) next to the throughput.
+   */
+  @SuppressWarnings("unused")
+  public static void runNormalWithLatencyNoAsserts(Array<Class<?>> groups, Includes... includes) {
+    run(7, 6, 300, VerboseMode.NORMAL, PrintInlining.DISABLE, ProfileAllocation.DISABLE, SampleLatency.ENABLE, groups, includes).print();
   }
 
   @SuppressWarnings("unused")
   public static void runSlowNoAsserts(Array<Class<?>> groups, Includes... includes) {
-    run(10, 6, 400, VerboseMode.EXTRA, PrintInlining.DISABLE, groups, includes).print();
+    run(10, 6, 400, VerboseMode.EXTRA, PrintInlining.DISABLE, ProfileAllocation.DISABLE, SampleLatency.DISABLE, groups, includes).print();
+  }
+
+  /**
+   * Runs the benchmarks in quick mode twice, with the default {@code -Xss150m} and with the given (e.g. a production thread's) stack size,
+   * sweeping the container sizes of {@link #STACK_REALISM_CONTAINER_SIZES}.
+   * Failing benchmarks don't abort the run, they are reported together with the degraded ones and the largest container size every operation survives.
+   */
+  @SuppressWarnings("unused")
+  public static void runStackRealismNoAsserts(Array<Class<?>> groups, String stackSize, Includes... includes) {
+    final Array<String> includeNames = Array.of(includes.length == 0 ? Includes.values() : includes).map(Includes::toString);
+    final Array<String> classNames = groups.map(Class::getCanonicalName);
+    final Array<RunResult> reference = run(5, 5, 15, VerboseMode.NORMAL, PrintInlining.DISABLE, ProfileAllocation.DISABLE, SampleLatency.DISABLE, FORK_STACK_SIZE, STACK_REALISM_CONTAINER_SIZES, classNames, includeNames);
+    final Array<RunResult> realistic = run(5, 5, 15, VerboseMode.NORMAL, PrintInlining.DISABLE, ProfileAllocation.DISABLE, SampleLatency.DISABLE, stackSize, STACK_REALISM_CONTAINER_SIZES, classNames, includeNames);
+    StackSizeReporter.of(stackSize, reference, realistic).print();
   }
 
-  private static BenchmarkPerformanceReporter run(int warmupIterations, int measurementIterations, int millis, VerboseMode silent, PrintInlining printInlining, Array<Class<?>> groups, Includes[] includes) {
+  private static BenchmarkPerformanceReporter run(int warmupIterations, int measurementIterations, int millis, VerboseMode silent, PrintInlining printInlining, ProfileAllocation profileAllocation, SampleLatency sampleLatency, Array<Class<?>> groups, Includes[] includes) {
     final Array<String> includeNames = Array.of(includes.length == 0 ? Includes.values() : includes).map(Includes::toString);
     final Array<String> classNames = groups.map(Class::getCanonicalName);
-    final Array<RunResult> results = run(warmupIterations, measurementIterations, millis, silent, printInlining, classNames, includeNames);
+    final Array<RunResult> results = run(warmupIterations, measurementIterations, millis, silent, printInlining, profileAllocation, sampleLatency, FORK_STACK_SIZE, Array.empty(), classNames, includeNames);
     return BenchmarkPerformanceReporter.of(includeNames, classNames, results);
   }
 
-  private static Array<RunResult> run(int warmupIterations, int measurementIterations, int millis, VerboseMode verboseMode, PrintInlining printInlining, Array<String> classNames, Array<String> includeNames) {
+  private static Array<RunResult> run(int warmupIterations, int measurementIterations, int millis, VerboseMode verboseMode, PrintInlining printInlining, ProfileAllocation profileAllocation, SampleLatency sampleLatency, String stackSize, Array<String> containerSizes, Array<String> classNames, Array<String> includeNames) {
     try {
       final ChainedOptionsBuilder builder = new OptionsBuilder()
           .shouldDoGC(true)
           .verbosity(verboseMode)
-          .shouldFailOnError(true)
+          .shouldFailOnError(containerSizes.isEmpty()) /* sweeping the container sizes probes for failures, they are reported instead */
           .mode(Mode.Throughput)
           .timeUnit(TimeUnit.SECONDS)
           .warmupTime(TimeValue.milliseconds(millis))
@@ -133,15 +218,27 @@ public class JmhRunner {
           .result("benchmark_results.json")
           /* We are using 4Gb and setting NewGen to 100% to avoid GC during testing.
              Any GC during testing will destroy the iteration (i.e. introduce unreliable noise in the measurement), which should get ignored as an outlier */
-          .jvmArgsAppend("-XX:+UseG1GC", "-Xss150m", "-Xms6g", "-Xmx6g", "-XX:MaxGCPauseMillis=1000", "-XX:+UnlockExperimentalVMOptions", "-XX:G1NewSizePercent=100", "-XX:G1MaxNewSizePercent=100", "-disableassertions");
+          .jvmArgsAppend("-XX:+UseG1GC", "-Xss" + stackSize, "-Xms6g", "-Xmx6g", "-XX:MaxGCPauseMillis=1000", "-XX:+UnlockExperimentalVMOptions", "-XX:G1NewSizePercent=100", "-XX:G1MaxNewSizePercent=100", "-disableassertions");
 
       final String includePattern = includeNames.mkString("\\..*?\\b(", "|", ")_");
       classNames.forEach(name -> builder.include(name + includePattern));
 
+      if (!containerSizes.isEmpty()) {
+        builder.param("CONTAINER_SIZE", containerSizes.toJavaArray(String[]::new));
+      }
+
       if (printInlining == PrintInlining.ENABLE) {
         builder.jvmArgsAppend("-XX:+UnlockDiagnosticVMOptions", "-XX:+PrintInlining"); /* might help in deciding when the JVM is properly warmed up - or where to optimize the code */
       }
 
+      if (sampleLatency == SampleLatency.ENABLE) {
+        builder.mode(Mode.SampleTime); /* in addition to the throughput, the percentiles are in the time unit, i.e. seconds per operation */
+      }
+
+      if (profileAllocation == ProfileAllocation.ENABLE) {
+        builder.addProfiler(GCProfiler.class); /* adds gc.alloc.rate.norm, i.e. the allocated bytes per operation, to the secondary results */
+      }
+
       return Array.ofAll(new Runner(builder.build()).run());
     } catch (RunnerException e) {
       throw new RuntimeException(e);
@@ -153,6 +250,16 @@ public class JmhRunner {
     DISABLE
   }
 
+  private enum ProfileAllocation {
+    ENABLE,
+    DISABLE
+  }
+
+  private enum SampleLatency {
+    ENABLE,
+    DISABLE
+  }
+
   /* Helper methods */
 
   public static Integer[] fillArrayWithSize(int size) {
@@ -196,6 +303,42 @@ public class JmhRunner {
     array[j] = temp;
   }
 
+  /* The default thread stack size of 64 bit HotSpot */
+  public static final long DEFAULT_THREAD_STACK_SIZE = 1024 * 1024;
+
+  /**
+   * Runs the operation on a thread with a default sized stack, as the forks themselves run with {@code -Xss150m}.
+   * Returns the {@link StackOverflowError}, if any, rethrows any other failure of the operation (wrapping checked exceptions).
+   */
+  public static Option<StackOverflowError> runOnDefaultStack(String name, Supplier<?> operation) {
+    final AtomicReference<Throwable> failure = new AtomicReference<>();
+    final Thread thread = new Thread(null, () -> {
+      try {
+        operation.get();
+      } catch (Throwable t) {
+        failure.set(t);
+      }
+    }, name, DEFAULT_THREAD_STACK_SIZE);
+    thread.start();
+    try {
+      thread.join();
+    } catch (InterruptedException e) {
+      throw new RuntimeException(e);
+    }
+    final Throwable t = failure.get();
+    if (t == null) {
+      return Option.none();
+    } else if (t instanceof StackOverflowError) {
+      return Option.some((StackOverflowError) t);
+    } else if (t instanceof Error) {
+      throw (Error) t;
+    } else if (t instanceof RuntimeException) {
+      throw (RuntimeException) t;
+    } else {
+      throw new RuntimeException(name + " failed", t);
+    }
+  }
+
   /**
    * used for dead code elimination and correctness assertion inside the benchmarks
    */
@@ -41,11 +41,15 @@ public class MemoryUsage {
     return FORMAT.format(byteSize(target));
   }
 
-  private static long byteSize(Object target) {
+  /**
+   * The retained size of the object graph of the target, in bytes
+   */
+  public static long byteSize(Object target) {
     return GraphLayout.parseInstance(target).totalSize();
   }
 
-  private static HashMap<Predicate<String>, String> names = HashMap.ofEntries(
+  /* the first matching pattern wins, i.e. the more specific ones first */
+  private static LinkedHashMap<Predicate<String>, String> names = LinkedHashMap.ofEntries(
       Tuple.of("^java\\.", "Java mutable @ "),
       Tuple.of("^fj\\.", "Functional Java immutable @ "),
       Tuple.of("^org\\.pcollections", "PCollections immutable @ "),
@@ -55,12 +59,15 @@ public class MemoryUsage {
       Tuple.of("^scala\\.collection.immutable", "Scala immutable @ "),
       Tuple.of("^scala\\.collection.mutable", "Scala mutable @ "),
       Tuple.of("^io\\.usethesource", "Capsule immutable @ "),
+      Tuple.of("^io\\.vavr\\.champ\\.", "CHAMP prototype immutable @ "),
       Tuple.of("^io\\.vavr\\.", "Vavr immutable @ "),
       Tuple.of("^org\\.apache\\.commons\\.collections4\\.list\\.", "Apache Commons Collections mutable @ "),
       Tuple.of("^it\\.unimi\\.dsi\\.fastutil\\.", "FastUtil mutable @ "),
       Tuple.of("^com\\.carrotsearch", "HPPC mutable @ "),
       Tuple.of("^org\\.argona\\.collections", "Argona Collections mutable @ "),
-      Tuple.of("^org\\.jctools\\.queues", "JCTools mutable @ ")
+      Tuple.of("^org\\.agrona\\.concurrent", "Agrona mutable @ "),
+      Tuple.of("^org\\.jctools\\.queues", "JCTools mutable @ "),
+      Tuple.of("^com\\.google\\.common\\.collect", "Guava immutable @ ")
   ).mapKeys(r -> Pattern.compile(r).asPredicate());
 
   private static String toHumanReadableName(Object target) {
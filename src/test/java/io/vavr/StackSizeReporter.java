@@ -0,0 +1,172 @@
+/*  __    __  __  __    __  ___
+ * \  \  /  /    \  \  /  /  __/
+ *  \  \/  /  /\  \  \/  /  /
+ *   \____/__/  \__\____/__/
+ *
+ * Copyright 2014-2019 Vavr, http://vavr.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vavr;
+
+import io.vavr.collection.Array;
+import io.vavr.collection.CharSeq;
+import io.vavr.collection.Map;
+import io.vavr.control.Option;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.results.RunResult;
+
+import java.text.DecimalFormat;
+import java.util.stream.Collectors;
+
+/**
+ * Compares a run with the default stack size against a run with a realistic one, see {@link JmhRunner#runStackRealismNoAsserts}.
+ */
+public class StackSizeReporter {
+    private static final DecimalFormat PCT_FORMAT = new DecimalFormat("0.00%");
+    private static final String CONTAINER_SIZE = "CONTAINER_SIZE";
+
+    private final String stackSize;
+    private final Array<Execution> reference;
+    private final Array<Execution> realistic;
+    private final double degradationPct;
+
+    public static StackSizeReporter of(String stackSize, Array<RunResult> reference, Array<RunResult> realistic) {
+        return of(stackSize, reference, realistic, 0.2);
+    }
+
+    /**
+     * @param stackSize      The realistic stack size, e.g. {@code 512k}
+     * @param reference      The results with the default stack size
+     * @param realistic      The results with the realistic stack size
+     * @param degradationPct The relative loss of throughput, above which a benchmark is reported as degraded,
+     *                       if the error intervals of the two scores don't overlap too (quick runs being noisy)
+     */
+    public static StackSizeReporter of(String stackSize, Array<RunResult> reference, Array<RunResult> realistic, double degradationPct) {
+        return new StackSizeReporter(stackSize, reference.map(Execution::new), realistic.map(Execution::new), degradationPct);
+    }
+
+    private StackSizeReporter(String stackSize, Array<Execution> reference, Array<Execution> realistic, double degradationPct) {
+        this.stackSize = stackSize;
+        this.reference = reference;
+        this.realistic = realistic;
+        this.degradationPct = degradationPct;
+    }
+
+    /**
+     * Prints all stack size reports
+     */
+    public void print() {
+        printFailureReport();
+        printMaxContainerSizeReport();
+    }
+
+    /**
+     * Prints the benchmarks, which failed (i.e. are missing from the realistic results) or lost more than the allowed throughput with the realistic stack size,
+     * beyond the error of the scores, i.e. the realistic score interval lies below the reference one
+     */
+    public void printFailureReport() {
+        final Map<String, Execution> realisticByKey = realistic.toMap(e -> e.key, e -> e);
+        final Array<String> lines = reference.flatMap(expected -> {
+            final Option<Execution> actual = realisticByKey.get(expected.key);
+            if (actual.isEmpty()) {
+                return Option.of(String.format("%s  FAILED", expected.key));
+            }
+            final double loss = 1 - actual.get().score / expected.score;
+            return (loss > degradationPct) && (actual.get().upperBound() < expected.lowerBound())
+                   ? Option.of(String.format("%s  DEGRADED by %s (%s vs %s)", expected.key, PCT_FORMAT.format(loss), actual.get().interval(), expected.interval()))
+                   : Option.none();
+        });
+
+        printHeader(String.format("Stack Size Failures (-Xss%s, degradation above %s and beyond the score errors)", stackSize, PCT_FORMAT.format(degradationPct)));
+        if (lines.isEmpty()) {
+            System.out.println("(nothing to report, every benchmark survived)");
+        }
+        lines.forEach(System.out::println);
+        System.out.println("\n");
+    }
+
+    /**
+     * Prints the largest {@code CONTAINER_SIZE} every benchmark survived with the realistic stack size, compared to the default one
+     */
+    public void printMaxContainerSizeReport() {
+        final Map<String, Array<Execution>> referenceByOperation = reference.filter(e -> e.containerSize > 0).groupBy(e -> e.operationKey);
+        final Map<String, Array<Execution>> realisticByOperation = realistic.filter(e -> e.containerSize > 0).groupBy(e -> e.operationKey);
+        final int operationSize = Math.max(referenceByOperation.keySet().map(String::length).max().getOrElse(0), 10);
+
+        printHeader(String.format("Max Surviving %s (-Xss%s)", CONTAINER_SIZE, stackSize));
+        System.out.println(String.format("%s  %15s  %15s", padLeft("Operation", operationSize), "-Xss" + stackSize, "-Xss" + JmhRunner.FORK_STACK_SIZE));
+        for (String operation : referenceByOperation.keySet().toSortedSet()) {
+            System.out.println(String.format("%s  %15s  %15s",
+                    padLeft(operation, operationSize),
+                    maxContainerSize(realisticByOperation.get(operation)),
+                    maxContainerSize(referenceByOperation.get(operation))));
+        }
+        System.out.println("\n");
+    }
+
+    private static String maxContainerSize(Option<Array<Execution>> executions) {
+        return executions.flatMap(e -> e.map(x -> x.containerSize).max()).map(String::valueOf).getOrElse("none");
+    }
+
+    private static void printHeader(String title) {
+        System.out.println("\n\n");
+        System.out.println(title);
+        System.out.println(CharSeq.of("=").repeat(title.length()));
+        System.out.println();
+    }
+
+    private static String padLeft(String str, int size) {
+        return str + CharSeq.repeat(' ', size - str.length());
+    }
+
+    private static class Execution {
+        final String key;
+        final String operationKey;
+        final int containerSize;
+        final double score;
+        final double scoreError;
+
+        Execution(RunResult runResult) {
+            final BenchmarkParams params = runResult.getParams();
+            final String benchmark = params.getBenchmark().substring(params.getBenchmark().lastIndexOf('.', params.getBenchmark().lastIndexOf('.') - 1) + 1);
+            key = benchmark + paramKey(params, true);
+            operationKey = benchmark + paramKey(params, false);
+            final String containerSize = params.getParam(CONTAINER_SIZE);
+            this.containerSize = (containerSize == null) ? 0 : Integer.parseInt(containerSize);
+            score = runResult.getPrimaryResult().getScore();
+            final double scoreError = runResult.getPrimaryResult().getScoreError();
+            this.scoreError = Double.isNaN(scoreError) ? 0 : scoreError; /* undefined for a single iteration */
+        }
+
+        double lowerBound() {
+            return score - scoreError;
+        }
+
+        double upperBound() {
+            return score + scoreError;
+        }
+
+        String interval() {
+            return String.format("%.3f ± %.3f", score, scoreError);
+        }
+
+        private static String paramKey(BenchmarkParams params, boolean withContainerSize) {
+            final String key = params.getParamsKeys().stream()
+                    .filter(k -> withContainerSize || !k.equals(CONTAINER_SIZE))
+                    .map(k -> k + "=" + params.getParam(k))
+                    .collect(Collectors.joining(";"));
+            return key.isEmpty() ? "" : " [" + key + "]";
+        }
+    }
+}
@@ -0,0 +1,391 @@
+/*  __    __  __  __    __  ___
+ * \  \  /  /    \  \  /  /  __/
+ *  \  \/  /  /\  \  \/  /  /
+ *   \____/__/  \__\____/__/
+ *
+ * Copyright 2014-2019 Vavr, http://vavr.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vavr.cache;
+
+import io.vavr.JmhRunner;
+import io.vavr.Tuple;
+import io.vavr.Tuple2;
+import io.vavr.collection.Array;
+import io.vavr.collection.CollectionBenchmarkBase;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static io.vavr.JmhRunner.Includes.*;
+import static io.vavr.JmhRunner.getRandomValues;
+
+/**
+ * Caches holding at most {@code CONTAINER_SIZE} entries: the {@link PersistentCache} with both policies,
+ * a {@link java.util.LinkedHashMap} in access order guarded by a lock and Guava's {@code CacheBuilder}.
+ * <br>
+ * The eviction of the {@link PersistentCache} is checked by {@link PersistentCacheCheck} first, as the assertions of the benchmarks are disabled.
+ */
+@SuppressWarnings({"UnnecessaryFullyQualifiedName", "WeakerAccess"})
+public class CacheBenchmark {
+  static final Array<Class<?>> CLASSES = Array.of(
+      CacheHit.class,
+      CacheGetOrLoad.class,
+      CacheEviction.class,
+      CacheConcurrentHit01.class,
+      CacheConcurrentHit02.class,
+      CacheConcurrentHit04.class,
+      CacheConcurrentHit08.class,
+      CacheConcurrentHit16.class,
+      CacheReadWrite.class
+  );
+
+  public static void main(String... args) {
+    PersistentCacheCheck.main();
+    JmhRunner.runNormalNoAsserts(CLASSES, JAVA, GUAVA, VAVR);
+  }
+
+  static <K, V> java.util.Map<K, V> javaLocked(int maximumSize) {
+    return java.util.Collections.synchronizedMap(new java.util.LinkedHashMap<K, V>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(java.util.Map.Entry<K, V> eldest) {
+        return size() > maximumSize;
+      }
+    });
+  }
+
+  static Integer load(Integer key) {
+    return -key;
+  }
+
+  public static class Base extends CollectionBenchmarkBase {
+    /* cached keys, in access order */
+    Integer[] KEYS;
+    int EXPECTED_AGGREGATE;
+
+    java.util.Map<Integer, Integer> javaLocked;
+    com.google.common.cache.Cache<Integer, Integer> guavaCache;
+    PersistentCache<Integer, Integer> vavrLru;
+    PersistentCache<Integer, Integer> vavrLfu;
+
+    @Setup
+    public void setup() {
+      KEYS = getRandomValues(CONTAINER_SIZE, 0, true);
+      EXPECTED_AGGREGATE = Array.of(KEYS).map(CacheBenchmark::load).reduce(JmhRunner::aggregate);
+
+      javaLocked = javaLocked(CONTAINER_SIZE);
+      guavaCache = com.google.common.cache.CacheBuilder.newBuilder().maximumSize(CONTAINER_SIZE).build();
+      vavrLru = PersistentCache.of(PersistentCache.Policy.LRU, CONTAINER_SIZE);
+      vavrLfu = PersistentCache.of(PersistentCache.Policy.LFU, CONTAINER_SIZE);
+      final Array<Tuple2<Integer, Integer>> entries = Array.range(0, CONTAINER_SIZE).map(key -> Tuple.of(key, load(key)));
+      for (Tuple2<Integer, Integer> entry : entries) {
+        javaLocked.put(entry._1, entry._2);
+        guavaCache.put(entry._1, entry._2);
+      }
+      vavrLru.putAll(entries);
+      vavrLfu.putAll(entries);
+    }
+  }
+
+  public static class CacheHit extends Base {
+    @Benchmark
+    public int java_locked() {
+      int aggregate = 0;
+      for (Integer key : KEYS) {
+        aggregate ^= javaLocked.get(key);
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    /* Guava bounds every segment separately, i.e. a few keys may have been evicted before the cache got full */
+    @Benchmark
+    public int guava_cache() {
+      int aggregate = 0;
+      for (Integer key : KEYS) {
+        final Integer value = guavaCache.getIfPresent(key);
+        if (value != null) {
+          aggregate ^= value;
+        }
+      }
+      return aggregate;
+    }
+
+    @Benchmark
+    public int vavr_lru() {
+      int aggregate = 0;
+      for (Integer key : KEYS) {
+        aggregate ^= vavrLru.get(key).get();
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int vavr_lfu() {
+      int aggregate = 0;
+      for (Integer key : KEYS) {
+        aggregate ^= vavrLfu.get(key).get();
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+  }
+
+  /**
+   * Cache-aside reads of twice as many keys as fit, i.e. about half of them miss, load and evict
+   */
+  public static class CacheGetOrLoad extends Base {
+    Integer[] REQUESTS;
+
+    @Setup
+    public void setupRequests() {
+      REQUESTS = getRandomValues(2 * CONTAINER_SIZE, 1, true);
+    }
+
+    @Benchmark
+    public int java_locked() {
+      int aggregate = 0;
+      for (Integer key : REQUESTS) {
+        aggregate ^= javaLocked.computeIfAbsent(key, CacheBenchmark::load);
+      }
+      return aggregate;
+    }
+
+    @Benchmark
+    public int guava_cache() {
+      int aggregate = 0;
+      for (Integer key : REQUESTS) {
+        aggregate ^= guavaCache.asMap().computeIfAbsent(key, CacheBenchmark::load);
+      }
+      return aggregate;
+    }
+
+    @Benchmark
+    public int vavr_lru() {
+      int aggregate = 0;
+      for (Integer key : REQUESTS) {
+        aggregate ^= vavrLru.get(key, CacheBenchmark::load);
+      }
+      return aggregate;
+    }
+
+    @Benchmark
+    public int vavr_lfu() {
+      int aggregate = 0;
+      for (Integer key : REQUESTS) {
+        aggregate ^= vavrLfu.get(key, CacheBenchmark::load);
+      }
+      return aggregate;
+    }
+  }
+
+  /**
+   * Puts {@code CONTAINER_SIZE} new keys into the full cache, i.e. every put evicts an entry.
+   * The {@code _batched} variants publish a snapshot per {@link #BATCH_SIZE} entries.
+   */
+  public static class CacheEviction extends Base {
+    static final int BATCH_SIZE = 64;
+
+    int nextKey;
+
+    @Setup(Level.Iteration)
+    public void resetKeys() {
+      nextKey = Integer.MIN_VALUE;
+    }
+
+    @Benchmark
+    public Object java_locked() {
+      for (int i = 0; i < CONTAINER_SIZE; i++) {
+        javaLocked.put(nextKey, nextKey++);
+      }
+      assert javaLocked.size() == CONTAINER_SIZE;
+      return javaLocked;
+    }
+
+    @Benchmark
+    public Object guava_cache() {
+      for (int i = 0; i < CONTAINER_SIZE; i++) {
+        guavaCache.put(nextKey, nextKey++);
+      }
+      return guavaCache;
+    }
+
+    @Benchmark
+    public Object vavr_lru() {
+      for (int i = 0; i < CONTAINER_SIZE; i++) {
+        vavrLru.put(nextKey, nextKey++);
+      }
+      assert vavrLru.size() == CONTAINER_SIZE;
+      return vavrLru;
+    }
+
+    @Benchmark
+    public Object vavr_lru_batched() {
+      return putBatched(vavrLru);
+    }
+
+    @Benchmark
+    public Object vavr_lfu() {
+      for (int i = 0; i < CONTAINER_SIZE; i++) {
+        vavrLfu.put(nextKey, nextKey++);
+      }
+      assert vavrLfu.size() == CONTAINER_SIZE;
+      return vavrLfu;
+    }
+
+    @Benchmark
+    public Object vavr_lfu_batched() {
+      return putBatched(vavrLfu);
+    }
+
+    private Object putBatched(PersistentCache<Integer, Integer> cache) {
+      for (int i = 0; i < CONTAINER_SIZE; i += BATCH_SIZE) {
+        final int from = nextKey;
+        nextKey += Math.min(BATCH_SIZE, CONTAINER_SIZE - i);
+        cache.putAll(Array.range(from, nextKey).map(key -> Tuple.of(key, key)));
+      }
+      assert cache.size() == CONTAINER_SIZE;
+      return cache;
+    }
+  }
+
+  /**
+   * The hits of {@link CacheHit} from {@code @Threads} threads, i.e. run by the subclasses below, for the read scaling.
+   * An operation gets every key, as in {@link CacheHit}, i.e. the scores are comparable.
+   */
+  public abstract static class CacheConcurrentHit extends Base {
+    @Benchmark
+    public int java_locked() {
+      int aggregate = 0;
+      for (Integer key : KEYS) {
+        aggregate ^= javaLocked.get(key);
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int guava_cache() {
+      int aggregate = 0;
+      for (Integer key : KEYS) {
+        final Integer value = guavaCache.getIfPresent(key);
+        if (value != null) {
+          aggregate ^= value;
+        }
+      }
+      return aggregate;
+    }
+
+    @Benchmark
+    public int vavr_lru() {
+      int aggregate = 0;
+      for (Integer key : KEYS) {
+        aggregate ^= vavrLru.get(key).get();
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int vavr_lfu() {
+      int aggregate = 0;
+      for (Integer key : KEYS) {
+        aggregate ^= vavrLfu.get(key).get();
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+  }
+
+  @Threads(1)
+  public static class CacheConcurrentHit01 extends CacheConcurrentHit {}
+
+  @Threads(2)
+  public static class CacheConcurrentHit02 extends CacheConcurrentHit {}
+
+  @Threads(4)
+  public static class CacheConcurrentHit04 extends CacheConcurrentHit {}
+
+  @Threads(8)
+  public static class CacheConcurrentHit08 extends CacheConcurrentHit {}
+
+  @Threads(16)
+  public static class CacheConcurrentHit16 extends CacheConcurrentHit {}
+
+  /**
+   * Three readers and a writer, which puts keys of twice the capacity, i.e. evicts about every second put
+   */
+  public static class CacheReadWrite extends Base {
+    @Benchmark
+    @Group("java_locked")
+    @GroupThreads(3)
+    public Object java_locked_get() {
+      return javaLocked.get(ThreadLocalRandom.current().nextInt(CONTAINER_SIZE));
+    }
+
+    @Benchmark
+    @Group("java_locked")
+    @GroupThreads(1)
+    public void java_locked_put() {
+      final Integer key = ThreadLocalRandom.current().nextInt(2 * CONTAINER_SIZE);
+      javaLocked.put(key, load(key));
+    }
+
+    @Benchmark
+    @Group("guava_cache")
+    @GroupThreads(3)
+    public Object guava_cache_get() {
+      return guavaCache.getIfPresent(ThreadLocalRandom.current().nextInt(CONTAINER_SIZE));
+    }
+
+    @Benchmark
+    @Group("guava_cache")
+    @GroupThreads(1)
+    public void guava_cache_put() {
+      final Integer key = ThreadLocalRandom.current().nextInt(2 * CONTAINER_SIZE);
+      guavaCache.put(key, load(key));
+    }
+
+    @Benchmark
+    @Group("vavr_lru")
+    @GroupThreads(3)
+    public Object vavr_lru_get() {
+      return vavrLru.get(ThreadLocalRandom.current().nextInt(CONTAINER_SIZE));
+    }
+
+    @Benchmark
+    @Group("vavr_lru")
+    @GroupThreads(1)
+    public void vavr_lru_put() {
+      final Integer key = ThreadLocalRandom.current().nextInt(2 * CONTAINER_SIZE);
+      vavrLru.put(key, load(key));
+    }
+
+    @Benchmark
+    @Group("vavr_lfu")
+    @GroupThreads(3)
+    public Object vavr_lfu_get() {
+      return vavrLfu.get(ThreadLocalRandom.current().nextInt(CONTAINER_SIZE));
+    }
+
+    @Benchmark
+    @Group("vavr_lfu")
+    @GroupThreads(1)
+    public void vavr_lfu_put() {
+      final Integer key = ThreadLocalRandom.current().nextInt(2 * CONTAINER_SIZE);
+      vavrLfu.put(key, load(key));
+    }
+  }
+}
@@ -0,0 +1,334 @@
+/*  __    __  __  __    __  ___
+ * \  \  /  /    \  \  /  /  __/
+ *  \  \/  /  /\  \  \/  /  /
+ *   \____/__/  \__\____/__/
+ *
+ * Copyright 2014-2019 Vavr, http://vavr.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vavr.cache;
+
+import io.vavr.Function1;
+import io.vavr.Function2;
+import io.vavr.Tuple2;
+import io.vavr.collection.HashMap;
+import io.vavr.collection.List;
+import io.vavr.collection.Seq;
+import io.vavr.collection.TreeMap;
+import io.vavr.control.Option;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded cache, publishing immutable {@link Snapshot}s of Vavr collections through an {@link AtomicReference},
+ * i.e. reads are lock-free and see a consistent state, writes replace the snapshot with a compare-and-set.
+ * <br>
+ * Reads record their accesses in a small lossy buffer, which is applied by the next write.
+ * The buffer is striped by thread, and the stripes are padded to cache lines of their own,
+ * i.e. readers on different stripes don't write to the same cache lines and the reads scale with the threads.
+ * The access order (and the frequencies of {@link Policy#LFU}) are approximate under heavy reads, as with most concurrent caches.
+ * {@link #putAll} batches writes, i.e. a single compare-and-set for many entries.
+ * <br>
+ * The least recently (or least frequently) used entries are evicted while the total weight exceeds the maximum.
+ * Without a weigher every entry weighs 1, i.e. the maximum weight is the maximum size.
+ */
+public final class PersistentCache<K, V> {
+
+  public enum Policy {
+    /* least recently used */
+    LRU {
+      @Override
+      Rank first(long stamp) {
+        return new Rank(0, stamp);
+      }
+
+      @Override
+      Rank next(Rank previous, long stamp) {
+        return new Rank(0, stamp);
+      }
+    },
+    /* least frequently used, the least recently used of the same frequency */
+    LFU {
+      @Override
+      Rank first(long stamp) {
+        return new Rank(1, stamp);
+      }
+
+      @Override
+      Rank next(Rank previous, long stamp) {
+        return new Rank(previous.frequency + 1, stamp);
+      }
+    };
+
+    abstract Rank first(long stamp);
+
+    abstract Rank next(Rank previous, long stamp);
+  }
+
+  /* a power of two, at least 4 stripes per processor, i.e. few threads share a stripe */
+  private static final int STRIPES = Integer.highestOneBit(4 * Runtime.getRuntime().availableProcessors() - 1) << 1;
+  /* the slots per stripe, a power of two, few as every write scans all the stripes */
+  private static final int STRIPE_SIZE = 8;
+  /* the unused slots around the stripes, i.e. at least 128 bytes, as the adjacent cache line is prefetched too */
+  private static final int PADDING = 32;
+  private static final int STRIPE_STRIDE = STRIPE_SIZE + PADDING;
+
+  private final AtomicReference<Snapshot<K, V>> snapshot;
+  private final AtomicReferenceArray<K> readBuffer = new AtomicReferenceArray<>(PADDING + STRIPES * STRIPE_STRIDE);
+
+  private PersistentCache(Snapshot<K, V> empty) {
+    this.snapshot = new AtomicReference<>(empty);
+  }
+
+  public static <K, V> PersistentCache<K, V> of(Policy policy, long maximumSize) {
+    return of(policy, maximumSize, (key, value) -> 1L);
+  }
+
+  public static <K, V> PersistentCache<K, V> of(Policy policy, long maximumWeight, Function2<? super K, ? super V, Long> weigher) {
+    if (maximumWeight < 0) {
+      throw new IllegalArgumentException("maximumWeight < 0");
+    }
+    return new PersistentCache<>(new Snapshot<>(policy, maximumWeight, weigher, HashMap.empty(), TreeMap.empty(), 0, 0));
+  }
+
+  public Option<V> get(K key) {
+    final Option<V> value = snapshot.get().get(key);
+    if (value.isDefined()) {
+      readBuffer.lazySet(stripeOffset() + (ThreadLocalRandom.current().nextInt() & (STRIPE_SIZE - 1)), key);
+    }
+    return value;
+  }
+
+  /**
+   * Returns the cached value, or loads and caches it on a miss.
+   * Concurrent misses of the same key may load it more than once.
+   */
+  public V get(K key, Function1<? super K, ? extends V> loader) {
+    final Option<V> cached = get(key);
+    if (cached.isDefined()) {
+      return cached.get();
+    }
+    final V value = loader.apply(key);
+    put(key, value);
+    return value;
+  }
+
+  public void put(K key, V value) {
+    update(current -> current.put(key, value));
+  }
+
+  public void putAll(Iterable<? extends Tuple2<? extends K, ? extends V>> entries) {
+    update(current -> current.putAll(entries));
+  }
+
+  public void invalidate(K key) {
+    update(current -> current.remove(key));
+  }
+
+  public Snapshot<K, V> snapshot() {
+    return snapshot.get();
+  }
+
+  public int size() {
+    return snapshot.get().size();
+  }
+
+  private void update(Function1<Snapshot<K, V>, Snapshot<K, V>> write) {
+    final Seq<K> accesses = drainReadBuffer();
+    for (Snapshot<K, V> current = snapshot.get(); ; current = snapshot.get()) {
+      if (snapshot.compareAndSet(current, write.apply(current.touchAll(accesses)).evict())) {
+        return;
+      }
+    }
+  }
+
+  /* the first slot of the stripe of the current thread */
+  private static int stripeOffset() {
+    final int hash = System.identityHashCode(Thread.currentThread()) * 0x9E3779B9;
+    return PADDING + ((hash >>> 16) & (STRIPES - 1)) * STRIPE_STRIDE;
+  }
+
+  private Seq<K> drainReadBuffer() {
+    List<K> accesses = List.empty();
+    for (int stripe = 0; stripe < STRIPES; stripe++) {
+      final int offset = PADDING + stripe * STRIPE_STRIDE;
+      for (int i = offset; i < offset + STRIPE_SIZE; i++) {
+        if (readBuffer.get(i) != null) {
+          final K key = readBuffer.getAndSet(i, null);
+          if (key != null) {
+            accesses = accesses.prepend(key);
+          }
+        }
+      }
+    }
+    return accesses;
+  }
+
+  /**
+   * The immutable state of a {@link PersistentCache}
+   */
+  public static final class Snapshot<K, V> {
+    private final Policy policy;
+    private final long maximumWeight;
+    private final Function2<? super K, ? super V, Long> weigher;
+    private final HashMap<K, Entry<V>> entries;
+    /* the eviction order, i.e. the next victim first */
+    private final TreeMap<Rank, K> order;
+    private final long weight;
+    private final long clock;
+
+    Snapshot(Policy policy, long maximumWeight, Function2<? super K, ? super V, Long> weigher, HashMap<K, Entry<V>> entries, TreeMap<Rank, K> order, long weight, long clock) {
+      this.policy = policy;
+      this.maximumWeight = maximumWeight;
+      this.weigher = weigher;
+      this.entries = entries;
+      this.order = order;
+      this.weight = weight;
+      this.clock = clock;
+    }
+
+    private Snapshot<K, V> with(HashMap<K, Entry<V>> entries, TreeMap<Rank, K> order, long weight, long clock) {
+      return new Snapshot<>(policy, maximumWeight, weigher, entries, order, weight, clock);
+    }
+
+    public Option<V> get(K key) {
+      final Option<Entry<V>> entry = entries.get(key);
+      return entry.isDefined() ? Option.some(entry.get().value) : Option.none();
+    }
+
+    public int size() {
+      return entries.size();
+    }
+
+    public long weight() {
+      return weight;
+    }
+
+    /**
+     * The keys in eviction order, i.e. the next victim first
+     */
+    public Seq<K> keys() {
+      return order.values();
+    }
+
+    Snapshot<K, V> touchAll(Seq<K> keys) {
+      if (keys.isEmpty()) {
+        return this;
+      }
+      HashMap<K, Entry<V>> entries = this.entries;
+      TreeMap<Rank, K> order = this.order;
+      long clock = this.clock;
+      for (K key : keys) {
+        final Option<Entry<V>> entry = entries.get(key);
+        if (entry.isDefined()) {
+          final Rank rank = policy.next(entry.get().rank, ++clock);
+          entries = entries.put(key, new Entry<>(entry.get().value, entry.get().weight, rank));
+          order = order.remove(entry.get().rank).put(rank, key);
+        }
+      }
+      return with(entries, order, weight, clock);
+    }
+
+    Snapshot<K, V> put(K key, V value) {
+      return putAll(List.of(new Tuple2<>(key, value)));
+    }
+
+    Snapshot<K, V> putAll(Iterable<? extends Tuple2<? extends K, ? extends V>> newEntries) {
+      HashMap<K, Entry<V>> entries = this.entries;
+      TreeMap<Rank, K> order = this.order;
+      long weight = this.weight;
+      long clock = this.clock;
+      for (Tuple2<? extends K, ? extends V> newEntry : newEntries) {
+        final Option<Entry<V>> previous = entries.get(newEntry._1);
+        final Rank rank;
+        if (previous.isDefined()) {
+          rank = policy.next(previous.get().rank, ++clock);
+          order = order.remove(previous.get().rank);
+          weight -= previous.get().weight;
+        } else {
+          rank = policy.first(++clock);
+        }
+        final long entryWeight = weigher.apply(newEntry._1, newEntry._2);
+        entries = entries.put(newEntry._1, new Entry<>(newEntry._2, entryWeight, rank));
+        order = order.put(rank, newEntry._1);
+        weight += entryWeight;
+      }
+      return with(entries, order, weight, clock);
+    }
+
+    Snapshot<K, V> remove(K key) {
+      final Option<Entry<V>> entry = entries.get(key);
+      return entry.isDefined()
+             ? with(entries.remove(key), order.remove(entry.get().rank), weight - entry.get().weight, clock)
+             : this;
+    }
+
+    Snapshot<K, V> evict() {
+      if (weight <= maximumWeight) {
+        return this;
+      }
+      HashMap<K, Entry<V>> entries = this.entries;
+      TreeMap<Rank, K> order = this.order;
+      long weight = this.weight;
+      while (weight > maximumWeight && !order.isEmpty()) {
+        final K victim = order.head()._2;
+        order = order.tail();
+        weight -= entries.get(victim).get().weight;
+        entries = entries.remove(victim);
+      }
+      return with(entries, order, weight, clock);
+    }
+  }
+
+  static final class Entry<V> {
+    final V value;
+    final long weight;
+    final Rank rank;
+
+    Entry(V value, long weight, Rank rank) {
+      this.value = value;
+      this.weight = weight;
+      this.rank = rank;
+    }
+  }
+
+  static final class Rank implements Comparable<Rank> {
+    final long frequency;
+    /* unique, i.e. no two entries have the same rank */
+    final long stamp;
+
+    Rank(long frequency, long stamp) {
+      this.frequency = frequency;
+      this.stamp = stamp;
+    }
+
+    @Override
+    public int compareTo(Rank that) {
+      final int byFrequency = Long.compare(frequency, that.frequency);
+      return byFrequency != 0 ? byFrequency : Long.compare(stamp, that.stamp);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return o instanceof Rank && compareTo((Rank) o) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+      return Long.hashCode(stamp);
+    }
+  }
+}
@@ -0,0 +1,221 @@
+/*  __    __  __  __    __  ___
+ * \  \  /  /    \  \  /  /  __/
+ *  \  \/  /  /\  \  \/  /  /
+ *   \____/__/  \__\____/__/
+ *
+ * Copyright 2014-2019 Vavr, http://vavr.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vavr.cache;
+
+import io.vavr.Function2;
+import io.vavr.Tuple;
+import io.vavr.Tuple2;
+import io.vavr.collection.List;
+import io.vavr.control.Option;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Randomized check of the {@link PersistentCache} eviction against a model, for both policies, with and without a weigher:
+ * an access ordered {@link LinkedHashMap} for the recency, and a frequency map, ordering the recency order by frequency for {@link PersistentCache.Policy#LFU}.
+ * <br>
+ * The {@link PersistentCache.Snapshot}s are checked exactly, touching them as the drained reads do.
+ * The cache itself records its reads in a lossy buffer, i.e. only its contents, values and weight are checked.
+ * <br>
+ * The benchmarks only {@code assert} their results, which never runs, as {@code JmhRunner} disables the assertions.
+ * {@link CacheBenchmark#main} runs this first, it fails with an {@link AssertionError}.
+ */
+public class PersistentCacheCheck {
+  static final int STEPS = 20_000;
+  static final int KEY_RANGE = 200;
+  static final long MAXIMUM_WEIGHT = 50;
+
+  static final Function2<Integer, Integer, Long> UNIT = (key, value) -> 1L;
+  static final Function2<Integer, Integer, Long> WEIGHED = (key, value) -> (long) (key % 3) + 1;
+
+  public static void main(String... args) {
+    for (PersistentCache.Policy policy : PersistentCache.Policy.values()) {
+      for (Function2<Integer, Integer, Long> weigher : List.of(UNIT, WEIGHED)) {
+        final String context = policy + (weigher == UNIT ? "" : " weighed");
+        checkSnapshots(policy, weigher, new Random(42), context);
+        checkCache(policy, weigher, new Random(42), context);
+      }
+    }
+    System.out.println("PersistentCache matches the LinkedHashMap model");
+  }
+
+  /**
+   * Applies random touches, puts, batched puts and removes to a snapshot and to the model, comparing the eviction order after every step
+   */
+  static void checkSnapshots(PersistentCache.Policy policy, Function2<Integer, Integer, Long> weigher, Random random, String context) {
+    PersistentCache.Snapshot<Integer, Integer> snapshot = PersistentCache.of(policy, MAXIMUM_WEIGHT, weigher).snapshot();
+    final Model model = new Model(policy, weigher);
+    for (int step = 0; step < STEPS; step++) {
+      final Integer key = random.nextInt(KEY_RANGE);
+      switch (random.nextInt(5)) {
+        case 0:
+        case 1: {
+          final List<Integer> keys = List.fill(1 + random.nextInt(4), () -> random.nextInt(KEY_RANGE));
+          snapshot = snapshot.touchAll(keys);
+          keys.forEach(model::touch);
+          break;
+        }
+        case 2: {
+          final Integer value = random.nextInt();
+          snapshot = snapshot.put(key, value).evict();
+          model.put(key, value);
+          model.evict();
+          break;
+        }
+        case 3: {
+          final List<Tuple2<Integer, Integer>> entries = List.fill(1 + random.nextInt(8), () -> Tuple.of(random.nextInt(KEY_RANGE), random.nextInt()));
+          snapshot = snapshot.putAll(entries).evict();
+          entries.forEach(entry -> model.put(entry._1, entry._2));
+          model.evict();
+          break;
+        }
+        default:
+          snapshot = snapshot.remove(key);
+          model.remove(key);
+      }
+      final java.util.List<Integer> expected = model.evictionOrder();
+      if (!snapshot.keys().toJavaList().equals(expected)) {
+        throw new AssertionError(context + " step " + step + ": eviction order " + snapshot.keys() + " instead of " + expected);
+      }
+      if (snapshot.weight() != model.weight) {
+        throw new AssertionError(context + " step " + step + ": weight " + snapshot.weight() + " instead of " + model.weight);
+      }
+      for (Integer cached : expected) {
+        if (!snapshot.get(cached).contains(model.values.get(cached))) {
+          throw new AssertionError(context + " step " + step + ": " + snapshot.get(cached) + " cached for " + cached + " instead of " + model.values.get(cached));
+        }
+      }
+    }
+  }
+
+  /**
+   * Applies random gets, puts, batched puts and invalidations to a cache, checking that it holds the last written values within its maximum weight
+   */
+  static void checkCache(PersistentCache.Policy policy, Function2<Integer, Integer, Long> weigher, Random random, String context) {
+    final PersistentCache<Integer, Integer> cache = PersistentCache.of(policy, MAXIMUM_WEIGHT, weigher);
+    final Map<Integer, Integer> written = new HashMap<>();
+    for (int step = 0; step < STEPS; step++) {
+      final Integer key = random.nextInt(KEY_RANGE);
+      switch (random.nextInt(5)) {
+        case 0:
+        case 1: {
+          final Option<Integer> value = cache.get(key);
+          if (value.isDefined() && !value.get().equals(written.get(key))) {
+            throw new AssertionError(context + " step " + step + ": got " + value.get() + " for " + key + " instead of " + written.get(key));
+          }
+          break;
+        }
+        case 2: {
+          final Integer value = random.nextInt();
+          cache.put(key, value);
+          written.put(key, value);
+          /* LFU may evict a new entry right away, being the least frequently used */
+          if (policy == PersistentCache.Policy.LRU && !cache.get(key).contains(value)) {
+            throw new AssertionError(context + " step " + step + ": " + key + " evicted by its own put");
+          }
+          break;
+        }
+        case 3: {
+          final List<Tuple2<Integer, Integer>> entries = List.fill(1 + random.nextInt(8), () -> Tuple.of(random.nextInt(KEY_RANGE), random.nextInt()));
+          cache.putAll(entries);
+          entries.forEach(entry -> written.put(entry._1, entry._2));
+          break;
+        }
+        default:
+          cache.invalidate(key);
+          written.remove(key);
+          if (cache.get(key).isDefined()) {
+            throw new AssertionError(context + " step " + step + ": " + key + " cached after its invalidation");
+          }
+      }
+      final PersistentCache.Snapshot<Integer, Integer> snapshot = cache.snapshot();
+      long weight = 0;
+      for (Integer cached : snapshot.keys()) {
+        if (!snapshot.get(cached).contains(written.get(cached))) {
+          throw new AssertionError(context + " step " + step + ": " + snapshot.get(cached) + " cached for " + cached + " instead of " + written.get(cached));
+        }
+        weight += weigher.apply(cached, written.get(cached));
+      }
+      if (snapshot.size() != snapshot.keys().size() || snapshot.weight() != weight || weight > MAXIMUM_WEIGHT) {
+        throw new AssertionError(context + " step " + step + ": weight " + snapshot.weight() + " of " + snapshot.size() + " entries instead of " + weight + " (at most " + MAXIMUM_WEIGHT + ")");
+      }
+    }
+  }
+
+  /**
+   * The expected state of a snapshot
+   */
+  static final class Model {
+    final PersistentCache.Policy policy;
+    final Function2<Integer, Integer, Long> weigher;
+    /* in access order, i.e. the least recently used first */
+    final LinkedHashMap<Integer, Integer> values = new LinkedHashMap<>(16, 0.75f, true);
+    final Map<Integer, Long> frequencies = new HashMap<>();
+    long weight;
+
+    Model(PersistentCache.Policy policy, Function2<Integer, Integer, Long> weigher) {
+      this.policy = policy;
+      this.weigher = weigher;
+    }
+
+    void touch(Integer key) {
+      if (values.get(key) != null) {
+        frequencies.merge(key, 1L, Long::sum);
+      }
+    }
+
+    void put(Integer key, Integer value) {
+      final Integer previous = values.put(key, value);
+      if (previous != null) {
+        weight -= weigher.apply(key, previous);
+      }
+      weight += weigher.apply(key, value);
+      frequencies.merge(key, 1L, Long::sum);
+    }
+
+    void remove(Integer key) {
+      final Integer previous = values.remove(key);
+      if (previous != null) {
+        weight -= weigher.apply(key, previous);
+        frequencies.remove(key);
+      }
+    }
+
+    void evict() {
+      while (weight > MAXIMUM_WEIGHT && !values.isEmpty()) {
+        remove(evictionOrder().get(0));
+      }
+    }
+
+    /* the recency order, stably sorted by the frequency for LFU */
+    java.util.List<Integer> evictionOrder() {
+      final java.util.List<Integer> keys = new ArrayList<>(values.keySet());
+      if (policy == PersistentCache.Policy.LFU) {
+        keys.sort(Comparator.comparing(frequencies::get));
+      }
+      return keys;
+    }
+  }
+}
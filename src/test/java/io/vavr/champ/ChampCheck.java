@@ -0,0 +1,215 @@
+/*  __    __  __  __    __  ___
+ * \  \  /  /    \  \  /  /  __/
+ *  \  \/  /  /\  \  \/  /  /
+ *   \____/__/  \__\____/__/
+ *
+ * Copyright 2014-2019 Vavr, http://vavr.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vavr.champ;
+
+import io.vavr.Tuple2;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Randomized check of {@link ChampMap} and {@link ChampSet} against {@link HashMap} and {@link HashSet} models,
+ * for every {@link Hashing} of the keys, i.e. including keys with colliding hashes.
+ * <br>
+ * The equality of the prototypes compares the trees only, i.e. it is correct only if every deletion leaves the tree canonical:
+ * every check also compares with the maps and sets built in another order, and with the ones having more keys removed.
+ * <br>
+ * The benchmarks only {@code assert} their results, which never runs, as {@code JmhRunner} disables the assertions.
+ * Run this before trusting the {@code champ_immutable} numbers of {@code MapBenchmark} and {@code HashSetBenchmark}, it fails with an {@link AssertionError}.
+ */
+public class ChampCheck {
+  static final int STEPS = 60_000;
+  static final int KEY_RANGE = 3_000;
+
+  public enum Hashing {
+    /* distinct hashes, sharing their lowest bits */
+    IDENTITY,
+    /* 13 hashes only, i.e. mostly full collisions */
+    FEW,
+    /* a few hashes differing in their highest bits only, i.e. the deepest paths, ending in full collisions */
+    HIGH_BITS,
+    RANDOM
+  }
+
+  /**
+   * A key with a given hash, equal by its value only
+   */
+  static final class Key {
+    final int value;
+    final int hash;
+
+    Key(int value, Hashing hashing) {
+      this.value = value;
+      switch (hashing) {
+        case IDENTITY:
+          hash = value;
+          break;
+        case FEW:
+          hash = value % 13;
+          break;
+        case HIGH_BITS:
+          hash = (value % 5) << 30 | (value & 3);
+          break;
+        default:
+          hash = new Random(value).nextInt();
+      }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return (o instanceof Key) && ((Key) o).value == value;
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+
+    @Override
+    public String toString() {
+      return value + "#" + Integer.toHexString(hash);
+    }
+  }
+
+  public static void main(String... args) {
+    for (Hashing hashing : Hashing.values()) {
+      check(hashing, new Random(hashing.ordinal()));
+    }
+    System.out.println("ChampMap and ChampSet match the HashMap and HashSet models");
+  }
+
+  /**
+   * Puts (twice as often) and removes random keys, then removes every key, comparing with the models every few steps
+   */
+  static void check(Hashing hashing, Random random) {
+    ChampMap<Key, Integer> map = ChampMap.empty();
+    ChampSet<Key> set = ChampSet.empty();
+    final Map<Key, Integer> model = new HashMap<>();
+    for (int step = 0; step < STEPS; step++) {
+      final Key key = new Key(random.nextInt(KEY_RANGE), hashing);
+      if (step < 2_000 || random.nextInt(3) > 0) {
+        final int value = random.nextInt(5);
+        map = map.put(key, value);
+        set = set.add(key);
+        model.put(key, value);
+      } else {
+        map = map.remove(key);
+        set = set.remove(key);
+        model.remove(key);
+      }
+      if (step % 997 == 0) {
+        check(map, set, model, hashing + " step " + step);
+      }
+    }
+    check(map, set, model, hashing + " last step");
+
+    for (Key key : new ArrayList<>(model.keySet())) {
+      map = map.remove(key);
+      set = set.remove(key);
+      model.remove(key);
+      if (model.size() % 101 == 0) {
+        check(map, set, model, hashing + " removing, " + model.size() + " left");
+      }
+    }
+    if (!map.isEmpty() || !set.isEmpty() || !map.equals(ChampMap.empty()) || !set.equals(ChampSet.empty())) {
+      throw new AssertionError(hashing + ": not empty after removing every key");
+    }
+  }
+
+  static void check(ChampMap<Key, Integer> map, ChampSet<Key> set, Map<Key, Integer> model, String context) {
+    if (map.size() != model.size() || set.size() != model.size()) {
+      throw new AssertionError(context + ": sizes " + map.size() + " and " + set.size() + " instead of " + model.size());
+    }
+
+    final Map<Key, Integer> iterated = new HashMap<>();
+    for (Tuple2<Key, Integer> entry : map) {
+      if (iterated.put(entry._1, entry._2) != null) {
+        throw new AssertionError(context + ": the map iterates " + entry._1 + " twice");
+      }
+    }
+    if (!iterated.equals(model)) {
+      throw new AssertionError(context + ": the map iterates other entries");
+    }
+    final Set<Key> iteratedKeys = new HashSet<>();
+    for (Key key : set) {
+      iteratedKeys.add(key);
+    }
+    if (!iteratedKeys.equals(model.keySet())) {
+      throw new AssertionError(context + ": the set iterates other elements");
+    }
+    for (Map.Entry<Key, Integer> entry : model.entrySet()) {
+      if (!entry.getValue().equals(map.getOrElse(entry.getKey(), -1)) || !map.containsKey(entry.getKey())) {
+        throw new AssertionError(context + ": the map misses " + entry.getKey());
+      }
+      if (!set.contains(entry.getKey())) {
+        throw new AssertionError(context + ": the set misses " + entry.getKey());
+      }
+    }
+
+    /* the same keys put in another order */
+    final List<Key> keys = new ArrayList<>(model.keySet());
+    Collections.shuffle(keys, new Random(keys.size()));
+    ChampMap<Key, Integer> shuffledMap = ChampMap.empty();
+    ChampSet<Key> shuffledSet = ChampSet.empty();
+    for (Key key : keys) {
+      shuffledMap = shuffledMap.put(key, model.get(key));
+      shuffledSet = shuffledSet.add(key);
+    }
+    checkEqual(map, shuffledMap, set, shuffledSet, context + ", put in another order");
+
+    /* the same keys, with half of them removed and put again, i.e. every deletion has to restore the canonical tree */
+    ChampMap<Key, Integer> reputMap = shuffledMap;
+    ChampSet<Key> reputSet = shuffledSet;
+    for (Key key : keys.subList(0, keys.size() / 2)) {
+      reputMap = reputMap.remove(key);
+      reputSet = reputSet.remove(key);
+    }
+    for (Key key : keys.subList(0, keys.size() / 2)) {
+      reputMap = reputMap.put(key, model.get(key));
+      reputSet = reputSet.add(key);
+    }
+    checkEqual(map, reputMap, set, reputSet, context + ", removed and put again");
+
+    if (!keys.isEmpty()) {
+      final Key key = keys.get(0);
+      if (map.equals(shuffledMap.put(key, model.get(key) + 1))) {
+        throw new AssertionError(context + ": equal to the map having another value for " + key);
+      }
+      if (map.equals(shuffledMap.remove(key)) || set.equals(shuffledSet.remove(key))) {
+        throw new AssertionError(context + ": equal without " + key);
+      }
+    }
+  }
+
+  static void checkEqual(ChampMap<Key, Integer> map, ChampMap<Key, Integer> otherMap, ChampSet<Key> set, ChampSet<Key> otherSet, String context) {
+    if (!map.equals(otherMap) || !otherMap.equals(map) || map.hashCode() != otherMap.hashCode()) {
+      throw new AssertionError(context + ": the maps differ");
+    }
+    if (!set.equals(otherSet) || !otherSet.equals(set) || set.hashCode() != otherSet.hashCode()) {
+      throw new AssertionError(context + ": the sets differ");
+    }
+  }
+}
@@ -0,0 +1,162 @@
+/*  __    __  __  __    __  ___
+ * \  \  /  /    \  \  /  /  __/
+ *  \  \/  /  /\  \  \/  /  /
+ *   \____/__/  \__\____/__/
+ *
+ * Copyright 2014-2019 Vavr, http://vavr.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vavr.champ;
+
+import io.vavr.Tuple;
+import io.vavr.Tuple2;
+
+import java.util.Iterator;
+import java.util.Objects;
+
+/**
+ * A prototype of a persistent hash map backed by a CHAMP tree (see {@link ChampNode}),
+ * storing the keys and values inline, next to each other, instead of in a leaf object per entry as {@code io.vavr.collection.HashMap} does.
+ * <br>
+ * Only the operations benchmarked by {@code MapBenchmark} are implemented.
+ */
+public final class ChampMap<K, V> implements Iterable<Tuple2<K, V>> {
+
+  private static final int ENTRY_LENGTH = 2;
+  private static final ChampMap<?, ?> EMPTY = new ChampMap<>(ChampNode.EMPTY, 0);
+
+  private final ChampNode root;
+  private final int size;
+
+  private ChampMap(ChampNode root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  @SuppressWarnings("unchecked")
+  public static <K, V> ChampMap<K, V> empty() {
+    return (ChampMap<K, V>) EMPTY;
+  }
+
+  public static <K, V> ChampMap<K, V> ofAll(java.util.Map<? extends K, ? extends V> entries) {
+    ChampMap<K, V> result = empty();
+    for (java.util.Map.Entry<? extends K, ? extends V> entry : entries.entrySet()) {
+      result = result.put(entry.getKey(), entry.getValue());
+    }
+    return result;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public boolean containsKey(K key) {
+    return ChampNode.find(root, key, ChampNode.hash(key), ENTRY_LENGTH, ChampNode.EMPTY) != ChampNode.EMPTY;
+  }
+
+  @SuppressWarnings("unchecked")
+  public V getOrElse(K key, V defaultValue) {
+    final Object value = ChampNode.find(root, key, ChampNode.hash(key), ENTRY_LENGTH, ChampNode.EMPTY);
+    return (value == ChampNode.EMPTY) ? defaultValue : (V) value;
+  }
+
+  public ChampMap<K, V> put(K key, V value) {
+    final ChampNode.Change change = new ChampNode.Change();
+    final ChampNode result = root.updated(key, value, ChampNode.hash(key), 0, ENTRY_LENGTH, change);
+    return (result == root) ? this : new ChampMap<>(result, change.isSizeChanged ? size + 1 : size);
+  }
+
+  public ChampMap<K, V> putAll(ChampMap<? extends K, ? extends V> that) {
+    ChampMap<K, V> result = this;
+    for (Tuple2<? extends K, ? extends V> entry : that) {
+      result = result.put(entry._1, entry._2);
+    }
+    return result;
+  }
+
+  public ChampMap<K, V> remove(K key) {
+    final ChampNode.Change change = new ChampNode.Change();
+    final ChampNode result = root.removed(key, ChampNode.hash(key), 0, ENTRY_LENGTH, change);
+    return (result == root) ? this : new ChampMap<>(result, size - 1);
+  }
+
+  @Override
+  public Iterator<Tuple2<K, V>> iterator() {
+    return new ChampNode.EntryIterator<Tuple2<K, V>>(root, ENTRY_LENGTH) {
+      @Override
+      @SuppressWarnings("unchecked")
+      Tuple2<K, V> entry(Object[] content, int index) {
+        return Tuple.of((K) content[index], (V) content[index + 1]);
+      }
+    };
+  }
+
+  public Iterator<K> keysIterator() {
+    return new ChampNode.EntryIterator<K>(root, ENTRY_LENGTH) {
+      @Override
+      @SuppressWarnings("unchecked")
+      K entry(Object[] content, int index) {
+        return (K) content[index];
+      }
+    };
+  }
+
+  public Iterator<V> valuesIterator() {
+    return new ChampNode.EntryIterator<V>(root, ENTRY_LENGTH) {
+      @Override
+      @SuppressWarnings("unchecked")
+      V entry(Object[] content, int index) {
+        return (V) content[index + 1];
+      }
+    };
+  }
+
+  /**
+   * Compares the trees, which are canonical, i.e. without looking up the keys in the other map
+   */
+  @Override
+  public boolean equals(Object o) {
+    if (o == this) {
+      return true;
+    } else if (o instanceof ChampMap) {
+      final ChampMap<?, ?> that = (ChampMap<?, ?>) o;
+      return this.size == that.size && ChampNode.equivalent(this.root, that.root, 0, ENTRY_LENGTH);
+    } else {
+      return false;
+    }
+  }
+
+  @Override
+  public int hashCode() {
+    int result = 0;
+    for (final Iterator<Tuple2<K, V>> iterator = iterator(); iterator.hasNext(); ) {
+      final Tuple2<K, V> entry = iterator.next();
+      result += Objects.hashCode(entry._1) ^ Objects.hashCode(entry._2);
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder("ChampMap(");
+    for (Tuple2<K, V> entry : this) {
+      builder.append(builder.length() > "ChampMap(".length() ? ", " : "").append(entry);
+    }
+    return builder.append(')').toString();
+  }
+}
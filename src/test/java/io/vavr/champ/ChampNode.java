@@ -0,0 +1,394 @@
+/*  __    __  __  __    __  ___
+ * \  \  /  /    \  \  /  /  __/
+ *  \  \/  /  /\  \  \/  /  /
+ *   \____/__/  \__\____/__/
+ *
+ * Copyright 2014-2019 Vavr, http://vavr.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vavr.champ;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * A node of a compressed hash-array mapped prefix tree (CHAMP, Steindorfer and Vinju), shared by {@link ChampMap} and {@link ChampSet}.
+ * <br>
+ * The node has two bitmaps, one for the entries stored inline and one for the sub-nodes, and a single array:
+ * the entries (i.e. {@code entryLength} slots each, the key and the value of a map) from the front, the sub-nodes in reverse order from the back.
+ * Unlike a HAMT node (as in {@code io.vavr.collection.HashArrayMappedTrie}) there is no per-entry leaf object and iteration visits all entries of a node before its sub-nodes.
+ * <br>
+ * Deletion keeps the tree canonical, i.e. a sub-node with a single entry left is inlined into its parent,
+ * so equal collections have equal trees, which {@link #equivalent} compares without any lookups.
+ * Keys with equal hashes are stored in collision nodes below the last level, their entries in insertion order.
+ */
+final class ChampNode {
+
+  static final int BITS = 5;
+  static final int MASK = (1 << BITS) - 1;
+  static final int HASH_LENGTH = 32;
+
+  static final ChampNode EMPTY = new ChampNode(0, 0, new Object[0]);
+
+  final int dataMap;
+  final int nodeMap;
+  final Object[] content;
+
+  ChampNode(int dataMap, int nodeMap, Object[] content) {
+    this.dataMap = dataMap;
+    this.nodeMap = nodeMap;
+    this.content = content;
+  }
+
+  /* the result of an update, i.e. whether the size changed */
+  static final class Change {
+    boolean isSizeChanged;
+  }
+
+  static int hash(Object key) {
+    return Objects.hashCode(key);
+  }
+
+  static int bit(int hash, int shift) {
+    return 1 << ((hash >>> shift) & MASK);
+  }
+
+  private static boolean isCollision(int shift) {
+    return shift >= HASH_LENGTH;
+  }
+
+  int dataIndex(int bit) {
+    return Integer.bitCount(dataMap & (bit - 1));
+  }
+
+  int nodeIndex(int bit) {
+    return Integer.bitCount(nodeMap & (bit - 1));
+  }
+
+  /* the number of array slots used by the entries */
+  int dataLength(int entryLength) {
+    return (nodeMap == 0) ? content.length : entryLength * Integer.bitCount(dataMap);
+  }
+
+  int nodeArity() {
+    return Integer.bitCount(nodeMap);
+  }
+
+  ChampNode node(int index) {
+    return (ChampNode) content[content.length - 1 - index];
+  }
+
+  private boolean hasSingleEntry(int entryLength) {
+    return nodeMap == 0 && content.length == entryLength;
+  }
+
+  /**
+   * The last slot of the entry with the given key (i.e. the value of a map, the key of a set), {@code notFound} if there is none
+   */
+  static Object find(ChampNode node, Object key, int hash, int entryLength, Object notFound) {
+    for (int shift = 0; ; shift += BITS) {
+      if (isCollision(shift)) {
+        final Object[] content = node.content;
+        for (int i = 0; i < content.length; i += entryLength) {
+          if (Objects.equals(content[i], key)) {
+            return content[i + entryLength - 1];
+          }
+        }
+        return notFound;
+      }
+      final int bit = bit(hash, shift);
+      if ((node.dataMap & bit) != 0) {
+        final int index = entryLength * node.dataIndex(bit);
+        return Objects.equals(node.content[index], key) ? node.content[index + entryLength - 1] : notFound;
+      } else if ((node.nodeMap & bit) != 0) {
+        node = node.node(node.nodeIndex(bit));
+      } else {
+        return notFound;
+      }
+    }
+  }
+
+  /**
+   * This node with the entry added or replaced, itself if the entry is already present (with an identical value)
+   */
+  ChampNode updated(Object key, Object value, int hash, int shift, int entryLength, Change change) {
+    if (isCollision(shift)) {
+      for (int i = 0; i < content.length; i += entryLength) {
+        if (Objects.equals(content[i], key)) {
+          if (entryLength == 1 || content[i + 1] == value) {
+            return this;
+          }
+          final Object[] result = content.clone();
+          result[i + 1] = value;
+          return new ChampNode(0, 0, result);
+        }
+      }
+      change.isSizeChanged = true;
+      return new ChampNode(0, 0, withEntry(content, content.length, key, value, entryLength));
+    }
+
+    final int bit = bit(hash, shift);
+    if ((dataMap & bit) != 0) {
+      final int index = entryLength * dataIndex(bit);
+      final Object currentKey = content[index];
+      if (Objects.equals(currentKey, key)) {
+        if (entryLength == 1 || content[index + 1] == value) {
+          return this;
+        }
+        final Object[] result = content.clone();
+        result[index + 1] = value;
+        return new ChampNode(dataMap, nodeMap, result);
+      }
+      final Object currentValue = (entryLength == 1) ? null : content[index + 1];
+      final ChampNode node = merge(currentKey, currentValue, hash(currentKey), key, value, hash, shift + BITS, entryLength);
+      change.isSizeChanged = true;
+      return migrateToNode(bit, node, entryLength);
+    } else if ((nodeMap & bit) != 0) {
+      final int index = nodeIndex(bit);
+      final ChampNode node = node(index);
+      final ChampNode updated = node.updated(key, value, hash, shift + BITS, entryLength, change);
+      return (updated == node) ? this : withNode(index, updated);
+    } else {
+      change.isSizeChanged = true;
+      return new ChampNode(dataMap | bit, nodeMap, withEntry(content, entryLength * dataIndex(bit), key, value, entryLength));
+    }
+  }
+
+  /**
+   * This node without the entry of the key, itself if there is none.
+   * A node with a single entry left is returned with the entry at its position of the root, i.e. either to become the root or to be inlined by the parent.
+   */
+  ChampNode removed(Object key, int hash, int shift, int entryLength, Change change) {
+    if (isCollision(shift)) {
+      for (int i = 0; i < content.length; i += entryLength) {
+        if (Objects.equals(content[i], key)) {
+          change.isSizeChanged = true;
+          final Object[] result = withoutEntry(content, i, entryLength);
+          return (result.length == entryLength) ? new ChampNode(bit(hash, 0), 0, result) : new ChampNode(0, 0, result);
+        }
+      }
+      return this;
+    }
+
+    final int bit = bit(hash, shift);
+    if ((dataMap & bit) != 0) {
+      final int index = entryLength * dataIndex(bit);
+      if (!Objects.equals(content[index], key)) {
+        return this;
+      }
+      change.isSizeChanged = true;
+      final Object[] result = withoutEntry(content, index, entryLength);
+      if (shift != 0 && nodeMap == 0 && result.length == entryLength) {
+        /* the remaining key has the same hash prefix, i.e. the same position in the root */
+        return new ChampNode(bit(hash, 0), 0, result);
+      } else {
+        return new ChampNode(dataMap ^ bit, nodeMap, result);
+      }
+    } else if ((nodeMap & bit) != 0) {
+      final int index = nodeIndex(bit);
+      final ChampNode node = node(index);
+      final ChampNode removed = node.removed(key, hash, shift + BITS, entryLength, change);
+      if (removed == node) {
+        return this;
+      } else if (removed.hasSingleEntry(entryLength)) {
+        return (dataMap == 0 && nodeArity() == 1) ? removed : migrateToEntry(bit, removed, entryLength);
+      } else {
+        return withNode(index, removed);
+      }
+    } else {
+      return this;
+    }
+  }
+
+  /* a node with both entries, nested until their hashes differ */
+  private static ChampNode merge(Object key0, Object value0, int hash0, Object key1, Object value1, int hash1, int shift, int entryLength) {
+    if (isCollision(shift)) {
+      return new ChampNode(0, 0, withEntry(withEntry(new Object[0], 0, key0, value0, entryLength), entryLength, key1, value1, entryLength));
+    }
+    final int bit0 = bit(hash0, shift), bit1 = bit(hash1, shift);
+    if (bit0 != bit1) {
+      final Object[] content = withEntry(new Object[0], 0, key0, value0, entryLength);
+      final int index = (Integer.compareUnsigned(bit0, bit1) < 0) ? entryLength : 0;
+      return new ChampNode(bit0 | bit1, 0, withEntry(content, index, key1, value1, entryLength));
+    } else {
+      return new ChampNode(0, bit0, new Object[] { merge(key0, value0, hash0, key1, value1, hash1, shift + BITS, entryLength) });
+    }
+  }
+
+  private static Object[] withEntry(Object[] content, int index, Object key, Object value, int entryLength) {
+    final Object[] result = new Object[content.length + entryLength];
+    System.arraycopy(content, 0, result, 0, index);
+    System.arraycopy(content, index, result, index + entryLength, content.length - index);
+    result[index] = key;
+    if (entryLength == 2) {
+      result[index + 1] = value;
+    }
+    return result;
+  }
+
+  private static Object[] withoutEntry(Object[] content, int index, int entryLength) {
+    final Object[] result = new Object[content.length - entryLength];
+    System.arraycopy(content, 0, result, 0, index);
+    System.arraycopy(content, index + entryLength, result, index, result.length - index);
+    return result;
+  }
+
+  private ChampNode withNode(int index, ChampNode node) {
+    final Object[] result = content.clone();
+    result[result.length - 1 - index] = node;
+    return new ChampNode(dataMap, nodeMap, result);
+  }
+
+  /* replaces the entry at the bit with a sub-node */
+  private ChampNode migrateToNode(int bit, ChampNode node, int entryLength) {
+    final int dataIndex = entryLength * dataIndex(bit);
+    final int nodeIndex = nodeIndex(bit);
+    final int dataLength = dataLength(entryLength);
+    final Object[] result = new Object[content.length - entryLength + 1];
+    System.arraycopy(content, 0, result, 0, dataIndex);
+    System.arraycopy(content, dataIndex + entryLength, result, dataIndex, dataLength - dataIndex - entryLength);
+    System.arraycopy(content, dataLength, result, dataLength - entryLength, content.length - nodeIndex - dataLength);
+    result[result.length - 1 - nodeIndex] = node;
+    System.arraycopy(content, content.length - nodeIndex, result, result.length - nodeIndex, nodeIndex);
+    return new ChampNode(dataMap ^ bit, nodeMap | bit, result);
+  }
+
+  /* replaces the sub-node at the bit with its single entry */
+  private ChampNode migrateToEntry(int bit, ChampNode node, int entryLength) {
+    final int dataIndex = entryLength * dataIndex(bit);
+    final int nodeIndex = nodeIndex(bit);
+    final int dataLength = dataLength(entryLength);
+    final Object[] result = new Object[content.length - 1 + entryLength];
+    System.arraycopy(content, 0, result, 0, dataIndex);
+    System.arraycopy(node.content, 0, result, dataIndex, entryLength);
+    System.arraycopy(content, dataIndex, result, dataIndex + entryLength, dataLength - dataIndex);
+    System.arraycopy(content, dataLength, result, dataLength + entryLength, content.length - 1 - nodeIndex - dataLength);
+    System.arraycopy(content, content.length - nodeIndex, result, result.length - nodeIndex, nodeIndex);
+    return new ChampNode(dataMap | bit, nodeMap ^ bit, result);
+  }
+
+  /**
+   * Whether the trees contain the same entries, i.e. are equal, as they are canonical.
+   * Shared sub-trees are skipped by the identity check.
+   */
+  static boolean equivalent(ChampNode node, ChampNode other, int shift, int entryLength) {
+    if (node == other) {
+      return true;
+    } else if (node.dataMap != other.dataMap || node.nodeMap != other.nodeMap || node.content.length != other.content.length) {
+      return false;
+    } else if (isCollision(shift)) {
+      /* the same entries, in any order */
+      for (int i = 0; i < node.content.length; i += entryLength) {
+        if (!containsEntry(other.content, node.content, i, entryLength)) {
+          return false;
+        }
+      }
+      return true;
+    } else {
+      final int dataLength = node.dataLength(entryLength);
+      for (int i = 0; i < dataLength; i++) {
+        if (!Objects.equals(node.content[i], other.content[i])) {
+          return false;
+        }
+      }
+      for (int i = 0; i < node.nodeArity(); i++) {
+        if (!equivalent(node.node(i), other.node(i), shift + BITS, entryLength)) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+
+  private static boolean containsEntry(Object[] content, Object[] entries, int index, int entryLength) {
+    for (int i = 0; i < content.length; i += entryLength) {
+      if (Objects.equals(content[i], entries[index])) {
+        return Objects.equals(content[i + entryLength - 1], entries[index + entryLength - 1]);
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Iterates the entries depth-first, all entries of a node before its sub-nodes, i.e. without a per-entry allocation.
+   * Subclasses return the entry at the given array index.
+   */
+  static abstract class EntryIterator<T> implements java.util.Iterator<T> {
+    private final int entryLength;
+    /* the nodes of the current path and the next sub-node index of each */
+    private final ChampNode[] nodes = new ChampNode[HASH_LENGTH / BITS + 2];
+    private final int[] nodeIndices = new int[HASH_LENGTH / BITS + 2];
+    private int depth;
+    private Object[] entries;
+    private int entryIndex, entryEnd;
+
+    EntryIterator(ChampNode root, int entryLength) {
+      this.entryLength = entryLength;
+      nodes[0] = root;
+      entries = root.content;
+      entryEnd = root.dataLength(entryLength);
+      if (entryEnd == 0) {
+        advance();
+      }
+    }
+
+    abstract T entry(Object[] content, int index);
+
+    @Override
+    public boolean hasNext() {
+      return entryIndex < entryEnd;
+    }
+
+    @Override
+    public T next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      final T result = entry(entries, entryIndex);
+      entryIndex += entryLength;
+      if (entryIndex == entryEnd) {
+        advance();
+      }
+      return result;
+    }
+
+    /* moves to the next node with entries */
+    private void advance() {
+      while (depth >= 0) {
+        final ChampNode node = nodes[depth];
+        if (nodeIndices[depth] < node.nodeArity()) {
+          final ChampNode child = node.node(nodeIndices[depth]++);
+          nodes[++depth] = child;
+          nodeIndices[depth] = 0;
+          final int dataLength = child.dataLength(entryLength);
+          if (dataLength > 0) {
+            entries = child.content;
+            entryIndex = 0;
+            entryEnd = dataLength;
+            return;
+          }
+        } else {
+          depth--;
+        }
+      }
+      entryIndex = entryEnd = 0;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "ChampNode(" + Integer.toBinaryString(dataMap) + ", " + Integer.toBinaryString(nodeMap) + ", " + Arrays.toString(content) + ")";
+  }
+}
@@ -0,0 +1,123 @@
+/*  __    __  __  __    __  ___
+ * \  \  /  /    \  \  /  /  __/
+ *  \  \/  /  /\  \  \/  /  /
+ *   \____/__/  \__\____/__/
+ *
+ * Copyright 2014-2019 Vavr, http://vavr.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vavr.champ;
+
+import java.util.Iterator;
+import java.util.Objects;
+
+/**
+ * A prototype of a persistent hash set backed by a CHAMP tree (see {@link ChampNode}), storing only the elements inline.
+ * <br>
+ * Only the operations benchmarked by {@code HashSetBenchmark} are implemented.
+ */
+public final class ChampSet<T> implements Iterable<T> {
+
+  private static final int ENTRY_LENGTH = 1;
+  private static final ChampSet<?> EMPTY = new ChampSet<>(ChampNode.EMPTY, 0);
+
+  private final ChampNode root;
+  private final int size;
+
+  private ChampSet(ChampNode root, int size) {
+    this.root = root;
+    this.size = size;
+  }
+
+  @SuppressWarnings("unchecked")
+  public static <T> ChampSet<T> empty() {
+    return (ChampSet<T>) EMPTY;
+  }
+
+  public static <T> ChampSet<T> ofAll(Iterable<? extends T> elements) {
+    ChampSet<T> result = empty();
+    for (T element : elements) {
+      result = result.add(element);
+    }
+    return result;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public boolean contains(T element) {
+    return ChampNode.find(root, element, ChampNode.hash(element), ENTRY_LENGTH, ChampNode.EMPTY) != ChampNode.EMPTY;
+  }
+
+  public ChampSet<T> add(T element) {
+    final ChampNode.Change change = new ChampNode.Change();
+    final ChampNode result = root.updated(element, null, ChampNode.hash(element), 0, ENTRY_LENGTH, change);
+    return (result == root) ? this : new ChampSet<>(result, size + 1);
+  }
+
+  public ChampSet<T> remove(T element) {
+    final ChampNode.Change change = new ChampNode.Change();
+    final ChampNode result = root.removed(element, ChampNode.hash(element), 0, ENTRY_LENGTH, change);
+    return (result == root) ? this : new ChampSet<>(result, size - 1);
+  }
+
+  @Override
+  public Iterator<T> iterator() {
+    return new ChampNode.EntryIterator<T>(root, ENTRY_LENGTH) {
+      @Override
+      @SuppressWarnings("unchecked")
+      T entry(Object[] content, int index) {
+        return (T) content[index];
+      }
+    };
+  }
+
+  /**
+   * Compares the trees, which are canonical, i.e. without looking up the elements in the other set
+   */
+  @Override
+  public boolean equals(Object o) {
+    if (o == this) {
+      return true;
+    } else if (o instanceof ChampSet) {
+      final ChampSet<?> that = (ChampSet<?>) o;
+      return this.size == that.size && ChampNode.equivalent(this.root, that.root, 0, ENTRY_LENGTH);
+    } else {
+      return false;
+    }
+  }
+
+  @Override
+  public int hashCode() {
+    int result = 0;
+    for (T element : this) {
+      result += Objects.hashCode(element);
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder("ChampSet(");
+    for (T element : this) {
+      builder.append(builder.length() > "ChampSet(".length() ? ", " : "").append(element);
+    }
+    return builder.append(')').toString();
+  }
+}
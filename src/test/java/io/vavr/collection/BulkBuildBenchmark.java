@@ -0,0 +1,432 @@
+/*  __    __  __  __    __  ___
+ * \  \  /  /    \  \  /  /  __/
+ *  \  \/  /  /\  \  \/  /  /
+ *   \____/__/  \__\____/__/
+ *
+ * Copyright 2014-2019 Vavr, http://vavr.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vavr.collection;
+
+import io.vavr.JmhRunner;
+import io.vavr.Tuple;
+import io.vavr.Tuple2;
+import org.openjdk.jmh.annotations.*;
+
+import static io.vavr.JmhRunner.getRandomValues;
+import static java.util.Arrays.asList;
+
+/**
+ * Builds a collection element by element, as ingestion does:
+ * by a loop of persistent {@code append}/{@code put}/{@code add} ({@code <library>_persistent}),
+ * vs the amortized mutable-then-freeze path of the library, i.e. Clojure's and capsule's transients, Scala's builders and Eclipse's {@code toImmutable} ({@code <library>_transient}, {@code <library>_builder}),
+ * vs Vavr's {@code ofAll}/{@code ofEntries} and {@code collector()}.
+ * <br>
+ * Runs with the GC profiler, i.e. the allocated bytes per element are reported too.
+ */
+@SuppressWarnings({"UnnecessaryFullyQualifiedName", "WeakerAccess", "unchecked"})
+public class BulkBuildBenchmark {
+  static final Array<Class<?>> CLASSES = Array.of(
+      VectorBuild.class,
+      HashMapBuild.class,
+      HashSetBuild.class
+  );
+
+  public static void main(String... args) {
+    JmhRunner.runNormalWithAllocationNoAsserts(CLASSES);
+  }
+
+  public static class Base extends CollectionBenchmarkBase {
+    Integer[] ELEMENTS;
+    /* the index of every element as key */
+    java.util.List<Tuple2<Integer, Integer>> ENTRIES;
+    int EXPECTED_SET_SIZE;
+
+    @Setup
+    public void setup() {
+      ELEMENTS = getRandomValues(CONTAINER_SIZE, 0);
+      ENTRIES = Array.range(0, CONTAINER_SIZE).map(i -> Tuple.of(i, ELEMENTS[i])).toJavaList();
+      EXPECTED_SET_SIZE = new java.util.HashSet<>(asList(ELEMENTS)).size();
+    }
+  }
+
+  public static class VectorBuild extends Base {
+    @Benchmark
+    public Object java_mutable() {
+      final java.util.List<Integer> values = new java.util.ArrayList<>();
+      for (Integer element : ELEMENTS) {
+        values.add(element);
+      }
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object pcollections_persistent() {
+      org.pcollections.PVector<Integer> values = org.pcollections.TreePVector.empty();
+      for (Integer element : ELEMENTS) {
+        values = values.plus(element);
+      }
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object ecollections_persistent() {
+      org.eclipse.collections.api.list.ImmutableList<Integer> values = org.eclipse.collections.impl.factory.Lists.immutable.empty();
+      for (Integer element : ELEMENTS) {
+        values = values.newWith(element);
+      }
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object ecollections_builder() {
+      final org.eclipse.collections.api.list.MutableList<Integer> builder = org.eclipse.collections.impl.factory.Lists.mutable.empty();
+      for (Integer element : ELEMENTS) {
+        builder.add(element);
+      }
+      final org.eclipse.collections.api.list.ImmutableList<Integer> values = builder.toImmutable();
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object clojure_persistent() {
+      clojure.lang.PersistentVector values = clojure.lang.PersistentVector.EMPTY;
+      for (Integer element : ELEMENTS) {
+        values = values.cons(element);
+      }
+      assert values.count() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object clojure_transient() {
+      clojure.lang.ITransientCollection builder = clojure.lang.PersistentVector.EMPTY.asTransient();
+      for (Integer element : ELEMENTS) {
+        builder = builder.conj(element);
+      }
+      final clojure.lang.PersistentVector values = (clojure.lang.PersistentVector) builder.persistent();
+      assert values.count() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object scala_persistent() {
+      scala.collection.immutable.Vector<Integer> values = scala.collection.immutable.Vector$.MODULE$.empty();
+      for (Integer element : ELEMENTS) {
+        values = values.appendBack(element);
+      }
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object scala_builder() {
+      final scala.collection.mutable.Builder<Integer, scala.collection.immutable.Vector<Integer>> builder = scala.collection.immutable.Vector$.MODULE$.newBuilder();
+      for (Integer element : ELEMENTS) {
+        builder.$plus$eq(element);
+      }
+      final scala.collection.immutable.Vector<Integer> values = builder.result();
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_persistent() {
+      Vector<Integer> values = Vector.empty();
+      for (Integer element : ELEMENTS) {
+        values = values.append(element);
+      }
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_of_all() {
+      final Vector<Integer> values = Vector.ofAll(asList(ELEMENTS));
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_collector() {
+      final Vector<Integer> values = java.util.Arrays.stream(ELEMENTS).collect(Vector.collector());
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+  }
+
+  public static class HashMapBuild extends Base {
+    @Benchmark
+    public Object java_mutable() {
+      final java.util.Map<Integer, Integer> values = new java.util.HashMap<>();
+      for (int i = 0; i < ELEMENTS.length; i++) {
+        values.put(i, ELEMENTS[i]);
+      }
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object pcollections_persistent() {
+      org.pcollections.PMap<Integer, Integer> values = org.pcollections.HashTreePMap.empty();
+      for (int i = 0; i < ELEMENTS.length; i++) {
+        values = values.plus(i, ELEMENTS[i]);
+      }
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object ecollections_persistent() {
+      org.eclipse.collections.api.map.ImmutableMap<Integer, Integer> values = org.eclipse.collections.impl.factory.Maps.immutable.empty();
+      for (int i = 0; i < ELEMENTS.length; i++) {
+        values = values.newWithKeyValue(i, ELEMENTS[i]);
+      }
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object ecollections_builder() {
+      final org.eclipse.collections.api.map.MutableMap<Integer, Integer> builder = org.eclipse.collections.impl.factory.Maps.mutable.empty();
+      for (int i = 0; i < ELEMENTS.length; i++) {
+        builder.put(i, ELEMENTS[i]);
+      }
+      final org.eclipse.collections.api.map.ImmutableMap<Integer, Integer> values = builder.toImmutable();
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object capsule_persistent() {
+      io.usethesource.capsule.Map.Immutable<Integer, Integer> values = io.usethesource.capsule.core.PersistentTrieMap.of();
+      for (int i = 0; i < ELEMENTS.length; i++) {
+        values = values.__put(i, ELEMENTS[i]);
+      }
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object capsule_transient() {
+      final io.usethesource.capsule.Map.Transient<Integer, Integer> builder = io.usethesource.capsule.core.PersistentTrieMap.<Integer, Integer> of().asTransient();
+      for (int i = 0; i < ELEMENTS.length; i++) {
+        builder.__put(i, ELEMENTS[i]);
+      }
+      final io.usethesource.capsule.Map.Immutable<Integer, Integer> values = builder.freeze();
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object clojure_persistent() {
+      clojure.lang.IPersistentMap values = clojure.lang.PersistentHashMap.EMPTY;
+      for (int i = 0; i < ELEMENTS.length; i++) {
+        values = values.assoc(i, ELEMENTS[i]);
+      }
+      assert values.count() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object clojure_transient() {
+      clojure.lang.ITransientMap builder = clojure.lang.PersistentHashMap.EMPTY.asTransient();
+      for (int i = 0; i < ELEMENTS.length; i++) {
+        builder = builder.assoc(i, ELEMENTS[i]);
+      }
+      final clojure.lang.IPersistentMap values = builder.persistent();
+      assert values.count() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object scala_persistent() {
+      scala.collection.immutable.HashMap<Integer, Integer> values = new scala.collection.immutable.HashMap<>();
+      for (int i = 0; i < ELEMENTS.length; i++) {
+        values = values.updated(i, ELEMENTS[i]);
+      }
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object scala_builder() {
+      final scala.collection.mutable.Builder<scala.Tuple2<Integer, Integer>, scala.collection.immutable.HashMap<Integer, Integer>> builder = scala.collection.immutable.HashMap$.MODULE$.newBuilder();
+      for (int i = 0; i < ELEMENTS.length; i++) {
+        builder.$plus$eq(new scala.Tuple2<>(i, ELEMENTS[i]));
+      }
+      final scala.collection.immutable.HashMap<Integer, Integer> values = builder.result();
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_persistent() {
+      HashMap<Integer, Integer> values = HashMap.empty();
+      for (int i = 0; i < ELEMENTS.length; i++) {
+        values = values.put(i, ELEMENTS[i]);
+      }
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_of_all() {
+      final HashMap<Integer, Integer> values = HashMap.ofEntries(ENTRIES);
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_collector() {
+      final HashMap<Integer, Integer> values = ENTRIES.stream().collect(HashMap.collector());
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+  }
+
+  public static class HashSetBuild extends Base {
+    @Benchmark
+    public Object java_mutable() {
+      final java.util.Set<Integer> values = new java.util.HashSet<>();
+      for (Integer element : ELEMENTS) {
+        values.add(element);
+      }
+      assert values.size() == EXPECTED_SET_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object pcollections_persistent() {
+      org.pcollections.PSet<Integer> values = org.pcollections.HashTreePSet.empty();
+      for (Integer element : ELEMENTS) {
+        values = values.plus(element);
+      }
+      assert values.size() == EXPECTED_SET_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object ecollections_persistent() {
+      org.eclipse.collections.api.set.ImmutableSet<Integer> values = org.eclipse.collections.impl.factory.Sets.immutable.empty();
+      for (Integer element : ELEMENTS) {
+        values = values.newWith(element);
+      }
+      assert values.size() == EXPECTED_SET_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object ecollections_builder() {
+      final org.eclipse.collections.api.set.MutableSet<Integer> builder = org.eclipse.collections.impl.factory.Sets.mutable.empty();
+      for (Integer element : ELEMENTS) {
+        builder.add(element);
+      }
+      final org.eclipse.collections.api.set.ImmutableSet<Integer> values = builder.toImmutable();
+      assert values.size() == EXPECTED_SET_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object capsule_persistent() {
+      io.usethesource.capsule.Set.Immutable<Integer> values = io.usethesource.capsule.core.PersistentTrieSet.of();
+      for (Integer element : ELEMENTS) {
+        values = values.__insert(element);
+      }
+      assert values.size() == EXPECTED_SET_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object capsule_transient() {
+      final io.usethesource.capsule.Set.Transient<Integer> builder = io.usethesource.capsule.core.PersistentTrieSet.<Integer> of().asTransient();
+      for (Integer element : ELEMENTS) {
+        builder.__insert(element);
+      }
+      final io.usethesource.capsule.Set.Immutable<Integer> values = builder.freeze();
+      assert values.size() == EXPECTED_SET_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object clojure_persistent() {
+      clojure.lang.IPersistentSet values = clojure.lang.PersistentHashSet.EMPTY;
+      for (Integer element : ELEMENTS) {
+        values = (clojure.lang.IPersistentSet) values.cons(element);
+      }
+      assert values.count() == EXPECTED_SET_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object clojure_transient() {
+      clojure.lang.ITransientCollection builder = clojure.lang.PersistentHashSet.EMPTY.asTransient();
+      for (Integer element : ELEMENTS) {
+        builder = builder.conj(element);
+      }
+      final clojure.lang.IPersistentSet values = (clojure.lang.IPersistentSet) builder.persistent();
+      assert values.count() == EXPECTED_SET_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object scala_persistent() {
+      scala.collection.immutable.HashSet<Integer> values = new scala.collection.immutable.HashSet<>();
+      for (Integer element : ELEMENTS) {
+        values = values.$plus(element);
+      }
+      assert values.size() == EXPECTED_SET_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object scala_builder() {
+      final scala.collection.mutable.Builder<Integer, scala.collection.immutable.HashSet<Integer>> builder = scala.collection.immutable.HashSet$.MODULE$.newBuilder();
+      for (Integer element : ELEMENTS) {
+        builder.$plus$eq(element);
+      }
+      final scala.collection.immutable.HashSet<Integer> values = builder.result();
+      assert values.size() == EXPECTED_SET_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_persistent() {
+      HashSet<Integer> values = HashSet.empty();
+      for (Integer element : ELEMENTS) {
+        values = values.add(element);
+      }
+      assert values.size() == EXPECTED_SET_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_of_all() {
+      final HashSet<Integer> values = HashSet.ofAll(asList(ELEMENTS));
+      assert values.size() == EXPECTED_SET_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_collector() {
+      final HashSet<Integer> values = java.util.Arrays.stream(ELEMENTS).collect(HashSet.collector());
+      assert values.size() == EXPECTED_SET_SIZE;
+      return values;
+    }
+  }
+}
@@ -0,0 +1,307 @@
+/*  __    __  __  __    __  ___
+ * \  \  /  /    \  \  /  /  __/
+ *  \  \/  /  /\  \  \/  /  /
+ *   \____/__/  \__\____/__/
+ *
+ * Copyright 2014-2019 Vavr, http://vavr.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vavr.collection;
+
+import io.vavr.JmhRunner;
+import io.vavr.Tuple2;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static io.vavr.JmhRunner.Includes.*;
+
+/**
+ * Producers and consumers exchanging elements through a shared queue, i.e. the throughput of the queue under contention.
+ * <br>
+ * Every benchmark is a {@link Group}, its name is the implementation. The primary result is the sum of all calls,
+ * the {@link OfferCounters} and {@link PollCounters} tell apart the successful and the failed (i.e. full or empty) ones.
+ * <br>
+ * {@code vavr_cas} is the common lock-free buffer pattern of swapping a persistent {@link Queue} in an {@link AtomicReference},
+ * its counters also contain the lost compare-and-set races.
+ */
+@SuppressWarnings({"UnnecessaryFullyQualifiedName", "WeakerAccess"})
+public class ConcurrentQueueBenchmark {
+  static final Array<Class<?>> CLASSES = Array.of(
+      OneToOne.class,
+      ManyToOne.class
+  );
+
+  public static void main(String... args) {
+    JmhRunner.runNormalNoAsserts(CLASSES, JAVA, JCTOOLS, ARGONA, VAVR);
+  }
+
+  static final Integer ELEMENT = 1;
+
+  /**
+   * The queues shared by the threads of a single group, recreated for every iteration (i.e. the unbounded ones are dropped with their backlog)
+   */
+  @State(Scope.Group)
+  public static class Exchange {
+    @Param({"1024"})
+    public int CAPACITY;
+
+    org.jctools.queues.SpscArrayQueue<Integer> jctoolsSpsc;
+    org.jctools.queues.MpscArrayQueue<Integer> jctoolsMpsc;
+    org.agrona.concurrent.ManyToOneConcurrentArrayQueue<Integer> agronaManyToOne;
+    java.util.concurrent.ArrayBlockingQueue<Integer> javaArrayBlocking;
+    /* unbounded */
+    java.util.concurrent.LinkedTransferQueue<Integer> javaLinkedTransfer;
+    /* unbounded */
+    AtomicReference<io.vavr.collection.Queue<Integer>> vavrCas;
+
+    @Setup(Level.Iteration)
+    public void setup() {
+      jctoolsSpsc = new org.jctools.queues.SpscArrayQueue<>(CAPACITY);
+      jctoolsMpsc = new org.jctools.queues.MpscArrayQueue<>(CAPACITY);
+      agronaManyToOne = new org.agrona.concurrent.ManyToOneConcurrentArrayQueue<>(CAPACITY);
+      javaArrayBlocking = new java.util.concurrent.ArrayBlockingQueue<>(CAPACITY);
+      javaLinkedTransfer = new java.util.concurrent.LinkedTransferQueue<>();
+      vavrCas = new AtomicReference<>(io.vavr.collection.Queue.empty());
+    }
+  }
+
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  @State(Scope.Thread)
+  public static class OfferCounters {
+    public long offersMade;
+    public long offersFailed;
+    public long offerCasRetries;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      offersMade = offersFailed = offerCasRetries = 0;
+    }
+  }
+
+  @AuxCounters(AuxCounters.Type.OPERATIONS)
+  @State(Scope.Thread)
+  public static class PollCounters {
+    public long pollsMade;
+    public long pollsFailed;
+    public long pollCasRetries;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      pollsMade = pollsFailed = pollCasRetries = 0;
+    }
+  }
+
+  static void offer(java.util.Queue<Integer> queue, OfferCounters counters) {
+    if (queue.offer(ELEMENT)) {
+      counters.offersMade++;
+    } else {
+      counters.offersFailed++;
+    }
+  }
+
+  static Integer poll(java.util.Queue<Integer> queue, PollCounters counters) {
+    final Integer element = queue.poll();
+    if (element != null) {
+      counters.pollsMade++;
+    } else {
+      counters.pollsFailed++;
+    }
+    return element;
+  }
+
+  static void offer(AtomicReference<io.vavr.collection.Queue<Integer>> reference, OfferCounters counters) {
+    for (io.vavr.collection.Queue<Integer> current = reference.get(); !reference.compareAndSet(current, current.enqueue(ELEMENT)); current = reference.get()) {
+      counters.offerCasRetries++;
+    }
+    counters.offersMade++;
+  }
+
+  static Integer poll(AtomicReference<io.vavr.collection.Queue<Integer>> reference, PollCounters counters) {
+    for (io.vavr.collection.Queue<Integer> current = reference.get(); !current.isEmpty(); current = reference.get()) {
+      final Tuple2<Integer, io.vavr.collection.Queue<Integer>> dequeued = current.dequeue();
+      if (reference.compareAndSet(current, dequeued._2)) {
+        counters.pollsMade++;
+        return dequeued._1;
+      }
+      counters.pollCasRetries++;
+    }
+    counters.pollsFailed++;
+    return null;
+  }
+
+  /**
+   * A single producer and a single consumer
+   */
+  public static class OneToOne {
+    @Benchmark
+    @Group("jctools_spsc")
+    @GroupThreads(1)
+    public void jctools_spsc_offer(Exchange exchange, OfferCounters counters) {
+      offer(exchange.jctoolsSpsc, counters);
+    }
+
+    @Benchmark
+    @Group("jctools_spsc")
+    @GroupThreads(1)
+    public Object jctools_spsc_poll(Exchange exchange, PollCounters counters) {
+      return poll(exchange.jctoolsSpsc, counters);
+    }
+
+    @Benchmark
+    @Group("jctools_mpsc")
+    @GroupThreads(1)
+    public void jctools_mpsc_offer(Exchange exchange, OfferCounters counters) {
+      offer(exchange.jctoolsMpsc, counters);
+    }
+
+    @Benchmark
+    @Group("jctools_mpsc")
+    @GroupThreads(1)
+    public Object jctools_mpsc_poll(Exchange exchange, PollCounters counters) {
+      return poll(exchange.jctoolsMpsc, counters);
+    }
+
+    @Benchmark
+    @Group("agrona_many_to_one")
+    @GroupThreads(1)
+    public void agrona_many_to_one_offer(Exchange exchange, OfferCounters counters) {
+      offer(exchange.agronaManyToOne, counters);
+    }
+
+    @Benchmark
+    @Group("agrona_many_to_one")
+    @GroupThreads(1)
+    public Object agrona_many_to_one_poll(Exchange exchange, PollCounters counters) {
+      return poll(exchange.agronaManyToOne, counters);
+    }
+
+    @Benchmark
+    @Group("java_array_blocking")
+    @GroupThreads(1)
+    public void java_array_blocking_offer(Exchange exchange, OfferCounters counters) {
+      offer(exchange.javaArrayBlocking, counters);
+    }
+
+    @Benchmark
+    @Group("java_array_blocking")
+    @GroupThreads(1)
+    public Object java_array_blocking_poll(Exchange exchange, PollCounters counters) {
+      return poll(exchange.javaArrayBlocking, counters);
+    }
+
+    @Benchmark
+    @Group("java_linked_transfer")
+    @GroupThreads(1)
+    public void java_linked_transfer_offer(Exchange exchange, OfferCounters counters) {
+      offer(exchange.javaLinkedTransfer, counters);
+    }
+
+    @Benchmark
+    @Group("java_linked_transfer")
+    @GroupThreads(1)
+    public Object java_linked_transfer_poll(Exchange exchange, PollCounters counters) {
+      return poll(exchange.javaLinkedTransfer, counters);
+    }
+
+    @Benchmark
+    @Group("vavr_cas")
+    @GroupThreads(1)
+    public void vavr_cas_offer(Exchange exchange, OfferCounters counters) {
+      offer(exchange.vavrCas, counters);
+    }
+
+    @Benchmark
+    @Group("vavr_cas")
+    @GroupThreads(1)
+    public Object vavr_cas_poll(Exchange exchange, PollCounters counters) {
+      return poll(exchange.vavrCas, counters);
+    }
+  }
+
+  /**
+   * Three producers racing for the tail and a single consumer, i.e. the multi-producer single-consumer topology
+   */
+  public static class ManyToOne {
+    @Benchmark
+    @Group("jctools_mpsc")
+    @GroupThreads(3)
+    public void jctools_mpsc_offer(Exchange exchange, OfferCounters counters) {
+      offer(exchange.jctoolsMpsc, counters);
+    }
+
+    @Benchmark
+    @Group("jctools_mpsc")
+    @GroupThreads(1)
+    public Object jctools_mpsc_poll(Exchange exchange, PollCounters counters) {
+      return poll(exchange.jctoolsMpsc, counters);
+    }
+
+    @Benchmark
+    @Group("agrona_many_to_one")
+    @GroupThreads(3)
+    public void agrona_many_to_one_offer(Exchange exchange, OfferCounters counters) {
+      offer(exchange.agronaManyToOne, counters);
+    }
+
+    @Benchmark
+    @Group("agrona_many_to_one")
+    @GroupThreads(1)
+    public Object agrona_many_to_one_poll(Exchange exchange, PollCounters counters) {
+      return poll(exchange.agronaManyToOne, counters);
+    }
+
+    @Benchmark
+    @Group("java_array_blocking")
+    @GroupThreads(3)
+    public void java_array_blocking_offer(Exchange exchange, OfferCounters counters) {
+      offer(exchange.javaArrayBlocking, counters);
+    }
+
+    @Benchmark
+    @Group("java_array_blocking")
+    @GroupThreads(1)
+    public Object java_array_blocking_poll(Exchange exchange, PollCounters counters) {
+      return poll(exchange.javaArrayBlocking, counters);
+    }
+
+    @Benchmark
+    @Group("java_linked_transfer")
+    @GroupThreads(3)
+    public void java_linked_transfer_offer(Exchange exchange, OfferCounters counters) {
+      offer(exchange.javaLinkedTransfer, counters);
+    }
+
+    @Benchmark
+    @Group("java_linked_transfer")
+    @GroupThreads(1)
+    public Object java_linked_transfer_poll(Exchange exchange, PollCounters counters) {
+      return poll(exchange.javaLinkedTransfer, counters);
+    }
+
+    @Benchmark
+    @Group("vavr_cas")
+    @GroupThreads(3)
+    public void vavr_cas_offer(Exchange exchange, OfferCounters counters) {
+      offer(exchange.vavrCas, counters);
+    }
+
+    @Benchmark
+    @Group("vavr_cas")
+    @GroupThreads(1)
+    public Object vavr_cas_poll(Exchange exchange, PollCounters counters) {
+      return poll(exchange.vavrCas, counters);
+    }
+  }
+}
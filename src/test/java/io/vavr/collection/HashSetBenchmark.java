@@ -20,6 +20,7 @@
 package io.vavr.collection;
 
 import io.vavr.JmhRunner;
+import io.vavr.MemoryUsage;
 import org.openjdk.jmh.annotations.*;
 
 import static io.vavr.JmhRunner.create;
@@ -30,10 +31,12 @@ public class HashSetBenchmark {
   static final Array<Class<?>> CLASSES = Array.of(
       HashSetAdd.class,
       HashSetIterate.class,
-      HashSetRemove.class
+      HashSetRemove.class,
+      HashSetEquals.class
   );
 
   public static void main(String... args) {
+    io.vavr.champ.ChampCheck.main(); /* the champ_immutable prototype, as the assertions of the benchmarks are disabled */
     JmhRunner.runNormalNoAsserts(CLASSES);
   }
 
@@ -46,6 +49,7 @@ public class HashSetBenchmark {
     scala.collection.immutable.Set<Integer> scalaImmutable;
     org.pcollections.PSet<Integer> pcollectionsImmutable;
     io.usethesource.capsule.Set.Immutable<Integer> capsuleImmutable;
+    io.vavr.champ.ChampSet<Integer> champImmutable;
     io.vavr.collection.Set<Integer> vavrImmutable;
 
     @Setup
@@ -59,6 +63,7 @@ public class HashSetBenchmark {
       scalaImmutable = create(v -> (scala.collection.immutable.Set<Integer>) scala.collection.immutable.HashSet$.MODULE$.apply(asScalaBuffer(v)), SET.toJavaList(), SET.size(), v -> SET.forAll(v::contains));
       pcollectionsImmutable = create(org.pcollections.HashTreePSet::from, SET.toJavaList(), SET.size(), v -> SET.forAll(v::contains));
       capsuleImmutable = create(io.usethesource.capsule.util.collection.AbstractSpecialisedImmutableSet::setOf, SET.toJavaSet(), SET.size(), v -> SET.forAll(v::contains));
+      champImmutable = create(io.vavr.champ.ChampSet::ofAll, SET, SET.size(), v -> SET.forAll(v::contains));
       vavrImmutable = create(io.vavr.collection.HashSet::ofAll, SET, SET.size(), v -> SET.forAll(v::contains));
     }
   }
@@ -94,6 +99,16 @@ public class HashSetBenchmark {
       return values;
     }
 
+    @Benchmark
+    public Object champ_immutable() {
+      io.vavr.champ.ChampSet<Integer> values = io.vavr.champ.ChampSet.empty();
+      for (Integer element : ELEMENTS) {
+        values = values.add(element);
+      }
+      assert SET.forAll(values::contains);
+      return values;
+    }
+
     @Benchmark
     public Object vavr_immutable() {
       io.vavr.collection.Set<Integer> values = io.vavr.collection.HashSet.empty();
@@ -126,6 +141,16 @@ public class HashSetBenchmark {
       return values;
     }
 
+    @Benchmark
+    public Object champ_immutable() {
+      io.vavr.champ.ChampSet<Integer> values = champImmutable;
+      for (Integer element : ELEMENTS) {
+        values = values.remove(element);
+      }
+      assert values.isEmpty();
+      return values;
+    }
+
     @Benchmark
     public Object vavr_immutable() {
       io.vavr.collection.Set<Integer> values = vavrImmutable;
@@ -139,6 +164,12 @@ public class HashSetBenchmark {
 
   @SuppressWarnings("ForLoopReplaceableByForEach")
   public static class HashSetIterate extends Base {
+    @Setup
+    public void printFootprint() {
+      System.out.println(String.format("%nBytes of %d elements: scala_immutable=%d, pcollections_immutable=%d, capsule_immutable=%d, champ_immutable=%d, vavr_immutable=%d",
+          SET.size(), MemoryUsage.byteSize(scalaImmutable), MemoryUsage.byteSize(pcollectionsImmutable), MemoryUsage.byteSize(capsuleImmutable), MemoryUsage.byteSize(champImmutable), MemoryUsage.byteSize(vavrImmutable)));
+    }
+
     @Benchmark
     public int scala_immutable() {
       int aggregate = 0;
@@ -169,6 +200,16 @@ public class HashSetBenchmark {
       return aggregate;
     }
 
+    @Benchmark
+    public int champ_immutable() {
+      int aggregate = 0;
+      for (final java.util.Iterator<Integer> iterator = champImmutable.iterator(); iterator.hasNext(); ) {
+        aggregate ^= iterator.next();
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
     @Benchmark
     public int vavr_immutable() {
       int aggregate = 0;
@@ -179,4 +220,46 @@ public class HashSetBenchmark {
       return aggregate;
     }
   }
+
+  /**
+   * Compares the sets with equal ones, built by adding the elements in reverse order
+   */
+  public static class HashSetEquals extends Base {
+    io.usethesource.capsule.Set.Immutable<Integer> capsuleCopy;
+    io.vavr.champ.ChampSet<Integer> champCopy;
+    io.vavr.collection.Set<Integer> vavrCopy;
+
+    @Setup
+    public void copy() {
+      capsuleCopy = io.usethesource.capsule.core.PersistentTrieSet.of();
+      champCopy = io.vavr.champ.ChampSet.empty();
+      vavrCopy = io.vavr.collection.HashSet.empty();
+      for (Integer element : SET.toList().reverse()) {
+        capsuleCopy = capsuleCopy.__insert(element);
+        champCopy = champCopy.add(element);
+        vavrCopy = vavrCopy.add(element);
+      }
+    }
+
+    @Benchmark
+    public boolean capsule_immutable() {
+      final boolean result = capsuleImmutable.equals(capsuleCopy);
+      assert result;
+      return result;
+    }
+
+    @Benchmark
+    public boolean champ_immutable() {
+      final boolean result = champImmutable.equals(champCopy);
+      assert result;
+      return result;
+    }
+
+    @Benchmark
+    public boolean vavr_immutable() {
+      final boolean result = vavrImmutable.equals(vavrCopy);
+      assert result;
+      return result;
+    }
+  }
 }
@@ -0,0 +1,112 @@
+/*  __    __  __  __    __  ___
+ * \  \  /  /    \  \  /  /  __/
+ *  \  \/  /  /\  \  \/  /  /
+ *   \____/__/  \__\____/__/
+ *
+ * Copyright 2014-2019 Vavr, http://vavr.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vavr.collection;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Unboxed read access to a {@link Vector} with {@code int[]} leaves (i.e. created by {@code Vector.ofAll(int[])}),
+ * reading the leaves of its trie directly instead of returning an {@code Integer} per element as {@code Vector.get} does.
+ * <br>
+ * The leaves are collected once, all but the last one are full (the first one may start at an offset), so an element is found by a shift and a mask.
+ * The view is immutable, as the vector is.
+ */
+public final class IntVectorView {
+
+  private static final int BRANCHING_BASE = 5;
+  private static final int BRANCHING_FACTOR = 1 << BRANCHING_BASE;
+  private static final int BRANCHING_MASK = BRANCHING_FACTOR - 1;
+
+  private final int[][] leaves;
+  /* the index of the first element in the first leaf */
+  private final int start;
+  private final int size;
+
+  private IntVectorView(int[][] leaves, int start, int size) {
+    this.leaves = leaves;
+    this.start = start;
+    this.size = size;
+  }
+
+  /**
+   * @throws IllegalArgumentException if the vector doesn't have {@code int[]} leaves
+   */
+  public static IntVectorView of(Vector<Integer> vector) {
+    if (vector.trie.type.type() != int.class) {
+      throw new IllegalArgumentException("expected a vector with int[] leaves, got " + vector.trie.type.type());
+    }
+    final java.util.List<int[]> leaves = new java.util.ArrayList<>();
+    final int[] start = {0};
+    vector.trie.<int[]>visit((ordinal, leaf, from, to) -> {
+      final int next = ordinal + to - from;
+      final boolean isFull = (leaf.length == BRANCHING_FACTOR) && (to == BRANCHING_FACTOR);
+      if ((!leaves.isEmpty() && from != 0) || (next < vector.size() && !isFull)) {
+        throw new IllegalArgumentException("unexpected leaf layout at index " + ordinal);
+      }
+      if (leaves.isEmpty()) {
+        start[0] = from;
+      }
+      leaves.add(leaf);
+      return next;
+    });
+    return new IntVectorView(leaves.toArray(new int[0][]), start[0], vector.size());
+  }
+
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @throws IndexOutOfBoundsException if the index is not in {@code [0, size)}
+   */
+  public int getInt(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("getInt(" + index + ") on a vector of size " + size);
+    }
+    final int position = index + start;
+    return leaves[position >>> BRANCHING_BASE][position & BRANCHING_MASK];
+  }
+
+  public void forEachInt(IntConsumer action) {
+    int remaining = size;
+    int from = start;
+    for (int[] leaf : leaves) {
+      final int to = Math.min(leaf.length, from + remaining);
+      for (int i = from; i < to; i++) {
+        action.accept(leaf[i]);
+      }
+      remaining -= to - from;
+      from = 0;
+    }
+  }
+
+  public int[] toIntArray() {
+    final int[] results = new int[size];
+    int remaining = size;
+    int from = start;
+    for (int[] leaf : leaves) {
+      final int length = Math.min(leaf.length - from, remaining);
+      System.arraycopy(leaf, from, results, size - remaining, length);
+      remaining -= length;
+      from = 0;
+    }
+    return results;
+  }
+}
@@ -0,0 +1,248 @@
+/*  __    __  __  __    __  ___
+ * \  \  /  /    \  \  /  /  __/
+ *  \  \/  /  /\  \  \/  /  /
+ *   \____/__/  \__\____/__/
+ *
+ * Copyright 2014-2019 Vavr, http://vavr.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vavr.collection;
+
+import io.vavr.JmhRunner;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+
+import static io.vavr.JmhRunner.Includes.*;
+import static io.vavr.JmhRunner.getRandomValues;
+import static io.vavr.JmhRunner.shuffle;
+
+/**
+ * Unboxed reads of a {@link Vector} with {@code int[]} leaves via {@link IntVectorView}
+ * vs boxed {@code Vector.get} (with boxed and {@code int[]} leaves), fastutil's {@code IntArrayList.getInt} and an {@code int[]}.
+ * <br>
+ * {@code vavr_unboxed} reads a view created in the setup, i.e. the collected leaves only.
+ * {@code vavr_unboxed_with_view} creates the view per operation, as a pipeline needs for every new version of the vector,
+ * i.e. including the collecting of the leaves and its allocation.
+ */
+@SuppressWarnings({"UnnecessaryFullyQualifiedName", "WeakerAccess"})
+public class IntVectorViewBenchmark {
+  static final Array<Class<?>> CLASSES = Array.of(
+      IntGet.class,
+      IntIterate.class,
+      IntToArray.class
+  );
+
+  public static void main(String... args) {
+    JmhRunner.runNormalNoAsserts(CLASSES, JAVA, FASTUTIL, VAVR);
+  }
+
+  public static class Base extends CollectionBenchmarkBase {
+    int EXPECTED_AGGREGATE;
+    int[] INT_ELEMENTS;
+    int[] RANDOMIZED_INDICES;
+
+    it.unimi.dsi.fastutil.ints.IntArrayList fastutilMutable;
+    Vector<Integer> vavrImmutable;
+    Vector<Integer> vavrImmutableInt;
+    IntVectorView vavrUnboxed;
+
+    @Setup
+    public void setup() {
+      final Random random = new Random(0);
+      final Integer[] elements = getRandomValues(CONTAINER_SIZE, false, random);
+      INT_ELEMENTS = ArrayType.asPrimitives(int.class, Array.of(elements));
+      RANDOMIZED_INDICES = shuffle(Array.range(0, CONTAINER_SIZE).toJavaStream().mapToInt(Integer::intValue).toArray(), random);
+      EXPECTED_AGGREGATE = Array.of(elements).reduce(JmhRunner::aggregate);
+
+      fastutilMutable = new it.unimi.dsi.fastutil.ints.IntArrayList(INT_ELEMENTS);
+      vavrImmutable = Vector.of(elements);
+      vavrImmutableInt = Vector.ofAll(INT_ELEMENTS);
+      vavrUnboxed = IntVectorView.of(vavrImmutableInt);
+      assert vavrImmutableInt.trie.type.type() == int.class;
+      assert java.util.Arrays.equals(vavrUnboxed.toIntArray(), INT_ELEMENTS);
+    }
+  }
+
+  /**
+   * Randomized access to every element
+   */
+  public static class IntGet extends Base {
+    @Benchmark
+    public int java_array() {
+      int aggregate = 0;
+      for (int i : RANDOMIZED_INDICES) {
+        aggregate ^= INT_ELEMENTS[i];
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int fastutil_intarraylist() {
+      int aggregate = 0;
+      for (int i : RANDOMIZED_INDICES) {
+        aggregate ^= fastutilMutable.getInt(i);
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int vavr_immutable() {
+      int aggregate = 0;
+      for (int i : RANDOMIZED_INDICES) {
+        aggregate ^= vavrImmutable.get(i);
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int vavr_immutable_int() {
+      int aggregate = 0;
+      for (int i : RANDOMIZED_INDICES) {
+        aggregate ^= vavrImmutableInt.get(i);
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int vavr_unboxed() {
+      int aggregate = 0;
+      for (int i : RANDOMIZED_INDICES) {
+        aggregate ^= vavrUnboxed.getInt(i);
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int vavr_unboxed_with_view() {
+      final IntVectorView view = IntVectorView.of(vavrImmutableInt);
+      int aggregate = 0;
+      for (int i : RANDOMIZED_INDICES) {
+        aggregate ^= view.getInt(i);
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+  }
+
+  /**
+   * Sequential access for all elements
+   */
+  public static class IntIterate extends Base {
+    @Benchmark
+    public int java_array() {
+      int aggregate = 0;
+      for (int element : INT_ELEMENTS) {
+        aggregate ^= element;
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int fastutil_intarraylist() {
+      int aggregate = 0;
+      for (final it.unimi.dsi.fastutil.ints.IntIterator iterator = fastutilMutable.iterator(); iterator.hasNext(); ) {
+        aggregate ^= iterator.nextInt();
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int vavr_immutable() {
+      int aggregate = 0;
+      for (final Iterator<Integer> iterator = vavrImmutable.iterator(); iterator.hasNext(); ) {
+        aggregate ^= iterator.next();
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int vavr_immutable_int() {
+      int aggregate = 0;
+      for (final Iterator<Integer> iterator = vavrImmutableInt.iterator(); iterator.hasNext(); ) {
+        aggregate ^= iterator.next();
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int vavr_unboxed() {
+      final int[] aggregate = {0};
+      vavrUnboxed.forEachInt(element -> aggregate[0] ^= element);
+      assert aggregate[0] == EXPECTED_AGGREGATE;
+      return aggregate[0];
+    }
+
+    @Benchmark
+    public int vavr_unboxed_with_view() {
+      final int[] aggregate = {0};
+      IntVectorView.of(vavrImmutableInt).forEachInt(element -> aggregate[0] ^= element);
+      assert aggregate[0] == EXPECTED_AGGREGATE;
+      return aggregate[0];
+    }
+  }
+
+  public static class IntToArray extends Base {
+    @Benchmark
+    public Object java_array() {
+      final int[] results = INT_ELEMENTS.clone();
+      assert results.length == CONTAINER_SIZE;
+      return results;
+    }
+
+    @Benchmark
+    public Object fastutil_intarraylist() {
+      final int[] results = fastutilMutable.toIntArray();
+      assert results.length == CONTAINER_SIZE;
+      return results;
+    }
+
+    @Benchmark
+    public Object vavr_immutable() {
+      final int[] results = vavrImmutable.toJavaStream().mapToInt(Integer::intValue).toArray();
+      assert results.length == CONTAINER_SIZE;
+      return results;
+    }
+
+    @Benchmark
+    public Object vavr_immutable_int() {
+      final int[] results = vavrImmutableInt.toJavaStream().mapToInt(Integer::intValue).toArray();
+      assert results.length == CONTAINER_SIZE;
+      return results;
+    }
+
+    @Benchmark
+    public Object vavr_unboxed() {
+      final int[] results = vavrUnboxed.toIntArray();
+      assert results.length == CONTAINER_SIZE;
+      return results;
+    }
+
+    @Benchmark
+    public Object vavr_unboxed_with_view() {
+      final int[] results = IntVectorView.of(vavrImmutableInt).toIntArray();
+      assert results.length == CONTAINER_SIZE;
+      return results;
+    }
+  }
+}
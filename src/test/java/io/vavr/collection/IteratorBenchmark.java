@@ -20,11 +20,14 @@
 package io.vavr.collection;
 
 import io.vavr.JmhRunner;
+import io.vavr.control.Option;
 import org.junit.Assert;
 import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
 import org.openjdk.jmh.infra.Blackhole;
 
 import java.util.Random;
+import java.util.function.Supplier;
 
 import static io.vavr.JmhRunner.Includes.*;
 import static io.vavr.JmhRunner.getRandomValues;
@@ -34,13 +37,25 @@ public class IteratorBenchmark {
 
   static final Array<Class<?>> CLASSES = Array.of(
       IteratorSliding.class,
-      IteratorConcat.class
+      IteratorConcat.class,
+      IteratorConcatShape.class,
+      IteratorFlatMapTiny.class
   );
 
   public static void main(String... args) {
     JmhRunner.runNormalNoAsserts(CLASSES, JAVA, SCALA, VAVR);
   }
 
+  /**
+   * Runs the traversal on a thread with a default sized stack and fails if it overflows.
+   */
+  static void assertNoStackOverflow(String name, Supplier<?> traversal) {
+    final Option<StackOverflowError> overflow = JmhRunner.runOnDefaultStack(name, traversal);
+    if (overflow.isDefined()) {
+      throw new AssertionError(name + " overflows a default sized stack of " + JmhRunner.DEFAULT_THREAD_STACK_SIZE + " bytes", overflow.get());
+    }
+  }
+
   public static class Base extends CollectionBenchmarkBase {
 
     Integer[] ELEMENTS;
@@ -107,4 +122,150 @@ public class IteratorBenchmark {
       Assert.assertEquals(size, sum);
     }
   }
+
+  /**
+   * Concatenation of single element iterators in different shapes, i.e. nested to the left, to the right or as a balanced tree.
+   * <br>
+   * The setup fails if Vavr's traversal overflows a default sized stack.
+   * {@link java.util.stream.Stream#concat} is missing, as it is documented to overflow on deep concatenation.
+   */
+  @State(Scope.Benchmark)
+  public static class IteratorConcatShape {
+    public enum Shape {
+      LEFT,
+      RIGHT,
+      BALANCED
+    }
+
+    @Param({"LEFT", "RIGHT", "BALANCED"})
+    public Shape SHAPE;
+
+    @Param({"1000", "100000", "1000000"})
+    public int CONTAINER_SIZE;
+
+    @Setup
+    public void setup(BenchmarkParams params) {
+      if (params.getBenchmark().endsWith("vavr_immutable")) {
+        assertNoStackOverflow(SHAPE + " concat of " + CONTAINER_SIZE + " iterators", this::vavr);
+      }
+    }
+
+    long vavr() {
+      final Iterator<Integer> iterator;
+      switch (SHAPE) {
+        case LEFT:
+          iterator = Iterator.range(0, CONTAINER_SIZE).foldLeft(Iterator.empty(), (result, __) -> result.concat(Iterator.of(1)));
+          break;
+        case RIGHT:
+          iterator = Iterator.range(0, CONTAINER_SIZE).foldLeft(Iterator.empty(), (result, __) -> Iterator.of(1).concat(result));
+          break;
+        default:
+          iterator = vavrBalanced(0, CONTAINER_SIZE);
+      }
+      long sum = 0;
+      while (iterator.hasNext()) {
+        sum += iterator.next();
+      }
+      return sum;
+    }
+
+    static Iterator<Integer> vavrBalanced(int from, int to) {
+      if (to - from == 1) {
+        return Iterator.of(1);
+      }
+      final int middle = (from + to) >>> 1;
+      return vavrBalanced(from, middle).concat(vavrBalanced(middle, to));
+    }
+
+    long scala() {
+      final scala.collection.Iterator<Integer> empty = (scala.collection.Iterator<Integer>) (Object) scala.collection.Iterator.empty();
+      final scala.collection.Iterator<Integer> iterator;
+      switch (SHAPE) {
+        case LEFT:
+          iterator = scala.collection.Iterator.range(0, CONTAINER_SIZE).foldLeft(empty, (result, i) -> result.$plus$plus(() -> scala.collection.Iterator.single(1)));
+          break;
+        case RIGHT:
+          iterator = scala.collection.Iterator.range(0, CONTAINER_SIZE).foldLeft(empty, (result, i) -> scala.collection.Iterator.single(1).$plus$plus(() -> result));
+          break;
+        default:
+          iterator = scalaBalanced(0, CONTAINER_SIZE);
+      }
+      long sum = 0;
+      while (iterator.hasNext()) {
+        sum += iterator.next();
+      }
+      return sum;
+    }
+
+    static scala.collection.Iterator<Integer> scalaBalanced(int from, int to) {
+      if (to - from == 1) {
+        return scala.collection.Iterator.single(1);
+      }
+      final int middle = (from + to) >>> 1;
+      final scala.collection.Iterator<Integer> right = scalaBalanced(middle, to);
+      return scalaBalanced(from, middle).$plus$plus(() -> right);
+    }
+
+    @Benchmark
+    public void vavr_immutable() {
+      Assert.assertEquals(CONTAINER_SIZE, vavr());
+    }
+
+    @Benchmark
+    public void scala_immutable() {
+      Assert.assertEquals(CONTAINER_SIZE, scala());
+    }
+  }
+
+  /**
+   * A flatMap producing a single element iterator for every element, i.e. millions of tiny iterators
+   * <br>
+   * The setup fails if Vavr's traversal overflows a default sized stack.
+   */
+  @State(Scope.Benchmark)
+  public static class IteratorFlatMapTiny {
+    @Param({"1000", "1000000"})
+    public int CONTAINER_SIZE;
+
+    @Setup
+    public void setup(BenchmarkParams params) {
+      if (params.getBenchmark().endsWith("vavr_immutable")) {
+        assertNoStackOverflow("flatMap into " + CONTAINER_SIZE + " iterators", this::vavr);
+      }
+    }
+
+    long vavr() {
+      final Iterator<Integer> iterator = Iterator.range(0, CONTAINER_SIZE).flatMap(i -> Iterator.of(1));
+      long sum = 0;
+      while (iterator.hasNext()) {
+        sum += iterator.next();
+      }
+      return sum;
+    }
+
+    @Benchmark
+    public void java_mutable() {
+      final java.util.Iterator<Integer> iterator = java.util.stream.IntStream.range(0, CONTAINER_SIZE).boxed().flatMap(i -> java.util.stream.Stream.of(1)).iterator();
+      long sum = 0;
+      while (iterator.hasNext()) {
+        sum += iterator.next();
+      }
+      Assert.assertEquals(CONTAINER_SIZE, sum);
+    }
+
+    @Benchmark
+    public void scala_immutable() {
+      final scala.collection.Iterator<Object> iterator = scala.collection.Iterator.range(0, CONTAINER_SIZE).flatMap(i -> scala.collection.Iterator.single(1));
+      long sum = 0;
+      while (iterator.hasNext()) {
+        sum += (Integer) iterator.next();
+      }
+      Assert.assertEquals(CONTAINER_SIZE, sum);
+    }
+
+    @Benchmark
+    public void vavr_immutable() {
+      Assert.assertEquals(CONTAINER_SIZE, vavr());
+    }
+  }
 }
@@ -0,0 +1,310 @@
+/*  __    __  __  __    __  ___
+ * \  \  /  /    \  \  /  /  __/
+ *  \  \/  /  /\  \  \/  /  /
+ *   \____/__/  \__\____/__/
+ *
+ * Copyright 2014-2019 Vavr, http://vavr.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vavr.collection;
+
+import io.vavr.JmhRunner;
+import org.eclipse.collections.api.LazyIterable;
+import org.eclipse.collections.api.RichIterable;
+import org.eclipse.collections.api.tuple.Pair;
+import org.eclipse.collections.impl.list.Interval;
+import org.eclipse.collections.impl.utility.LazyIterate;
+import org.openjdk.jmh.annotations.*;
+
+import static io.vavr.JmhRunner.Includes.*;
+import static io.vavr.JmhRunner.getRandomValues;
+import static java.util.Arrays.asList;
+import static scala.collection.JavaConverters.asScalaIterator;
+
+/**
+ * Benchmark for long, lazy iterator pipelines, i.e. the cost per stage of fusing lambdas into an iterator chain.
+ */
+@SuppressWarnings({"ALL", "unchecked", "rawtypes"})
+public class IteratorPipelineBenchmark {
+  static final Array<Class<?>> CLASSES = Array.of(
+      IteratorPipeline.class,
+      IteratorEtl.class
+  );
+
+  public static void main(String... args) {
+    JmhRunner.runNormalNoAsserts(CLASSES, JAVA, ECOLLECTIONS, SCALA, VAVR);
+  }
+
+  /* The distinct kinds of map stages, i.e. a pipeline deeper than 2 stages makes the call site inside map megamorphic */
+  static final int STAGE_KINDS = 8;
+
+  static int op0(int i) { return i + 1; }
+  static int op1(int i) { return i ^ 0x5555; }
+  static int op2(int i) { return i * 3; }
+  static int op3(int i) { return i - 7; }
+  static int op4(int i) { return i >>> 1; }
+  static int op5(int i) { return i << 1; }
+  static int op6(int i) { return Integer.rotateLeft(i, 3); }
+  static int op7(int i) { return ~i; }
+
+  static int stage(int stage, int i) {
+    switch (stage % STAGE_KINDS) {
+      case 0: return op0(i);
+      case 1: return op1(i);
+      case 2: return op2(i);
+      case 3: return op3(i);
+      case 4: return op4(i);
+      case 5: return op5(i);
+      case 6: return op6(i);
+      default: return op7(i);
+    }
+  }
+
+  /* Every case is a separate lambda, i.e. a separate class */
+  static java.util.function.Function<Integer, Integer> javaStage(int stage) {
+    switch (stage % STAGE_KINDS) {
+      case 0: return i -> op0(i);
+      case 1: return i -> op1(i);
+      case 2: return i -> op2(i);
+      case 3: return i -> op3(i);
+      case 4: return i -> op4(i);
+      case 5: return i -> op5(i);
+      case 6: return i -> op6(i);
+      default: return i -> op7(i);
+    }
+  }
+
+  static scala.Function1<Integer, Integer> scalaStage(int stage) {
+    switch (stage % STAGE_KINDS) {
+      case 0: return i -> op0(i);
+      case 1: return i -> op1(i);
+      case 2: return i -> op2(i);
+      case 3: return i -> op3(i);
+      case 4: return i -> op4(i);
+      case 5: return i -> op5(i);
+      case 6: return i -> op6(i);
+      default: return i -> op7(i);
+    }
+  }
+
+  static org.eclipse.collections.api.block.function.Function<Integer, Integer> eclipseStage(int stage) {
+    switch (stage % STAGE_KINDS) {
+      case 0: return i -> op0(i);
+      case 1: return i -> op1(i);
+      case 2: return i -> op2(i);
+      case 3: return i -> op3(i);
+      case 4: return i -> op4(i);
+      case 5: return i -> op5(i);
+      case 6: return i -> op6(i);
+      default: return i -> op7(i);
+    }
+  }
+
+  static boolean isEven(int i) {
+    return (i & 1) == 0;
+  }
+
+  static int aggregate(Iterable<?> values) {
+    int aggregate = 0;
+    for (Object value : values) {
+      aggregate ^= (Integer) value;
+    }
+    return aggregate;
+  }
+
+  static int aggregateScala(scala.collection.Iterator<?> values) {
+    int aggregate = 0;
+    while (values.hasNext()) {
+      aggregate ^= (Integer) values.next();
+    }
+    return aggregate;
+  }
+
+  public static class Base extends CollectionBenchmarkBase {
+    Integer[] ELEMENTS;
+    java.util.List<Integer> javaMutable;
+
+    @Setup
+    public void setup() {
+      ELEMENTS = getRandomValues(CONTAINER_SIZE, 0, true);
+      javaMutable = asList(ELEMENTS);
+    }
+  }
+
+  /**
+   * A filter with the given selectivity (i.e. the percentage of elements passing), followed by {@code DEPTH} map stages and a fold
+   */
+  public static class IteratorPipeline extends Base {
+    @Param({"1", "4", "16"})
+    public int DEPTH;
+
+    @Param({"10", "50", "100"})
+    public int SELECTIVITY;
+
+    int EXPECTED_AGGREGATE;
+    java.util.function.Function<Integer, Integer>[] javaStages;
+    scala.Function1<Integer, Integer>[] scalaStages;
+    org.eclipse.collections.api.block.function.Function<Integer, Integer>[] eclipseStages;
+
+    @Setup
+    public void setupPipeline() {
+      javaStages = new java.util.function.Function[DEPTH];
+      scalaStages = new scala.Function1[DEPTH];
+      eclipseStages = new org.eclipse.collections.api.block.function.Function[DEPTH];
+      for (int stage = 0; stage < DEPTH; stage++) {
+        javaStages[stage] = javaStage(stage);
+        scalaStages[stage] = scalaStage(stage);
+        eclipseStages[stage] = eclipseStage(stage);
+      }
+
+      EXPECTED_AGGREGATE = 0;
+      for (int element : ELEMENTS) {
+        if (passes(element)) {
+          int value = element;
+          for (int stage = 0; stage < DEPTH; stage++) {
+            value = stage(stage, value);
+          }
+          EXPECTED_AGGREGATE ^= value;
+        }
+      }
+    }
+
+    boolean passes(int i) {
+      return i % 100 < SELECTIVITY;
+    }
+
+    @Benchmark
+    public int java_stream() {
+      java.util.stream.Stream<Integer> values = javaMutable.stream().filter(this::passes);
+      for (java.util.function.Function<Integer, Integer> stage : javaStages) {
+        values = values.map(stage);
+      }
+      final int aggregate = values.reduce(0, JmhRunner::aggregate);
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int java_parallel_stream() {
+      java.util.stream.Stream<Integer> values = javaMutable.parallelStream().filter(this::passes);
+      for (java.util.function.Function<Integer, Integer> stage : javaStages) {
+        values = values.map(stage);
+      }
+      final int aggregate = values.reduce(0, JmhRunner::aggregate);
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int scala_iterator() {
+      scala.collection.Iterator<Integer> values = asScalaIterator(javaMutable.iterator()).filter(i -> passes(i));
+      for (scala.Function1<Integer, Integer> stage : scalaStages) {
+        values = values.map(stage);
+      }
+      final int aggregate = values.foldLeft(0, (acc, i) -> JmhRunner.aggregate(acc, i));
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int ecollections_lazy() {
+      LazyIterable<Integer> values = LazyIterate.adapt(javaMutable).select(this::passes);
+      for (org.eclipse.collections.api.block.function.Function<Integer, Integer> stage : eclipseStages) {
+        values = values.collect(stage);
+      }
+      final int aggregate = values.injectInto(0, (int acc, Integer i) -> JmhRunner.aggregate(acc, i));
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int vavr_iterator() {
+      Iterator<Integer> values = Iterator.ofAll(javaMutable).filter(this::passes);
+      for (java.util.function.Function<Integer, Integer> stage : javaStages) {
+        values = values.map(stage);
+      }
+      final int aggregate = values.foldLeft(0, JmhRunner::aggregate);
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+  }
+
+  /**
+   * The shape of a typical extract-transform-load job: map, filter, flatMap, grouped, zipWithIndex and foldLeft.
+   * <br>
+   * {@link java.util.stream.Stream} is missing, as it has neither grouping nor indexing operations.
+   */
+  public static class IteratorEtl extends Base {
+    static final int GROUP_SIZE = 8;
+
+    int EXPECTED_AGGREGATE;
+
+    @Setup
+    public void setupEtl() {
+      final java.util.List<Integer> flattened = new java.util.ArrayList<>();
+      for (int element : ELEMENTS) {
+        final int mapped = element + 1;
+        if (isEven(mapped)) {
+          flattened.add(mapped);
+          flattened.add(mapped + 1);
+        }
+      }
+
+      EXPECTED_AGGREGATE = 0;
+      for (int index = 0, from = 0; from < flattened.size(); index++, from += GROUP_SIZE) {
+        final int group = aggregate(flattened.subList(from, Math.min(from + GROUP_SIZE, flattened.size())));
+        EXPECTED_AGGREGATE ^= JmhRunner.aggregate(group, index);
+      }
+    }
+
+    @Benchmark
+    public int scala_iterator() {
+      final int aggregate = asScalaIterator(javaMutable.iterator())
+          .map(i -> i + 1)
+          .filter(i -> isEven(i))
+          .flatMap(i -> scala.collection.Iterator$.MODULE$.range(i, i + 2))
+          .grouped(GROUP_SIZE)
+          .zipWithIndex()
+          .foldLeft(0, (acc, indexed) -> JmhRunner.aggregate(acc, JmhRunner.aggregate(aggregateScala(((scala.collection.Seq<?>) indexed._1()).iterator()), (Integer) indexed._2())));
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int ecollections_lazy() {
+      final int aggregate = LazyIterate.adapt(javaMutable)
+          .collect(i -> i + 1)
+          .select(i -> isEven(i))
+          .flatCollect(i -> Interval.fromTo(i, i + 1))
+          .chunk(GROUP_SIZE)
+          .zipWithIndex()
+          .injectInto(0, (int acc, Pair<RichIterable<Integer>, Integer> indexed) -> JmhRunner.aggregate(acc, JmhRunner.aggregate(aggregate(indexed.getOne()), indexed.getTwo())));
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int vavr_iterator() {
+      final int aggregate = Iterator.ofAll(javaMutable)
+          .map(i -> i + 1)
+          .filter(IteratorPipelineBenchmark::isEven)
+          .flatMap(i -> Iterator.range(i, i + 2))
+          .grouped(GROUP_SIZE)
+          .zipWithIndex()
+          .foldLeft(0, (acc, indexed) -> JmhRunner.aggregate(acc, JmhRunner.aggregate(aggregate(indexed._1), indexed._2)));
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+  }
+}
@@ -0,0 +1,421 @@
+/*  __    __  __  __    __  ___
+ * \  \  /  /    \  \  /  /  __/
+ *  \  \/  /  /\  \  \/  /  /
+ *   \____/__/  \__\____/__/
+ *
+ * Copyright 2014-2019 Vavr, http://vavr.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vavr.collection;
+
+import io.vavr.JmhRunner;
+import org.eclipse.collections.api.map.MutableOrderedMap;
+import org.eclipse.collections.impl.map.ordered.mutable.OrderedMapAdapter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+
+import static io.vavr.JmhRunner.Includes.*;
+import static io.vavr.JmhRunner.create;
+
+/**
+ * The costs of maintaining the insertion order of {@link LinkedHashMap} and {@link LinkedHashSet} under mutation,
+ * i.e. removing from the middle, replacing existing keys, moving keys to the end (the LRU pattern) and iterating after removals.
+ * <br>
+ * Scala's {@code VectorMap} is missing, as it needs Scala 2.13; {@code ListMap} and {@code ListSet} are the ordered Scala 2.12 alternatives.
+ * Note that Scala's {@code ListMap} moves a replaced key to the end.
+ */
+@SuppressWarnings({"UnnecessaryFullyQualifiedName", "WeakerAccess"})
+public class LinkedHashBenchmark {
+  static final Array<Class<?>> CLASSES = Array.of(
+      LinkedHashRemoveMiddle.class,
+      LinkedHashReplace.class,
+      LinkedHashMoveToEnd.class,
+      LinkedHashIterateAfterRemovals.class
+  );
+
+  public static void main(String... args) {
+    JmhRunner.runNormalNoAsserts(CLASSES, JAVA, ECOLLECTIONS, SCALA, VAVR);
+  }
+
+  public static class Base extends CollectionBenchmarkBase {
+    /* distinct keys in insertion order, every key is mapped to its negation */
+    Integer[] KEYS;
+    /* the keys of the middle half of the insertion order */
+    Integer[] MIDDLE;
+    /* the keys in access order */
+    Integer[] ACCESSES;
+
+    java.util.LinkedHashMap<Integer, Integer> javaMap;
+    java.util.LinkedHashSet<Integer> javaSet;
+    scala.collection.immutable.ListMap<Integer, Integer> scalaMap;
+    scala.collection.immutable.ListSet<Integer> scalaSet;
+    LinkedHashMap<Integer, Integer> vavrMap;
+    LinkedHashSet<Integer> vavrSet;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+      KEYS = shuffled(new Random(0));
+      MIDDLE = Array.of(KEYS).slice(CONTAINER_SIZE / 4, CONTAINER_SIZE - CONTAINER_SIZE / 4).toJavaArray(Integer[]::new);
+      ACCESSES = shuffled(new Random(1));
+
+      javaMap = new java.util.LinkedHashMap<>();
+      javaSet = new java.util.LinkedHashSet<>();
+      scala.collection.immutable.ListMap<Integer, Integer> scalaMap = (scala.collection.immutable.ListMap<Integer, Integer>) scala.collection.immutable.ListMap$.MODULE$.empty();
+      scala.collection.immutable.ListSet<Integer> scalaSet = (scala.collection.immutable.ListSet<Integer>) scala.collection.immutable.ListSet$.MODULE$.empty();
+      for (Integer key : KEYS) {
+        javaMap.put(key, -key);
+        javaSet.add(key);
+        scalaMap = scalaMap.updated(key, -key);
+        scalaSet = scalaSet.$plus(key);
+      }
+      this.scalaMap = scalaMap;
+      this.scalaSet = scalaSet;
+      vavrMap = create(v -> LinkedHashMap.ofAll(v), javaMap, javaMap.size(), v -> v.keySet().toList().equals(List.of(KEYS)));
+      vavrSet = create(v -> LinkedHashSet.ofAll(v), javaSet, v -> v.toList().equals(List.of(KEYS)));
+    }
+
+    private Integer[] shuffled(Random random) {
+      final int[] keys = new int[CONTAINER_SIZE];
+      for (int i = 0; i < keys.length; i++) {
+        keys[i] = i;
+      }
+      return Array.ofAll(JmhRunner.shuffle(keys, random)).toJavaArray(Integer[]::new);
+    }
+  }
+
+  /**
+   * Fresh copies of the mutable containers for every invocation
+   */
+  @State(Scope.Thread)
+  public static class Initialized {
+    java.util.LinkedHashMap<Integer, Integer> javaMap;
+    java.util.LinkedHashSet<Integer> javaSet;
+    MutableOrderedMap<Integer, Integer> eclipseMap;
+
+    @Setup(Level.Invocation)
+    public void initializeMutable(Base state) {
+      javaMap = new java.util.LinkedHashMap<>(state.javaMap);
+      javaSet = new java.util.LinkedHashSet<>(state.javaSet);
+      eclipseMap = OrderedMapAdapter.adapt(new java.util.LinkedHashMap<>(state.javaMap));
+    }
+  }
+
+  /**
+   * Removes the middle half of the insertion order, one by one
+   */
+  public static class LinkedHashRemoveMiddle extends Base {
+    @Benchmark
+    public Object java_map(Initialized state) {
+      final java.util.LinkedHashMap<Integer, Integer> values = state.javaMap;
+      for (Integer key : MIDDLE) {
+        values.remove(key);
+      }
+      assert values.size() == CONTAINER_SIZE - MIDDLE.length;
+      return values;
+    }
+
+    @Benchmark
+    public Object java_set(Initialized state) {
+      final java.util.LinkedHashSet<Integer> values = state.javaSet;
+      for (Integer key : MIDDLE) {
+        values.remove(key);
+      }
+      assert values.size() == CONTAINER_SIZE - MIDDLE.length;
+      return values;
+    }
+
+    @Benchmark
+    public Object ecollections_map(Initialized state) {
+      final MutableOrderedMap<Integer, Integer> values = state.eclipseMap;
+      for (Integer key : MIDDLE) {
+        values.remove(key);
+      }
+      assert values.size() == CONTAINER_SIZE - MIDDLE.length;
+      return values;
+    }
+
+    @Benchmark
+    public Object scala_map() {
+      scala.collection.immutable.ListMap<Integer, Integer> values = scalaMap;
+      for (Integer key : MIDDLE) {
+        values = values.$minus(key);
+      }
+      assert values.size() == CONTAINER_SIZE - MIDDLE.length;
+      return values;
+    }
+
+    @Benchmark
+    public Object scala_set() {
+      scala.collection.immutable.ListSet<Integer> values = scalaSet;
+      for (Integer key : MIDDLE) {
+        values = values.$minus(key);
+      }
+      assert values.size() == CONTAINER_SIZE - MIDDLE.length;
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_map() {
+      LinkedHashMap<Integer, Integer> values = vavrMap;
+      for (Integer key : MIDDLE) {
+        values = values.remove(key);
+      }
+      assert values.size() == CONTAINER_SIZE - MIDDLE.length;
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_set() {
+      LinkedHashSet<Integer> values = vavrSet;
+      for (Integer key : MIDDLE) {
+        values = values.remove(key);
+      }
+      assert values.size() == CONTAINER_SIZE - MIDDLE.length;
+      return values;
+    }
+  }
+
+  /**
+   * Replaces the value of every key, in access order
+   */
+  public static class LinkedHashReplace extends Base {
+    @Benchmark
+    public Object java_map(Initialized state) {
+      final java.util.LinkedHashMap<Integer, Integer> values = state.javaMap;
+      for (Integer key : ACCESSES) {
+        values.put(key, key);
+      }
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object ecollections_map(Initialized state) {
+      final MutableOrderedMap<Integer, Integer> values = state.eclipseMap;
+      for (Integer key : ACCESSES) {
+        values.put(key, key);
+      }
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object scala_map() {
+      scala.collection.immutable.ListMap<Integer, Integer> values = scalaMap;
+      for (Integer key : ACCESSES) {
+        values = values.updated(key, key);
+      }
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_map() {
+      LinkedHashMap<Integer, Integer> values = vavrMap;
+      for (Integer key : ACCESSES) {
+        values = values.put(key, key);
+      }
+      assert values.size() == CONTAINER_SIZE && values.keySet().toList().equals(List.of(KEYS));
+      return values;
+    }
+  }
+
+  /**
+   * Removes and reinserts every key in access order, i.e. moves it to the end like a least recently used cache does
+   */
+  public static class LinkedHashMoveToEnd extends Base {
+    @Benchmark
+    public Object java_map(Initialized state) {
+      final java.util.LinkedHashMap<Integer, Integer> values = state.javaMap;
+      for (Integer key : ACCESSES) {
+        values.put(key, values.remove(key));
+      }
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object java_set(Initialized state) {
+      final java.util.LinkedHashSet<Integer> values = state.javaSet;
+      for (Integer key : ACCESSES) {
+        values.remove(key);
+        values.add(key);
+      }
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object ecollections_map(Initialized state) {
+      final MutableOrderedMap<Integer, Integer> values = state.eclipseMap;
+      for (Integer key : ACCESSES) {
+        values.put(key, values.remove(key));
+      }
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object scala_map() {
+      scala.collection.immutable.ListMap<Integer, Integer> values = scalaMap;
+      for (Integer key : ACCESSES) {
+        final Integer value = values.apply(key);
+        values = values.$minus(key).updated(key, value);
+      }
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object scala_set() {
+      scala.collection.immutable.ListSet<Integer> values = scalaSet;
+      for (Integer key : ACCESSES) {
+        values = values.$minus(key).$plus(key);
+      }
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_map() {
+      LinkedHashMap<Integer, Integer> values = vavrMap;
+      for (Integer key : ACCESSES) {
+        final Integer value = values.get(key).get();
+        values = values.remove(key).put(key, value);
+      }
+      assert values.size() == CONTAINER_SIZE && values.keySet().toList().equals(List.of(ACCESSES));
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_set() {
+      LinkedHashSet<Integer> values = vavrSet;
+      for (Integer key : ACCESSES) {
+        values = values.remove(key).add(key);
+      }
+      assert values.size() == CONTAINER_SIZE && values.toList().equals(List.of(ACCESSES));
+      return values;
+    }
+  }
+
+  /**
+   * Iterates in insertion order, after every other key has been removed
+   */
+  public static class LinkedHashIterateAfterRemovals extends Base {
+    int EXPECTED_AGGREGATE;
+
+    java.util.LinkedHashMap<Integer, Integer> javaMapRemoved;
+    java.util.LinkedHashSet<Integer> javaSetRemoved;
+    MutableOrderedMap<Integer, Integer> eclipseMapRemoved;
+    scala.collection.immutable.ListMap<Integer, Integer> scalaMapRemoved;
+    scala.collection.immutable.ListSet<Integer> scalaSetRemoved;
+    LinkedHashMap<Integer, Integer> vavrMapRemoved;
+    LinkedHashSet<Integer> vavrSetRemoved;
+
+    @Setup
+    public void setupRemoved() {
+      javaMapRemoved = new java.util.LinkedHashMap<>(javaMap);
+      javaSetRemoved = new java.util.LinkedHashSet<>(javaSet);
+      eclipseMapRemoved = OrderedMapAdapter.adapt(new java.util.LinkedHashMap<>(javaMap));
+      scalaMapRemoved = scalaMap;
+      scalaSetRemoved = scalaSet;
+      vavrMapRemoved = vavrMap;
+      vavrSetRemoved = vavrSet;
+      EXPECTED_AGGREGATE = 0;
+      for (int i = 0; i < KEYS.length; i++) {
+        final Integer key = KEYS[i];
+        if (i % 2 == 0) {
+          javaMapRemoved.remove(key);
+          javaSetRemoved.remove(key);
+          eclipseMapRemoved.remove(key);
+          scalaMapRemoved = scalaMapRemoved.$minus(key);
+          scalaSetRemoved = scalaSetRemoved.$minus(key);
+          vavrMapRemoved = vavrMapRemoved.remove(key);
+          vavrSetRemoved = vavrSetRemoved.remove(key);
+        } else {
+          EXPECTED_AGGREGATE ^= key;
+        }
+      }
+    }
+
+    @Benchmark
+    public int java_map() {
+      int aggregate = 0;
+      for (java.util.Map.Entry<Integer, Integer> entry : javaMapRemoved.entrySet()) {
+        aggregate ^= entry.getKey();
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int java_set() {
+      int aggregate = 0;
+      for (Integer key : javaSetRemoved) {
+        aggregate ^= key;
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int ecollections_map() {
+      final int aggregate = eclipseMapRemoved.keysView().injectInto(0, (int acc, Integer key) -> JmhRunner.aggregate(acc, key));
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int scala_map() {
+      int aggregate = 0;
+      for (scala.collection.Iterator<scala.Tuple2<Integer, Integer>> iterator = scalaMapRemoved.iterator(); iterator.hasNext(); ) {
+        aggregate ^= iterator.next()._1();
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int scala_set() {
+      int aggregate = 0;
+      for (scala.collection.Iterator<Integer> iterator = scalaSetRemoved.iterator(); iterator.hasNext(); ) {
+        aggregate ^= iterator.next();
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int vavr_map() {
+      int aggregate = 0;
+      for (io.vavr.Tuple2<Integer, Integer> entry : vavrMapRemoved) {
+        aggregate ^= entry._1;
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int vavr_set() {
+      int aggregate = 0;
+      for (Integer key : vavrSetRemoved) {
+        aggregate ^= key;
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+  }
+}
@@ -21,6 +21,7 @@ package io.vavr.collection;
 
 import io.vavr.Function1;
 import io.vavr.JmhRunner;
+import io.vavr.MemoryUsage;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.infra.Blackhole;
 
@@ -43,10 +44,12 @@ public class MapBenchmark {
       MapReplaceSingle.class,
       MapReplaceAll.class,
       MapReplaceAllOneByOne.class,
-      MapRemove.class
+      MapRemove.class,
+      MapEquals.class
   );
 
   public static void main(String... args) {
+    io.vavr.champ.ChampCheck.main(); /* the champ_immutable prototype, as the assertions of the benchmarks are disabled */
     JmhRunner.runNormalNoAsserts(CLASSES);
   }
 
@@ -61,6 +64,7 @@ public class MapBenchmark {
     //        scala.collection.immutable.Map<Integer, Integer> scalaImmutable;
     org.pcollections.PMap<Integer, Integer> pcollectionsImmutable;
     io.usethesource.capsule.Map.Immutable<Integer, Integer> capsuleImmutable;
+    io.vavr.champ.ChampMap<Integer, Integer> champImmutable;
     Map<Integer, Integer> vavrHash;
     Map<Integer, Integer> vavrTreeMap;
     Map<Integer, Integer> vavrLinkedHash;
@@ -83,6 +87,11 @@ public class MapBenchmark {
           sampleTreeMap.toJavaMap(),
           sampleTreeMap.size(),
           v -> sampleTreeMap.forAll((e) -> v.get(e._1).equals(e._2)));
+      champImmutable = create(
+          io.vavr.champ.ChampMap::ofAll,
+          sampleTreeMap.toJavaMap(),
+          sampleTreeMap.size(),
+          v -> sampleTreeMap.forAll((e) -> v.getOrElse(e._1, null).equals(e._2)));
       vavrTreeMap = doCreateMap(TreeMap::ofAll, sampleTreeMap);
       vavrHash = doCreateMap(HashMap::ofAll, sampleTreeMap);
       vavrLinkedHash = doCreateMap(LinkedHashMap::ofAll, sampleTreeMap);
@@ -135,6 +144,18 @@ public class MapBenchmark {
       return result;
     }
 
+    @Benchmark
+    public Object champ_immutable() {
+      io.vavr.champ.ChampMap<Integer, Integer> values = io.vavr.champ.ChampMap.empty();
+      Integer[] elements = ELEMENTS;
+      for (Integer key : KEYS) {
+        values = values.put(key, elements[key]);
+      }
+      io.vavr.champ.ChampMap<Integer, Integer> result = values;
+      assert vavrTreeMap.forAll((e) -> result.getOrElse(e._1, null).equals(e._2));
+      return result;
+    }
+
     @Benchmark
     public Object vavr_tree() {
       Map<Integer, Integer> values = TreeMap.empty();
@@ -194,6 +215,18 @@ public class MapBenchmark {
       return result;
     }
 
+    @Benchmark
+    public Object champ_immutable() {
+      io.vavr.champ.ChampMap<Integer, Integer> values = io.vavr.champ.ChampMap.empty();
+      Integer[] elements = ELEMENTS;
+      for (int i = 0; i < elements.length; i++) {
+        values = values.put(i, elements[i]);
+      }
+      io.vavr.champ.ChampMap<Integer, Integer> result = values;
+      assert vavrTreeMap.forAll((e) -> result.getOrElse(e._1, null).equals(e._2));
+      return result;
+    }
+
     @Benchmark
     public Object vavr_tree() {
       Map<Integer, Integer> values = TreeMap.empty();
@@ -229,6 +262,12 @@ public class MapBenchmark {
   }
 
   public static class MapGet extends Base {
+    @Setup
+    public void printFootprint() {
+      System.out.println(String.format("%nBytes of %d entries: pcollections_immutable=%d, capsule_immutable=%d, champ_immutable=%d, vavr_hash=%d",
+          sampleTreeMap.size(), MemoryUsage.byteSize(pcollectionsImmutable), MemoryUsage.byteSize(capsuleImmutable), MemoryUsage.byteSize(champImmutable), MemoryUsage.byteSize(vavrHash)));
+    }
+
     @Benchmark
     public void pcollections_immutable(Blackhole bh) {
       org.pcollections.PMap<Integer, Integer> values = pcollectionsImmutable;
@@ -245,6 +284,14 @@ public class MapBenchmark {
       }
     }
 
+    @Benchmark
+    public void champ_immutable(Blackhole bh) {
+      io.vavr.champ.ChampMap<Integer, Integer> values = champImmutable;
+      for (Integer key : KEYS) {
+        bh.consume(values.getOrElse(key, null));
+      }
+    }
+
     @Benchmark
     public void vavr_tree(Blackhole bh) {
       Map<Integer, Integer> values = vavrTreeMap;
@@ -286,6 +333,12 @@ public class MapBenchmark {
       return values.get(-1);
     }
 
+    @Benchmark
+    public Object champ_immutable() {
+      io.vavr.champ.ChampMap<Integer, Integer> values = champImmutable;
+      return values.getOrElse(-1, null);
+    }
+
     @Benchmark
     public Object vavr_tree() {
       Map<Integer, Integer> values = vavrTreeMap;
@@ -322,6 +375,14 @@ public class MapBenchmark {
       }
     }
 
+    @Benchmark
+    public void champ_immutable(Blackhole bh) {
+      io.vavr.champ.ChampMap<Integer, Integer> values = champImmutable;
+      for (java.util.Iterator<Integer> it = values.keysIterator(); it.hasNext(); ) {
+        bh.consume(it.next());
+      }
+    }
+
     @Benchmark
     public void vavr_tree(Blackhole bh) {
       Map<Integer, Integer> values = vavrTreeMap;
@@ -538,6 +599,14 @@ public class MapBenchmark {
       }
     }
 
+    @Benchmark
+    public void champ_immutable(Blackhole bh) {
+      io.vavr.champ.ChampMap<Integer, Integer> values = champImmutable;
+      for (java.util.Iterator<Integer> it = values.valuesIterator(); it.hasNext(); ) {
+        bh.consume(it.next());
+      }
+    }
+
     @Benchmark
     public void vavr_tree(Blackhole bh) {
       Map<Integer, Integer> values = vavrTreeMap;
@@ -586,6 +655,16 @@ public class MapBenchmark {
       return values;
     }
 
+    @Benchmark
+    public Object champ_immutable() {
+      io.vavr.champ.ChampMap<Integer, Integer> values = champImmutable;
+      for (Integer removeMe : REMOVAL) {
+        values = values.remove(removeMe);
+      }
+      assert values.isEmpty();
+      return values;
+    }
+
     @Benchmark
     public Object vavr_tree() {
       Map<Integer, Integer> values = vavrTreeMap;
@@ -637,6 +716,15 @@ public class MapBenchmark {
       return values;
     }
 
+    @Benchmark
+    public Object champ_immutable() {
+      io.vavr.champ.ChampMap<Integer, Integer> values = champImmutable;
+      Integer key = REMOVAL[0];
+      Integer newValue = ELEMENTS[key] + 1;
+      values = values.put(key, newValue);
+      return values;
+    }
+
     @Benchmark
     public Object vavr_tree() {
       Map<Integer, Integer> values = vavrTreeMap;
@@ -685,6 +773,15 @@ public class MapBenchmark {
       return values;
     }
 
+    @Benchmark
+    public Object champ_immutable() {
+      io.vavr.champ.ChampMap<Integer, Integer> values = champImmutable;
+      values = values.putAll(values);
+      io.vavr.champ.ChampMap<Integer, Integer> result = values;
+      assert vavrTreeMap.forAll((e) -> result.getOrElse(e._1, null).equals(e._2));
+      return values;
+    }
+
     @Benchmark
     public Object vavr_tree() {
       Map<Integer, Integer> values = vavrTreeMap;
@@ -729,6 +826,16 @@ public class MapBenchmark {
       return values;
     }
 
+    @Benchmark
+    public Object champ_immutable() {
+      io.vavr.champ.ChampMap<Integer, Integer> values = champImmutable;
+      Integer[] elements = ELEMENTS;
+      for (int i = 0; i < elements.length; i++) {
+        values = values.put(i, elements[i] + 1);
+      }
+      return values;
+    }
+
     @Benchmark
     public Object vavr_tree() {
       Map<Integer, Integer> values = vavrTreeMap;
@@ -760,4 +867,45 @@ public class MapBenchmark {
     }
   }
 
+  /**
+   * Compares the maps with equal ones, built by putting the entries in another order
+   */
+  public static class MapEquals extends Base {
+    io.usethesource.capsule.Map.Immutable<Integer, Integer> capsuleCopy;
+    io.vavr.champ.ChampMap<Integer, Integer> champCopy;
+    Map<Integer, Integer> vavrHashCopy;
+
+    @Setup
+    public void copy() {
+      capsuleCopy = io.usethesource.capsule.core.PersistentTrieMap.of();
+      champCopy = io.vavr.champ.ChampMap.empty();
+      vavrHashCopy = HashMap.empty();
+      for (Integer key : REMOVAL) {
+        capsuleCopy = capsuleCopy.__put(key, ELEMENTS[key]);
+        champCopy = champCopy.put(key, ELEMENTS[key]);
+        vavrHashCopy = vavrHashCopy.put(key, ELEMENTS[key]);
+      }
+    }
+
+    @Benchmark
+    public boolean capsule_immutable() {
+      final boolean result = capsuleImmutable.equals(capsuleCopy);
+      assert result;
+      return result;
+    }
+
+    @Benchmark
+    public boolean champ_immutable() {
+      final boolean result = champImmutable.equals(champCopy);
+      assert result;
+      return result;
+    }
+
+    @Benchmark
+    public boolean vavr_hash() {
+      final boolean result = vavrHash.equals(vavrHashCopy);
+      assert result;
+      return result;
+    }
+  }
 }
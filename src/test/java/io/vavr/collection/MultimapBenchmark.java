@@ -0,0 +1,503 @@
+/*  __    __  __  __    __  ___
+ * \  \  /  /    \  \  /  /  __/
+ *  \  \/  /  /\  \  \/  /  /
+ *   \____/__/  \__\____/__/
+ *
+ * Copyright 2014-2019 Vavr, http://vavr.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vavr.collection;
+
+import io.vavr.JmhRunner;
+import io.vavr.Tuple;
+import io.vavr.Tuple2;
+import org.eclipse.collections.impl.multimap.list.FastListMultimap;
+import org.eclipse.collections.impl.tuple.Tuples;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+
+import static io.vavr.JmhRunner.Includes.*;
+import static io.vavr.JmhRunner.create;
+
+/**
+ * Multimaps with {@code VALUES_PER_KEY} values for every key, {@code CONTAINER_SIZE} values in total.
+ * <br>
+ * The Vavr multimaps are compared with both value containers, i.e. {@code _seq} and {@code _set};
+ * {@code vavr_hash_of_vectors} is the hand-rolled alternative of a {@code HashMap<K, Vector<V>>}.
+ * The immutable Guava and Eclipse multimaps are built through their mutable builders.
+ */
+@SuppressWarnings({"UnnecessaryFullyQualifiedName", "WeakerAccess"})
+public class MultimapBenchmark {
+  static final Array<Class<?>> CLASSES = Array.of(
+      MultimapPut.class,
+      MultimapOfEntries.class,
+      MultimapGetAll.class,
+      MultimapRemoveValue.class,
+      MultimapIterateEntries.class
+  );
+
+  public static void main(String... args) {
+    JmhRunner.runNormalNoAsserts(CLASSES, GUAVA, ECOLLECTIONS, VAVR);
+  }
+
+  static int aggregate(Iterable<Integer> values) {
+    int aggregate = 0;
+    for (Integer value : values) {
+      aggregate ^= value;
+    }
+    return aggregate;
+  }
+
+  static HashMap<Integer, Vector<Integer>> hashOfVectors(Iterable<Tuple2<Integer, Integer>> entries) {
+    HashMap<Integer, Vector<Integer>> values = HashMap.empty();
+    for (Tuple2<Integer, Integer> entry : entries) {
+      values = values.put(entry._1, values.get(entry._1).getOrElse(Vector.empty()).append(entry._2));
+    }
+    return values;
+  }
+
+  public static class Base extends CollectionBenchmarkBase {
+    @Param({"1", "4", "16"})
+    public int VALUES_PER_KEY;
+
+    int EXPECTED_AGGREGATE;
+    /* shuffled keys, i.e. the i-th entry is (KEYS[i % KEYS.length], i) */
+    Integer[] KEYS;
+    Array<Tuple2<Integer, Integer>> ENTRIES;
+
+    com.google.common.collect.ImmutableListMultimap<Integer, Integer> guavaList;
+    com.google.common.collect.ImmutableSetMultimap<Integer, Integer> guavaSet;
+    org.eclipse.collections.api.multimap.list.ImmutableListMultimap<Integer, Integer> eclipseList;
+    Multimap<Integer, Integer> vavrHashSeq;
+    Multimap<Integer, Integer> vavrHashSet;
+    Multimap<Integer, Integer> vavrLinkedHashSeq;
+    Multimap<Integer, Integer> vavrLinkedHashSet;
+    Multimap<Integer, Integer> vavrTreeSeq;
+    Multimap<Integer, Integer> vavrTreeSet;
+    HashMap<Integer, Vector<Integer>> vavrHashOfVectors;
+
+    @Setup
+    public void setup() {
+      final int[] keys = new int[Math.max(1, CONTAINER_SIZE / VALUES_PER_KEY)];
+      for (int i = 0; i < keys.length; i++) {
+        keys[i] = i;
+      }
+      KEYS = Array.ofAll(JmhRunner.shuffle(keys, new Random(0))).toJavaArray(Integer[]::new);
+      ENTRIES = Array.range(0, CONTAINER_SIZE).map(i -> Tuple.of(KEYS[i % KEYS.length], i));
+      EXPECTED_AGGREGATE = Iterator.range(0, CONTAINER_SIZE).reduce(JmhRunner::aggregate);
+
+      guavaList = create(v -> com.google.common.collect.ImmutableListMultimap.copyOf(v), ENTRIES.map(e -> new java.util.AbstractMap.SimpleImmutableEntry<>(e._1, e._2)).toJavaList(), CONTAINER_SIZE, v -> v.size() == CONTAINER_SIZE);
+      guavaSet = create(v -> com.google.common.collect.ImmutableSetMultimap.copyOf(v), guavaList, CONTAINER_SIZE, v -> v.size() == CONTAINER_SIZE);
+      eclipseList = create(v -> FastListMultimap.newMultimap(v.map(e -> Tuples.pair(e._1, e._2))).toImmutable(), ENTRIES, CONTAINER_SIZE, v -> v.size() == CONTAINER_SIZE);
+      vavrHashSeq = create(v -> HashMultimap.withSeq().ofEntries(v), ENTRIES, CONTAINER_SIZE, v -> v.size() == CONTAINER_SIZE);
+      vavrHashSet = create(v -> HashMultimap.withSet().ofEntries(v), ENTRIES, CONTAINER_SIZE, v -> v.size() == CONTAINER_SIZE);
+      vavrLinkedHashSeq = create(v -> LinkedHashMultimap.withSeq().ofEntries(v), ENTRIES, CONTAINER_SIZE, v -> v.size() == CONTAINER_SIZE);
+      vavrLinkedHashSet = create(v -> LinkedHashMultimap.withSet().ofEntries(v), ENTRIES, CONTAINER_SIZE, v -> v.size() == CONTAINER_SIZE);
+      vavrTreeSeq = create(v -> TreeMultimap.withSeq().ofEntries(v), ENTRIES, CONTAINER_SIZE, v -> v.size() == CONTAINER_SIZE);
+      vavrTreeSet = create(v -> TreeMultimap.withSet().ofEntries(v), ENTRIES, CONTAINER_SIZE, v -> v.size() == CONTAINER_SIZE);
+      vavrHashOfVectors = create(MultimapBenchmark::hashOfVectors, ENTRIES, CONTAINER_SIZE, v -> v.values().map(Vector::size).sum().intValue() == CONTAINER_SIZE);
+    }
+
+    Multimap<Integer, Integer> putAll(Multimap<Integer, Integer> values) {
+      for (Tuple2<Integer, Integer> entry : ENTRIES) {
+        values = values.put(entry._1, entry._2);
+      }
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+
+    int getAll(Multimap<Integer, Integer> values) {
+      int aggregate = 0;
+      for (Integer key : KEYS) {
+        aggregate ^= aggregate(values.get(key).get());
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    /* removes the first value of every key */
+    Multimap<Integer, Integer> removeValues(Multimap<Integer, Integer> values) {
+      for (int i = 0; i < KEYS.length; i++) {
+        values = values.remove(KEYS[i], i);
+      }
+      assert values.size() == CONTAINER_SIZE - KEYS.length;
+      return values;
+    }
+
+    int iterateEntries(Multimap<Integer, Integer> values) {
+      int aggregate = 0;
+      for (Tuple2<Integer, Integer> entry : values) {
+        aggregate ^= entry._2;
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+  }
+
+  public static class MultimapPut extends Base {
+    @Benchmark
+    public Object guava_list() {
+      final com.google.common.collect.ImmutableListMultimap.Builder<Integer, Integer> builder = com.google.common.collect.ImmutableListMultimap.builder();
+      for (Tuple2<Integer, Integer> entry : ENTRIES) {
+        builder.put(entry._1, entry._2);
+      }
+      final com.google.common.collect.ImmutableListMultimap<Integer, Integer> values = builder.build();
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object guava_set() {
+      final com.google.common.collect.ImmutableSetMultimap.Builder<Integer, Integer> builder = com.google.common.collect.ImmutableSetMultimap.builder();
+      for (Tuple2<Integer, Integer> entry : ENTRIES) {
+        builder.put(entry._1, entry._2);
+      }
+      final com.google.common.collect.ImmutableSetMultimap<Integer, Integer> values = builder.build();
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object ecollections_list() {
+      final FastListMultimap<Integer, Integer> builder = FastListMultimap.newMultimap();
+      for (Tuple2<Integer, Integer> entry : ENTRIES) {
+        builder.put(entry._1, entry._2);
+      }
+      final org.eclipse.collections.api.multimap.list.ImmutableListMultimap<Integer, Integer> values = builder.toImmutable();
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_hash_seq() {
+      return putAll(HashMultimap.withSeq().empty());
+    }
+
+    @Benchmark
+    public Object vavr_hash_set() {
+      return putAll(HashMultimap.withSet().empty());
+    }
+
+    @Benchmark
+    public Object vavr_linked_hash_seq() {
+      return putAll(LinkedHashMultimap.withSeq().empty());
+    }
+
+    @Benchmark
+    public Object vavr_linked_hash_set() {
+      return putAll(LinkedHashMultimap.withSet().empty());
+    }
+
+    @Benchmark
+    public Object vavr_tree_seq() {
+      return putAll(TreeMultimap.withSeq().empty());
+    }
+
+    @Benchmark
+    public Object vavr_tree_set() {
+      return putAll(TreeMultimap.withSet().empty());
+    }
+
+    @Benchmark
+    public Object vavr_hash_of_vectors() {
+      final HashMap<Integer, Vector<Integer>> values = hashOfVectors(ENTRIES);
+      assert values.values().map(Vector::size).sum().intValue() == CONTAINER_SIZE;
+      return values;
+    }
+  }
+
+  public static class MultimapOfEntries extends Base {
+    java.util.List<java.util.Map.Entry<Integer, Integer>> javaEntries;
+
+    @Setup
+    public void setupEntries() {
+      javaEntries = ENTRIES.map(e -> (java.util.Map.Entry<Integer, Integer>) new java.util.AbstractMap.SimpleImmutableEntry<>(e._1, e._2)).toJavaList();
+    }
+
+    @Benchmark
+    public Object guava_list() {
+      final com.google.common.collect.ImmutableListMultimap<Integer, Integer> values = com.google.common.collect.ImmutableListMultimap.copyOf(javaEntries);
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object guava_set() {
+      final com.google.common.collect.ImmutableSetMultimap<Integer, Integer> values = com.google.common.collect.ImmutableSetMultimap.copyOf(javaEntries);
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object ecollections_list() {
+      final org.eclipse.collections.api.multimap.list.ImmutableListMultimap<Integer, Integer> values = FastListMultimap.newMultimap(ENTRIES.map(e -> Tuples.pair(e._1, e._2))).toImmutable();
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_hash_seq() {
+      final Multimap<Integer, Integer> values = HashMultimap.withSeq().ofEntries(ENTRIES);
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_hash_set() {
+      final Multimap<Integer, Integer> values = HashMultimap.withSet().ofEntries(ENTRIES);
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_linked_hash_seq() {
+      final Multimap<Integer, Integer> values = LinkedHashMultimap.withSeq().ofEntries(ENTRIES);
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_linked_hash_set() {
+      final Multimap<Integer, Integer> values = LinkedHashMultimap.withSet().ofEntries(ENTRIES);
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_tree_seq() {
+      final Multimap<Integer, Integer> values = TreeMultimap.withSeq().ofEntries(ENTRIES);
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_tree_set() {
+      final Multimap<Integer, Integer> values = TreeMultimap.withSet().ofEntries(ENTRIES);
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_hash_of_vectors() {
+      final HashMap<Integer, Vector<Integer>> values = hashOfVectors(ENTRIES);
+      assert values.values().map(Vector::size).sum().intValue() == CONTAINER_SIZE;
+      return values;
+    }
+  }
+
+  public static class MultimapGetAll extends Base {
+    @Benchmark
+    public int guava_list() {
+      int aggregate = 0;
+      for (Integer key : KEYS) {
+        aggregate ^= aggregate(guavaList.get(key));
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int guava_set() {
+      int aggregate = 0;
+      for (Integer key : KEYS) {
+        aggregate ^= aggregate(guavaSet.get(key));
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int ecollections_list() {
+      int aggregate = 0;
+      for (Integer key : KEYS) {
+        aggregate ^= aggregate(eclipseList.get(key));
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int vavr_hash_seq() {
+      return getAll(vavrHashSeq);
+    }
+
+    @Benchmark
+    public int vavr_hash_set() {
+      return getAll(vavrHashSet);
+    }
+
+    @Benchmark
+    public int vavr_linked_hash_seq() {
+      return getAll(vavrLinkedHashSeq);
+    }
+
+    @Benchmark
+    public int vavr_linked_hash_set() {
+      return getAll(vavrLinkedHashSet);
+    }
+
+    @Benchmark
+    public int vavr_tree_seq() {
+      return getAll(vavrTreeSeq);
+    }
+
+    @Benchmark
+    public int vavr_tree_set() {
+      return getAll(vavrTreeSet);
+    }
+
+    @Benchmark
+    public int vavr_hash_of_vectors() {
+      int aggregate = 0;
+      for (Integer key : KEYS) {
+        aggregate ^= aggregate(vavrHashOfVectors.get(key).get());
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+  }
+
+  /**
+   * Removes a single value of every key.
+   * <br>
+   * Guava is missing, as its immutable multimaps can't remove without copying.
+   */
+  public static class MultimapRemoveValue extends Base {
+    @Benchmark
+    public Object ecollections_list() {
+      org.eclipse.collections.api.multimap.list.ImmutableListMultimap<Integer, Integer> values = eclipseList;
+      for (int i = 0; i < KEYS.length; i++) {
+        values = values.newWithout(KEYS[i], i);
+      }
+      assert values.size() == CONTAINER_SIZE - KEYS.length;
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_hash_seq() {
+      return removeValues(vavrHashSeq);
+    }
+
+    @Benchmark
+    public Object vavr_hash_set() {
+      return removeValues(vavrHashSet);
+    }
+
+    @Benchmark
+    public Object vavr_linked_hash_seq() {
+      return removeValues(vavrLinkedHashSeq);
+    }
+
+    @Benchmark
+    public Object vavr_linked_hash_set() {
+      return removeValues(vavrLinkedHashSet);
+    }
+
+    @Benchmark
+    public Object vavr_tree_seq() {
+      return removeValues(vavrTreeSeq);
+    }
+
+    @Benchmark
+    public Object vavr_tree_set() {
+      return removeValues(vavrTreeSet);
+    }
+
+    @Benchmark
+    public Object vavr_hash_of_vectors() {
+      HashMap<Integer, Vector<Integer>> values = vavrHashOfVectors;
+      for (int i = 0; i < KEYS.length; i++) {
+        final Vector<Integer> remaining = values.get(KEYS[i]).get().remove(i);
+        values = remaining.isEmpty() ? values.remove(KEYS[i]) : values.put(KEYS[i], remaining);
+      }
+      assert values.values().map(Vector::size).sum().intValue() == CONTAINER_SIZE - KEYS.length;
+      return values;
+    }
+  }
+
+  public static class MultimapIterateEntries extends Base {
+    @Benchmark
+    public int guava_list() {
+      int aggregate = 0;
+      for (java.util.Map.Entry<Integer, Integer> entry : guavaList.entries()) {
+        aggregate ^= entry.getValue();
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int guava_set() {
+      int aggregate = 0;
+      for (java.util.Map.Entry<Integer, Integer> entry : guavaSet.entries()) {
+        aggregate ^= entry.getValue();
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int ecollections_list() {
+      int aggregate = 0;
+      for (org.eclipse.collections.api.tuple.Pair<Integer, Integer> entry : eclipseList.keyValuePairsView()) {
+        aggregate ^= entry.getTwo();
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int vavr_hash_seq() {
+      return iterateEntries(vavrHashSeq);
+    }
+
+    @Benchmark
+    public int vavr_hash_set() {
+      return iterateEntries(vavrHashSet);
+    }
+
+    @Benchmark
+    public int vavr_linked_hash_seq() {
+      return iterateEntries(vavrLinkedHashSeq);
+    }
+
+    @Benchmark
+    public int vavr_linked_hash_set() {
+      return iterateEntries(vavrLinkedHashSet);
+    }
+
+    @Benchmark
+    public int vavr_tree_seq() {
+      return iterateEntries(vavrTreeSeq);
+    }
+
+    @Benchmark
+    public int vavr_tree_set() {
+      return iterateEntries(vavrTreeSet);
+    }
+
+    @Benchmark
+    public int vavr_hash_of_vectors() {
+      int aggregate = 0;
+      for (Tuple2<Integer, Vector<Integer>> entry : vavrHashOfVectors) {
+        for (Integer value : entry._2) {
+          aggregate ^= value;
+        }
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+  }
+}
@@ -0,0 +1,497 @@
+/*  __    __  __  __    __  ___
+ * \  \  /  /    \  \  /  /  __/
+ *  \  \/  /  /\  \  \/  /  /
+ *   \____/__/  \__\____/__/
+ *
+ * Copyright 2014-2019 Vavr, http://vavr.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vavr.collection;
+
+import io.vavr.JmhRunner;
+import io.vavr.MemoryUsage;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+
+import static io.vavr.JmhRunner.Includes.VAVR;
+import static io.vavr.JmhRunner.getRandomValues;
+import static io.vavr.collection.Collections.areEqual;
+
+/**
+ * {@link Vector}s with primitive leaves (i.e. created from a primitive array) vs boxed leaves (i.e. created from an {@code Iterable}),
+ * for every primitive {@code TYPE} and operation. See {@link VectorBenchmark} for the comparison with other libraries.
+ * <br>
+ * The setup of {@link PrimitiveVectorGet} prints the memory footprint of both, of the primitive array
+ * and (for {@code int}) of fastutil's and HPPC's {@code IntArrayList}.
+ */
+@SuppressWarnings({"UnnecessaryFullyQualifiedName", "WeakerAccess", "unchecked", "rawtypes"})
+public class PrimitiveVectorBenchmark {
+  static final Array<Class<?>> CLASSES = Array.of(
+      PrimitiveVectorCreate.class,
+      PrimitiveVectorHead.class,
+      PrimitiveVectorGet.class,
+      PrimitiveVectorTail.class,
+      PrimitiveVectorUpdate.class,
+      PrimitiveVectorMap.class,
+      PrimitiveVectorFilter.class,
+      PrimitiveVectorPrepend.class,
+      PrimitiveVectorAppend.class,
+      PrimitiveVectorPrependAll.class,
+      PrimitiveVectorAppendAll.class,
+      PrimitiveVectorInsert.class,
+      PrimitiveVectorGroupBy.class,
+      PrimitiveVectorSlice.class,
+      PrimitiveVectorSort.class,
+      PrimitiveVectorIterate.class
+  );
+
+  public static void main(String... args) {
+    JmhRunner.runNormalNoAsserts(CLASSES, VAVR);
+  }
+
+  public enum PrimitiveType {
+    BOOLEAN(boolean.class) {
+      @Override
+      Object box(int value) { return (value & 1) == 0; }
+    },
+    BYTE(byte.class) {
+      @Override
+      Object box(int value) { return (byte) value; }
+    },
+    CHAR(char.class) {
+      @Override
+      Object box(int value) { return (char) value; }
+    },
+    SHORT(short.class) {
+      @Override
+      Object box(int value) { return (short) value; }
+    },
+    INT(int.class) {
+      @Override
+      Object box(int value) { return value; }
+    },
+    LONG(long.class) {
+      @Override
+      Object box(int value) { return (long) value; }
+    },
+    FLOAT(float.class) {
+      @Override
+      Object box(int value) { return (float) value; }
+    },
+    DOUBLE(double.class) {
+      @Override
+      Object box(int value) { return (double) value; }
+    };
+
+    final Class<?> type;
+
+    PrimitiveType(Class<?> type) {
+      this.type = type;
+    }
+
+    /* the value converted to this type, boxed */
+    abstract Object box(int value);
+  }
+
+  /* Vector.ofAll of the primitive array, i.e. with primitive leaves */
+  static Vector<Object> ofPrimitives(Object array) {
+    if (array instanceof boolean[]) {
+      return (Vector) Vector.ofAll((boolean[]) array);
+    } else if (array instanceof byte[]) {
+      return (Vector) Vector.ofAll((byte[]) array);
+    } else if (array instanceof char[]) {
+      return (Vector) Vector.ofAll((char[]) array);
+    } else if (array instanceof short[]) {
+      return (Vector) Vector.ofAll((short[]) array);
+    } else if (array instanceof int[]) {
+      return (Vector) Vector.ofAll((int[]) array);
+    } else if (array instanceof long[]) {
+      return (Vector) Vector.ofAll((long[]) array);
+    } else if (array instanceof float[]) {
+      return (Vector) Vector.ofAll((float[]) array);
+    } else {
+      return (Vector) Vector.ofAll((double[]) array);
+    }
+  }
+
+  public static class Base extends CollectionBenchmarkBase {
+    @Param({"BOOLEAN", "BYTE", "CHAR", "SHORT", "INT", "LONG", "FLOAT", "DOUBLE"})
+    public PrimitiveType TYPE;
+
+    /* the elements converted to TYPE, boxed */
+    Object[] ELEMENTS;
+    Object PRIMITIVE_ELEMENTS;
+    int[] RANDOMIZED_INDICES;
+
+    Vector<Object> vavrBoxed;
+    Vector<Object> vavrPrimitive;
+
+    @Setup
+    public void setup() {
+      final Random random = new Random(0);
+      ELEMENTS = Array.of(getRandomValues(CONTAINER_SIZE, false, random)).map(TYPE::box).toJavaArray();
+      PRIMITIVE_ELEMENTS = ArrayType.asPrimitives(TYPE.type, Array.of(ELEMENTS));
+      RANDOMIZED_INDICES = JmhRunner.shuffle(Array.range(0, CONTAINER_SIZE).toJavaStream().mapToInt(Integer::intValue).toArray(), random);
+
+      vavrBoxed = Vector.ofAll(Array.of(ELEMENTS));
+      vavrPrimitive = ofPrimitives(PRIMITIVE_ELEMENTS);
+      assert isBoxed(vavrBoxed) && areEqual(vavrBoxed, Array.of(ELEMENTS));
+      assert isPrimitive(vavrPrimitive) && areEqual(vavrPrimitive, Array.of(ELEMENTS));
+    }
+
+    boolean isPrimitive(Vector<?> values) {
+      return values.trie.type.type() == TYPE.type;
+    }
+
+    static boolean isBoxed(Vector<?> values) {
+      return values.trie.type.type() == Object.class;
+    }
+  }
+
+  public static class PrimitiveVectorCreate extends Base {
+    @Benchmark
+    public Object vavr_boxed() {
+      final Vector<Object> values = Vector.ofAll(Array.of(ELEMENTS));
+      assert isBoxed(values);
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_primitive() {
+      final Vector<Object> values = ofPrimitives(PRIMITIVE_ELEMENTS);
+      assert isPrimitive(values);
+      return values;
+    }
+  }
+
+  public static class PrimitiveVectorHead extends Base {
+    @Benchmark
+    public Object vavr_boxed() {
+      final Object head = vavrBoxed.head();
+      assert head.equals(ELEMENTS[0]);
+      return head;
+    }
+
+    @Benchmark
+    public Object vavr_primitive() {
+      final Object head = vavrPrimitive.head();
+      assert head.equals(ELEMENTS[0]);
+      return head;
+    }
+  }
+
+  /**
+   * Randomized access to every element
+   */
+  public static class PrimitiveVectorGet extends Base {
+    @Setup
+    public void printFootprint() {
+      final StringBuilder footprint = new StringBuilder()
+          .append(String.format("%nBytes of %d %s elements: %s[]=%d, vavr_boxed=%d, vavr_primitive=%d", CONTAINER_SIZE, TYPE, TYPE.type, MemoryUsage.byteSize(PRIMITIVE_ELEMENTS), MemoryUsage.byteSize(vavrBoxed), MemoryUsage.byteSize(vavrPrimitive)));
+      if (TYPE == PrimitiveType.INT) {
+        final int[] ints = (int[]) PRIMITIVE_ELEMENTS;
+        footprint.append(String.format(", fastutil_IntArrayList=%d, hppc_IntArrayList=%d",
+            MemoryUsage.byteSize(new it.unimi.dsi.fastutil.ints.IntArrayList(ints)),
+            MemoryUsage.byteSize(com.carrotsearch.hppc.IntArrayList.from(ints))));
+      }
+      System.out.println(footprint);
+    }
+
+    @Benchmark
+    public void vavr_boxed(Blackhole bh) {
+      for (int i : RANDOMIZED_INDICES) {
+        bh.consume(vavrBoxed.get(i));
+      }
+    }
+
+    @Benchmark
+    public void vavr_primitive(Blackhole bh) {
+      for (int i : RANDOMIZED_INDICES) {
+        bh.consume(vavrPrimitive.get(i));
+      }
+    }
+  }
+
+  public static class PrimitiveVectorTail extends Base {
+    static Object tails(Vector<Object> values) {
+      for (int i = values.size(); i > 0; i--) {
+        values = values.tail();
+      }
+      assert values.isEmpty();
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_boxed() {
+      return tails(vavrBoxed);
+    }
+
+    @Benchmark
+    public Object vavr_primitive() {
+      return tails(vavrPrimitive);
+    }
+  }
+
+  /**
+   * Randomized update of every element
+   */
+  public static class PrimitiveVectorUpdate extends Base {
+    Object updates(Vector<Object> values) {
+      final Object value = ELEMENTS[0];
+      for (int i : RANDOMIZED_INDICES) {
+        values = values.update(i, value);
+      }
+      assert values.forAll(e -> e.equals(value));
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_boxed() {
+      return updates(vavrBoxed);
+    }
+
+    @Benchmark
+    public Object vavr_primitive() {
+      final Vector<Object> values = (Vector<Object>) updates(vavrPrimitive);
+      assert isPrimitive(values);
+      return values;
+    }
+  }
+
+  /* Maps to the same type, i.e. the result could stay primitive */
+  public static class PrimitiveVectorMap extends Base {
+    Object map(Vector<Object> values) {
+      final Object value = ELEMENTS[0];
+      final Vector<Object> results = values.map(e -> value);
+      assert results.size() == CONTAINER_SIZE;
+      return results;
+    }
+
+    @Benchmark
+    public Object vavr_boxed() {
+      return map(vavrBoxed);
+    }
+
+    @Benchmark
+    public Object vavr_primitive() {
+      return map(vavrPrimitive);
+    }
+  }
+
+  public static class PrimitiveVectorFilter extends Base {
+    static Object filter(Vector<Object> values) {
+      final Vector<Object> results = values.filter(e -> (e.hashCode() & 1) == 0);
+      assert results.size() <= values.size();
+      return results;
+    }
+
+    @Benchmark
+    public Object vavr_boxed() {
+      return filter(vavrBoxed);
+    }
+
+    @Benchmark
+    public Object vavr_primitive() {
+      return filter(vavrPrimitive);
+    }
+  }
+
+  /**
+   * Starts from the first element, i.e. from a vector with the leaf type of the benchmarked one
+   */
+  public static class PrimitiveVectorPrepend extends Base {
+    Vector<Object> prepends(Vector<Object> values) {
+      for (Object element : ELEMENTS) {
+        values = values.prepend(element);
+      }
+      assert values.size() == CONTAINER_SIZE + 1;
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_boxed() {
+      return prepends(vavrBoxed.take(1));
+    }
+
+    @Benchmark
+    public Object vavr_primitive() {
+      return prepends(vavrPrimitive.take(1));
+    }
+  }
+
+  /**
+   * Starts from the first element, see {@link PrimitiveVectorPrepend}
+   */
+  public static class PrimitiveVectorAppend extends Base {
+    Vector<Object> appends(Vector<Object> values) {
+      for (Object element : ELEMENTS) {
+        values = values.append(element);
+      }
+      assert values.size() == CONTAINER_SIZE + 1;
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_boxed() {
+      return appends(vavrBoxed.take(1));
+    }
+
+    @Benchmark
+    public Object vavr_primitive() {
+      return appends(vavrPrimitive.take(1));
+    }
+  }
+
+  /**
+   * Prepends the elements in chunks of growing size, i.e. as the suffixes of the vector
+   */
+  public static class PrimitiveVectorPrependAll extends Base {
+    void prependAll(Vector<Object> values, Blackhole bh) {
+      for (int i = 0; i < CONTAINER_SIZE; i++) {
+        final Vector<Object> front = values.slice(0, i);
+        final Vector<Object> back = values.slice(i, CONTAINER_SIZE);
+        final Vector<Object> results = back.prependAll(front);
+        assert areEqual(results, values);
+        bh.consume(results);
+      }
+    }
+
+    @Benchmark
+    public void vavr_boxed(Blackhole bh) {
+      prependAll(vavrBoxed, bh);
+    }
+
+    @Benchmark
+    public void vavr_primitive(Blackhole bh) {
+      prependAll(vavrPrimitive, bh);
+    }
+  }
+
+  public static class PrimitiveVectorAppendAll extends Base {
+    void appendAll(Vector<Object> values, Blackhole bh) {
+      for (int i = 0; i < CONTAINER_SIZE; i++) {
+        final Vector<Object> front = values.slice(0, i);
+        final Vector<Object> back = values.slice(i, CONTAINER_SIZE);
+        final Vector<Object> results = front.appendAll(back);
+        assert areEqual(results, values);
+        bh.consume(results);
+      }
+    }
+
+    @Benchmark
+    public void vavr_boxed(Blackhole bh) {
+      appendAll(vavrBoxed, bh);
+    }
+
+    @Benchmark
+    public void vavr_primitive(Blackhole bh) {
+      appendAll(vavrPrimitive, bh);
+    }
+  }
+
+  public static class PrimitiveVectorInsert extends Base {
+    void inserts(Vector<Object> values, Blackhole bh) {
+      final Object value = ELEMENTS[0];
+      for (int i = 0; i < CONTAINER_SIZE; i++) {
+        final Vector<Object> results = values.insert(i, value);
+        assert results.size() == CONTAINER_SIZE + 1;
+        bh.consume(results);
+      }
+    }
+
+    @Benchmark
+    public void vavr_boxed(Blackhole bh) {
+      inserts(vavrBoxed, bh);
+    }
+
+    @Benchmark
+    public void vavr_primitive(Blackhole bh) {
+      inserts(vavrPrimitive, bh);
+    }
+  }
+
+  public static class PrimitiveVectorGroupBy extends Base {
+    @Benchmark
+    public Object vavr_boxed() {
+      return vavrBoxed.groupBy(e -> e.hashCode() & 7);
+    }
+
+    @Benchmark
+    public Object vavr_primitive() {
+      return vavrPrimitive.groupBy(e -> e.hashCode() & 7);
+    }
+  }
+
+  /**
+   * Consume the vector one-by-one, from the front and back
+   */
+  public static class PrimitiveVectorSlice extends Base {
+    static void slices(Vector<Object> values, Blackhole bh) {
+      while (!values.isEmpty()) {
+        values = values.slice(1, values.size());
+        values = values.slice(0, values.size() - 1);
+        bh.consume(values);
+      }
+    }
+
+    @Benchmark
+    public void vavr_boxed(Blackhole bh) {
+      slices(vavrBoxed, bh);
+    }
+
+    @Benchmark
+    public void vavr_primitive(Blackhole bh) {
+      slices(vavrPrimitive, bh);
+    }
+  }
+
+  public static class PrimitiveVectorSort extends Base {
+    static Object sort(Vector<Object> values) {
+      final Vector<Object> results = values.sorted();
+      assert results.size() == values.size();
+      return results;
+    }
+
+    @Benchmark
+    public Object vavr_boxed() {
+      return sort(vavrBoxed);
+    }
+
+    @Benchmark
+    public Object vavr_primitive() {
+      return sort(vavrPrimitive);
+    }
+  }
+
+  /**
+   * Sequential access for all elements
+   */
+  public static class PrimitiveVectorIterate extends Base {
+    @Benchmark
+    public void vavr_boxed(Blackhole bh) {
+      for (Object element : vavrBoxed) {
+        bh.consume(element);
+      }
+    }
+
+    @Benchmark
+    public void vavr_primitive(Blackhole bh) {
+      for (Object element : vavrPrimitive) {
+        bh.consume(element);
+      }
+    }
+  }
+}
@@ -0,0 +1,376 @@
+/*  __    __  __  __    __  ___
+ * \  \  /  /    \  \  /  /  __/
+ *  \  \/  /  /\  \  \/  /  /
+ *   \____/__/  \__\____/__/
+ *
+ * Copyright 2014-2019 Vavr, http://vavr.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vavr.collection;
+
+import io.vavr.JmhRunner;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Objects;
+
+import static io.vavr.JmhRunner.Includes.*;
+import static io.vavr.JmhRunner.create;
+import static io.vavr.JmhRunner.getRandomValues;
+import static io.vavr.collection.Collections.areEqual;
+import static java.util.Arrays.asList;
+import static scala.collection.JavaConverters.asScalaBuffer;
+
+/**
+ * Benchmark for FIFO queues: Vavr's persistent front/rear list pair vs. mutable and concurrent queues.
+ */
+@SuppressWarnings({"UnnecessaryFullyQualifiedName", "unchecked"})
+public class QueueBenchmark {
+  static final Array<Class<?>> CLASSES = Array.of(
+      QueueChurn.class,
+      QueueBurst.class,
+      QueueReverseSpike.class
+  );
+
+  public static void main(String... args) {
+    JmhRunner.runNormalNoAsserts(CLASSES, JAVA, JCTOOLS, ARGONA, PCOLLECTIONS, SCALA, VAVR);
+  }
+
+  public static class Base extends CollectionBenchmarkBase {
+
+    int EXPECTED_AGGREGATE;
+    Integer[] ELEMENTS;
+
+    /* Mutable queues are pre-filled with ELEMENTS, every benchmark has to leave them in the same state */
+    java.util.ArrayDeque<Integer> javaMutable;
+    java.util.concurrent.ConcurrentLinkedQueue<Integer> javaConcurrent;
+    org.jctools.queues.SpscArrayQueue<Integer> jctoolsSpsc;
+    org.jctools.queues.MpscArrayQueue<Integer> jctoolsMpsc;
+    org.agrona.concurrent.ManyToOneConcurrentArrayQueue<Integer> agronaManyToOne;
+
+    org.pcollections.PQueue<Integer> pcollectionsImmutable;
+    scala.collection.immutable.Queue<Integer> scalaImmutable;
+    io.vavr.collection.Queue<Integer> vavrImmutable;
+
+    @Setup
+    public void setup() {
+      ELEMENTS = getRandomValues(CONTAINER_SIZE, 0);
+      EXPECTED_AGGREGATE = Iterator.of(ELEMENTS).reduce(JmhRunner::aggregate);
+
+      final java.util.List<Integer> javaList = asList(ELEMENTS);
+      javaMutable = create(java.util.ArrayDeque::new, javaList, v -> areEqual(v, javaList));
+      javaConcurrent = create(java.util.concurrent.ConcurrentLinkedQueue::new, javaList, v -> areEqual(v, javaList));
+      jctoolsSpsc = create(v -> fill(new org.jctools.queues.SpscArrayQueue<>(v.size()), v), javaList, v -> v.size() == CONTAINER_SIZE);
+      jctoolsMpsc = create(v -> fill(new org.jctools.queues.MpscArrayQueue<>(v.size()), v), javaList, v -> v.size() == CONTAINER_SIZE);
+      agronaManyToOne = create(v -> fill(new org.agrona.concurrent.ManyToOneConcurrentArrayQueue<>(v.size()), v), javaList, v -> v.size() == CONTAINER_SIZE);
+
+      pcollectionsImmutable = create(org.pcollections.AmortizedPQueue.<Integer> empty()::plusAll, javaList, v -> areEqual(v, javaList));
+      scalaImmutable = create(v -> (scala.collection.immutable.Queue<Integer>) scala.collection.immutable.Queue$.MODULE$.apply(asScalaBuffer(v)), javaList, v -> v.size() == CONTAINER_SIZE);
+      vavrImmutable = create(io.vavr.collection.Queue::ofAll, javaList, v -> areEqual(v, javaList));
+    }
+
+    static <Q extends java.util.Queue<Integer>> Q fill(Q queue, java.util.List<Integer> elements) {
+      elements.forEach(queue::offer);
+      return queue;
+    }
+  }
+
+  /**
+   * Steady state: every element entering at the rear pushes the oldest one out at the front, the size stays constant
+   */
+  @SuppressWarnings("ConstantConditions")
+  public static class QueueChurn extends Base {
+    @Benchmark
+    public int java_mutable() {
+      final java.util.ArrayDeque<Integer> values = javaMutable;
+      int aggregate = 0;
+      for (Integer element : ELEMENTS) {
+        values.offer(element);
+        aggregate ^= values.poll();
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int java_concurrent() {
+      final java.util.concurrent.ConcurrentLinkedQueue<Integer> values = javaConcurrent;
+      int aggregate = 0;
+      for (Integer element : ELEMENTS) {
+        values.offer(element);
+        aggregate ^= values.poll();
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int jctools_spsc() {
+      final org.jctools.queues.SpscArrayQueue<Integer> values = jctoolsSpsc;
+      int aggregate = 0;
+      for (Integer element : ELEMENTS) {
+        aggregate ^= values.poll(); /* bounded to CONTAINER_SIZE, i.e. we have to make room first */
+        values.offer(element);
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int jctools_mpsc() {
+      final org.jctools.queues.MpscArrayQueue<Integer> values = jctoolsMpsc;
+      int aggregate = 0;
+      for (Integer element : ELEMENTS) {
+        aggregate ^= values.poll();
+        values.offer(element);
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int agrona_many_to_one() {
+      final org.agrona.concurrent.ManyToOneConcurrentArrayQueue<Integer> values = agronaManyToOne;
+      int aggregate = 0;
+      for (Integer element : ELEMENTS) {
+        aggregate ^= values.poll();
+        values.offer(element);
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int pcollections_immutable() {
+      org.pcollections.PQueue<Integer> values = pcollectionsImmutable;
+      int aggregate = 0;
+      for (Integer element : ELEMENTS) {
+        values = values.plus(element);
+        aggregate ^= values.peek();
+        values = values.minus();
+      }
+      assert aggregate == EXPECTED_AGGREGATE && values.size() == CONTAINER_SIZE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int scala_immutable() {
+      scala.collection.immutable.Queue<Integer> values = scalaImmutable;
+      int aggregate = 0;
+      for (Integer element : ELEMENTS) {
+        final scala.Tuple2<Integer, scala.collection.immutable.Queue<Integer>> dequeued = values.enqueue(element).dequeue();
+        aggregate ^= dequeued._1();
+        values = dequeued._2();
+      }
+      assert aggregate == EXPECTED_AGGREGATE && values.size() == CONTAINER_SIZE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int vavr_immutable() {
+      io.vavr.collection.Queue<Integer> values = vavrImmutable;
+      int aggregate = 0;
+      for (Integer element : ELEMENTS) {
+        final io.vavr.Tuple2<Integer, io.vavr.collection.Queue<Integer>> dequeued = values.enqueue(element).dequeue();
+        aggregate ^= dequeued._1;
+        values = dequeued._2;
+      }
+      assert aggregate == EXPECTED_AGGREGATE && values.size() == CONTAINER_SIZE;
+      return aggregate;
+    }
+  }
+
+  /**
+   * Burst: enqueue everything into an empty queue, then drain it completely
+   */
+  @SuppressWarnings("ConstantConditions")
+  public static class QueueBurst extends Base {
+    @Benchmark
+    public int java_mutable() {
+      final java.util.ArrayDeque<Integer> values = new java.util.ArrayDeque<>(CONTAINER_SIZE);
+      for (Integer element : ELEMENTS) {
+        values.offer(element);
+      }
+      int aggregate = 0;
+      for (Integer value; (value = values.poll()) != null; ) {
+        aggregate ^= value;
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int java_concurrent() {
+      final java.util.concurrent.ConcurrentLinkedQueue<Integer> values = new java.util.concurrent.ConcurrentLinkedQueue<>();
+      for (Integer element : ELEMENTS) {
+        values.offer(element);
+      }
+      int aggregate = 0;
+      for (Integer value; (value = values.poll()) != null; ) {
+        aggregate ^= value;
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int jctools_spsc() {
+      final org.jctools.queues.SpscArrayQueue<Integer> values = new org.jctools.queues.SpscArrayQueue<>(CONTAINER_SIZE);
+      for (Integer element : ELEMENTS) {
+        values.offer(element);
+      }
+      int aggregate = 0;
+      for (Integer value; (value = values.poll()) != null; ) {
+        aggregate ^= value;
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int jctools_mpsc() {
+      final org.jctools.queues.MpscArrayQueue<Integer> values = new org.jctools.queues.MpscArrayQueue<>(CONTAINER_SIZE);
+      for (Integer element : ELEMENTS) {
+        values.offer(element);
+      }
+      int aggregate = 0;
+      for (Integer value; (value = values.poll()) != null; ) {
+        aggregate ^= value;
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int agrona_many_to_one() {
+      final org.agrona.concurrent.ManyToOneConcurrentArrayQueue<Integer> values = new org.agrona.concurrent.ManyToOneConcurrentArrayQueue<>(CONTAINER_SIZE);
+      for (Integer element : ELEMENTS) {
+        values.offer(element);
+      }
+      int aggregate = 0;
+      for (Integer value; (value = values.poll()) != null; ) {
+        aggregate ^= value;
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int pcollections_immutable() {
+      org.pcollections.PQueue<Integer> values = org.pcollections.AmortizedPQueue.empty();
+      for (Integer element : ELEMENTS) {
+        values = values.plus(element);
+      }
+      int aggregate = 0;
+      for (; !values.isEmpty(); values = values.minus()) {
+        aggregate ^= values.peek();
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int scala_immutable() {
+      scala.collection.immutable.Queue<Integer> values = (scala.collection.immutable.Queue<Integer>) (Object) scala.collection.immutable.Queue$.MODULE$.empty();
+      for (Integer element : ELEMENTS) {
+        values = values.enqueue(element);
+      }
+      int aggregate = 0;
+      for (; !values.isEmpty(); values = values.tail()) {
+        aggregate ^= values.head();
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int vavr_immutable() {
+      io.vavr.collection.Queue<Integer> values = io.vavr.collection.Queue.empty();
+      for (Integer element : ELEMENTS) {
+        values = values.enqueue(element);
+      }
+      int aggregate = 0;
+      for (; !values.isEmpty(); values = values.tail()) {
+        aggregate ^= values.head();
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+  }
+
+  /**
+   * A single dequeue, either from a queue built by enqueuing (i.e. every element except the first one is in the rear list,
+   * so the dequeue has to reverse it) or from a queue built in bulk (i.e. everything is already in the front list).
+   * <br>
+   * As the queues are persistent, every invocation pays the full reversal, which is the worst case amortized away by the other benchmarks.
+   */
+  public static class QueueReverseSpike extends Base {
+    org.pcollections.PQueue<Integer> pcollectionsFrontHeavy;
+    scala.collection.immutable.Queue<Integer> scalaRearHeavy;
+    io.vavr.collection.Queue<Integer> vavrRearHeavy;
+
+    @Setup
+    public void setupSpike() {
+      /* the pcollections queue built by plusAll is already rear heavy, dequeuing a placeholder moves everything to the front */
+      pcollectionsFrontHeavy = org.pcollections.AmortizedPQueue.<Integer> empty().plus(0).plusAll(asList(ELEMENTS)).minus();
+      scalaRearHeavy = (scala.collection.immutable.Queue<Integer>) (Object) scala.collection.immutable.Queue$.MODULE$.empty();
+      vavrRearHeavy = io.vavr.collection.Queue.empty();
+      for (Integer element : ELEMENTS) {
+        scalaRearHeavy = scalaRearHeavy.enqueue(element);
+        vavrRearHeavy = vavrRearHeavy.enqueue(element);
+      }
+    }
+
+    @Benchmark
+    public Object pcollections_rear_heavy() {
+      final org.pcollections.PQueue<Integer> values = pcollectionsImmutable.minus();
+      assert Objects.equals(values.peek(), ELEMENTS[1]);
+      return values;
+    }
+
+    @Benchmark
+    public Object pcollections_front_heavy() {
+      final org.pcollections.PQueue<Integer> values = pcollectionsFrontHeavy.minus();
+      assert Objects.equals(values.peek(), ELEMENTS[1]);
+      return values;
+    }
+
+    @Benchmark
+    public Object scala_rear_heavy() {
+      final scala.collection.immutable.Queue<Integer> values = scalaRearHeavy.tail();
+      assert Objects.equals(values.head(), ELEMENTS[1]);
+      return values;
+    }
+
+    @Benchmark
+    public Object scala_front_heavy() {
+      final scala.collection.immutable.Queue<Integer> values = scalaImmutable.tail();
+      assert Objects.equals(values.head(), ELEMENTS[1]);
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_rear_heavy() {
+      final io.vavr.collection.Queue<Integer> values = vavrRearHeavy.tail();
+      assert Objects.equals(values.head(), ELEMENTS[1]);
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_front_heavy() {
+      final io.vavr.collection.Queue<Integer> values = vavrImmutable.tail();
+      assert Objects.equals(values.head(), ELEMENTS[1]);
+      return values;
+    }
+  }
+}
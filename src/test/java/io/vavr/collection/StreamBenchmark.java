@@ -0,0 +1,407 @@
+/*  __    __  __  __    __  ___
+ * \  \  /  /    \  \  /  /  __/
+ *  \  \/  /  /\  \  \/  /  /
+ *   \____/__/  \__\____/__/
+ *
+ * Copyright 2014-2019 Vavr, http://vavr.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vavr.collection;
+
+import clojure.java.api.Clojure;
+import clojure.lang.AFn;
+import clojure.lang.IFn;
+import clojure.lang.ISeq;
+import clojure.lang.RT;
+import io.vavr.JmhRunner;
+import io.vavr.Tuple2;
+import org.openjdk.jmh.annotations.*;
+import scala.collection.generic.CanBuildFrom;
+
+import static io.vavr.JmhRunner.Includes.*;
+import static io.vavr.JmhRunner.getRandomValues;
+import static java.util.Arrays.asList;
+import static scala.collection.JavaConverters.asScalaBuffer;
+
+/**
+ * Benchmark for lazy, memoizing sequences: every benchmark (except {@link StreamMemoized}) creates its streams from scratch,
+ * i.e. it pays for the evaluation and memoization of every cell it traverses.
+ * <br>
+ * Run with {@link JmhRunner#runNormalWithAllocationNoAsserts} to see the allocated bytes per element besides the throughput.
+ */
+@SuppressWarnings({"ALL", "unchecked", "rawtypes"})
+public class StreamBenchmark {
+  static final Array<Class<?>> CLASSES = Array.of(
+      StreamIterate.class,
+      StreamContinually.class,
+      StreamMapFilter.class,
+      StreamZip.class,
+      StreamAppendAll.class,
+      StreamMemoized.class
+  );
+
+  public static void main(String... args) {
+    JmhRunner.runNormalWithAllocationNoAsserts(CLASSES, JAVA, CLOJURE, SCALA, VAVR);
+  }
+
+  static final IFn CLOJURE_TAKE = Clojure.var("clojure.core", "take");
+  static final IFn CLOJURE_MAP = Clojure.var("clojure.core", "map");
+  static final IFn CLOJURE_FILTER = Clojure.var("clojure.core", "filter");
+  static final IFn CLOJURE_CONCAT = Clojure.var("clojure.core", "concat");
+
+  static final IFn CLOJURE_INCREMENT = new AFn() {
+    @Override
+    public Object invoke(Object i) {
+      return (Integer) i + 1;
+    }
+  };
+  static final IFn CLOJURE_IS_EVEN = new AFn() {
+    @Override
+    public Object invoke(Object i) {
+      return isEven((Integer) i);
+    }
+  };
+  static final IFn CLOJURE_AGGREGATE = new AFn() {
+    @Override
+    public Object invoke(Object i, Object j) {
+      return JmhRunner.aggregate((Integer) i, (Integer) j);
+    }
+  };
+
+  static boolean isEven(int i) {
+    return (i & 1) == 0;
+  }
+
+  static int aggregate(java.util.Iterator<Integer> iterator) {
+    int aggregate = 0;
+    while (iterator.hasNext()) {
+      aggregate ^= iterator.next();
+    }
+    return aggregate;
+  }
+
+  static int aggregate(scala.collection.Iterator<Integer> iterator) {
+    int aggregate = 0;
+    while (iterator.hasNext()) {
+      aggregate ^= iterator.next();
+    }
+    return aggregate;
+  }
+
+  static int aggregate(Object clojureSeq) {
+    int aggregate = 0;
+    for (ISeq seq = RT.seq(clojureSeq); seq != null; seq = seq.next()) {
+      aggregate ^= (Integer) seq.first();
+    }
+    return aggregate;
+  }
+
+  public static class Base extends CollectionBenchmarkBase {
+    final CanBuildFrom canBuildFrom = scala.collection.immutable.Stream.canBuildFrom();
+
+    Integer[] ELEMENTS;
+    java.util.List<Integer> javaMutable;
+
+    @Setup
+    public void setup() {
+      ELEMENTS = getRandomValues(CONTAINER_SIZE, 0);
+      javaMutable = asList(ELEMENTS);
+    }
+
+    scala.collection.immutable.Stream<Integer> scalaStream() {
+      return asScalaBuffer(javaMutable).toStream();
+    }
+
+    Object clojureSeq() {
+      return clojure.lang.ArraySeq.create((Object[]) ELEMENTS);
+    }
+  }
+
+  /**
+   * Infinite generation from a seed, cut to size
+   */
+  public static class StreamIterate extends Base {
+    int EXPECTED_AGGREGATE;
+
+    @Setup
+    public void setupExpected() {
+      EXPECTED_AGGREGATE = 0;
+      for (int i = 0; i < CONTAINER_SIZE; i++) {
+        EXPECTED_AGGREGATE ^= i;
+      }
+    }
+
+    @Benchmark
+    public int java_stream() {
+      final int aggregate = java.util.stream.Stream.iterate(0, i -> i + 1).limit(CONTAINER_SIZE).reduce(0, JmhRunner::aggregate);
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int scala_stream() {
+      final scala.collection.immutable.Stream<Integer> values = scala.collection.immutable.Stream$.MODULE$.iterate(0, (Integer i) -> i + 1).take(CONTAINER_SIZE);
+      final int aggregate = aggregate(values.iterator());
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int clojure_lazy_seq() {
+      final Object values = CLOJURE_TAKE.invoke(CONTAINER_SIZE, clojure.lang.Iterate.create(CLOJURE_INCREMENT, 0));
+      final int aggregate = aggregate(values);
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int vavr_stream() {
+      final io.vavr.collection.Stream<Integer> values = io.vavr.collection.Stream.iterate(0, i -> i + 1).take(CONTAINER_SIZE);
+      final int aggregate = aggregate(values.iterator());
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+  }
+
+  /**
+   * Infinite generation from a supplier, cut to size
+   */
+  public static class StreamContinually extends Base {
+    @Benchmark
+    public int java_stream() {
+      final Integer element = ELEMENTS[0];
+      final long count = java.util.stream.Stream.generate(() -> element).limit(CONTAINER_SIZE).count();
+      assert count == CONTAINER_SIZE;
+      return (int) count;
+    }
+
+    @Benchmark
+    public int scala_stream() {
+      final Integer element = ELEMENTS[0];
+      final scala.collection.immutable.Stream<Integer> values = scala.collection.immutable.Stream$.MODULE$.continually(() -> element).take(CONTAINER_SIZE);
+      final int count = values.length();
+      assert count == CONTAINER_SIZE;
+      return count;
+    }
+
+    @Benchmark
+    public int clojure_lazy_seq() {
+      final Object values = CLOJURE_TAKE.invoke(CONTAINER_SIZE, clojure.lang.Repeat.create(ELEMENTS[0]));
+      final int count = RT.count(values);
+      assert count == CONTAINER_SIZE;
+      return count;
+    }
+
+    @Benchmark
+    public int vavr_stream() {
+      final Integer element = ELEMENTS[0];
+      final int count = io.vavr.collection.Stream.continually(() -> element).take(CONTAINER_SIZE).length();
+      assert count == CONTAINER_SIZE;
+      return count;
+    }
+  }
+
+  /**
+   * A lazy map followed by a lazy filter, traversed once
+   */
+  public static class StreamMapFilter extends Base {
+    int EXPECTED_AGGREGATE;
+
+    @Setup
+    public void setupExpected() {
+      EXPECTED_AGGREGATE = 0;
+      for (Integer element : ELEMENTS) {
+        if (isEven(element + 1)) {
+          EXPECTED_AGGREGATE ^= element + 1;
+        }
+      }
+    }
+
+    @Benchmark
+    public int java_stream() {
+      final int aggregate = javaMutable.stream().map(i -> i + 1).filter(StreamBenchmark::isEven).reduce(0, JmhRunner::aggregate);
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int scala_stream() {
+      final scala.collection.immutable.Stream<Integer> mapped = (scala.collection.immutable.Stream<Integer>) scalaStream().map((Integer i) -> i + 1, canBuildFrom);
+      final scala.collection.immutable.Stream<Integer> values = mapped.filter(StreamBenchmark::isEven);
+      final int aggregate = aggregate(values.iterator());
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int clojure_lazy_seq() {
+      final Object values = CLOJURE_FILTER.invoke(CLOJURE_IS_EVEN, CLOJURE_MAP.invoke(CLOJURE_INCREMENT, clojureSeq()));
+      final int aggregate = aggregate(values);
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int vavr_stream() {
+      final io.vavr.collection.Stream<Integer> values = io.vavr.collection.Stream.ofAll(javaMutable).map(i -> i + 1).filter(StreamBenchmark::isEven);
+      final int aggregate = aggregate(values.iterator());
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+  }
+
+  /**
+   * Pairing the elements with an infinite index stream
+   */
+  public static class StreamZip extends Base {
+    int EXPECTED_AGGREGATE;
+
+    @Setup
+    public void setupExpected() {
+      EXPECTED_AGGREGATE = 0;
+      for (int i = 0; i < CONTAINER_SIZE; i++) {
+        EXPECTED_AGGREGATE ^= JmhRunner.aggregate(ELEMENTS[i], i);
+      }
+    }
+
+    /* java.util.stream has no zip, the idiomatic replacement is an index stream */
+    @Benchmark
+    public int java_stream() {
+      final Integer[] elements = ELEMENTS;
+      final int aggregate = java.util.stream.IntStream.range(0, CONTAINER_SIZE).map(i -> JmhRunner.aggregate(elements[i], i)).reduce(0, JmhRunner::aggregate);
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int scala_stream() {
+      final scala.collection.immutable.Stream<Object> indices = scala.collection.immutable.Stream$.MODULE$.from(0); /* Stream[Int] */
+      final scala.collection.immutable.Stream<scala.Tuple2<Integer, Integer>> values = (scala.collection.immutable.Stream<scala.Tuple2<Integer, Integer>>) scalaStream().zip(indices, canBuildFrom);
+      int aggregate = 0;
+      for (final scala.collection.Iterator<scala.Tuple2<Integer, Integer>> iterator = values.iterator(); iterator.hasNext(); ) {
+        final scala.Tuple2<Integer, Integer> value = iterator.next();
+        aggregate ^= JmhRunner.aggregate(value._1(), value._2());
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int clojure_lazy_seq() {
+      final Object values = CLOJURE_MAP.invoke(CLOJURE_AGGREGATE, clojureSeq(), clojure.lang.Iterate.create(CLOJURE_INCREMENT, 0));
+      final int aggregate = aggregate(values);
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int vavr_stream() {
+      final io.vavr.collection.Stream<Tuple2<Integer, Integer>> values = io.vavr.collection.Stream.ofAll(javaMutable).zip(io.vavr.collection.Stream.from(0));
+      int aggregate = 0;
+      for (final Iterator<Tuple2<Integer, Integer>> iterator = values.iterator(); iterator.hasNext(); ) {
+        final Tuple2<Integer, Integer> value = iterator.next();
+        aggregate ^= JmhRunner.aggregate(value._1, value._2);
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+  }
+
+  /**
+   * Lazy concatenation of two streams (i.e. the elements twice, cancelling each other out in the aggregate)
+   */
+  public static class StreamAppendAll extends Base {
+    @Benchmark
+    public int java_stream() {
+      final int aggregate = java.util.stream.Stream.concat(javaMutable.stream(), javaMutable.stream()).reduce(0, JmhRunner::aggregate);
+      assert aggregate == 0;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int scala_stream() {
+      final scala.collection.immutable.Stream<Integer> values = (scala.collection.immutable.Stream<Integer>) scalaStream().$plus$plus(scalaStream(), canBuildFrom);
+      final int aggregate = aggregate(values.iterator());
+      assert aggregate == 0;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int clojure_lazy_seq() {
+      final Object values = CLOJURE_CONCAT.invoke(clojureSeq(), clojureSeq());
+      final int aggregate = aggregate(values);
+      assert aggregate == 0;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int vavr_stream() {
+      final io.vavr.collection.Stream<Integer> values = io.vavr.collection.Stream.ofAll(javaMutable).appendAll(io.vavr.collection.Stream.ofAll(javaMutable));
+      final int aggregate = aggregate(values.iterator());
+      assert aggregate == 0;
+      return aggregate;
+    }
+  }
+
+  /**
+   * Traversal of an already evaluated stream, i.e. every cell is a memoization hit.
+   * The mutable list is the baseline, as a {@link java.util.stream.Stream} cannot be traversed twice.
+   */
+  public static class StreamMemoized extends Base {
+    int EXPECTED_AGGREGATE;
+
+    scala.collection.immutable.Stream<Integer> scalaMemoized;
+    Object clojureMemoized;
+    io.vavr.collection.Stream<Integer> vavrMemoized;
+
+    @Setup
+    public void setupMemoized() {
+      EXPECTED_AGGREGATE = Iterator.of(ELEMENTS).reduce(JmhRunner::aggregate);
+
+      scalaMemoized = scalaStream().force();
+      clojureMemoized = CLOJURE_TAKE.invoke(CONTAINER_SIZE, clojureSeq());
+      RT.count(clojureMemoized); /* realizes every cell */
+      vavrMemoized = io.vavr.collection.Stream.ofAll(javaMutable);
+      vavrMemoized.length(); /* evaluates every cell */
+    }
+
+    @Benchmark
+    public int java_mutable() {
+      final int aggregate = aggregate(javaMutable.iterator());
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int scala_stream() {
+      final int aggregate = aggregate(scalaMemoized.iterator());
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int clojure_lazy_seq() {
+      final int aggregate = aggregate(clojureMemoized);
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int vavr_stream() {
+      final int aggregate = aggregate(vavrMemoized.iterator());
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+  }
+}
@@ -0,0 +1,375 @@
+/*  __    __  __  __    __  ___
+ * \  \  /  /    \  \  /  /  __/
+ *  \  \/  /  /\  \  \/  /  /
+ *   \____/__/  \__\____/__/
+ *
+ * Copyright 2014-2019 Vavr, http://vavr.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vavr.collection;
+
+import io.vavr.JmhRunner;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.function.Supplier;
+
+import static io.vavr.JmhRunner.Includes.*;
+
+/**
+ * {@link Tree}s of {@code CONTAINER_SIZE} nodes in different shapes, i.e. a deep chain, a single root with only leaves and a balanced binary tree.
+ * The nodes are the ids {@code 0..CONTAINER_SIZE-1}, the root is {@code 0}.
+ * <br>
+ * The {@code java_mutable} baselines traverse an adjacency list (i.e. the children's ids of every id) iteratively.
+ * <br>
+ * As the forks run with -Xss150m, {@link TreeBuild} reports (without failing) which Vavr operations overflow a default sized stack.
+ */
+@SuppressWarnings({"UnnecessaryFullyQualifiedName", "WeakerAccess"})
+public class TreeBenchmark {
+  static final Array<Class<?>> CLASSES = Array.of(
+      TreeBuild.class,
+      TreeTraverse.class,
+      TreeMapValues.class,
+      TreeFold.class,
+      TreeFlatten.class,
+      TreeReplace.class
+  );
+
+  public static void main(String... args) {
+    JmhRunner.runNormalNoAsserts(CLASSES, JAVA, VAVR);
+  }
+
+  public enum Shape {
+    DEEP,
+    WIDE,
+    BALANCED;
+
+    Integer parent(int id) {
+      if (id == 0) {
+        return null;
+      }
+      switch (this) {
+        case DEEP:
+          return id - 1;
+        case WIDE:
+          return 0;
+        default:
+          return (id - 1) / 2;
+      }
+    }
+  }
+
+  static int[][] javaBuild(Integer[] ids, Integer[] parents) {
+    final int[] childCounts = new int[ids.length];
+    for (Integer parent : parents) {
+      if (parent != null) {
+        childCounts[parent]++;
+      }
+    }
+    final int[][] children = new int[ids.length][];
+    for (int id = 0; id < ids.length; id++) {
+      children[id] = new int[childCounts[id]];
+      childCounts[id] = 0;
+    }
+    for (Integer id : ids) {
+      final Integer parent = parents[id];
+      if (parent != null) {
+        children[parent][childCounts[parent]++] = id;
+      }
+    }
+    return children;
+  }
+
+  static int javaPreOrder(int[][] children) {
+    int aggregate = 0;
+    final int[] stack = new int[children.length];
+    int top = 0;
+    stack[top] = 0;
+    while (top >= 0) {
+      final int node = stack[top--];
+      aggregate ^= node;
+      final int[] nodeChildren = children[node];
+      for (int i = nodeChildren.length - 1; i >= 0; i--) {
+        stack[++top] = nodeChildren[i];
+      }
+    }
+    return aggregate;
+  }
+
+  /* the first child's subtree, the node, then the other children's subtrees, as defined by Tree.Order.IN_ORDER */
+  static int javaInOrder(int[][] children) {
+    return javaDepthFirst(children, true);
+  }
+
+  static int javaPostOrder(int[][] children) {
+    return javaDepthFirst(children, false);
+  }
+
+  /* with a frame of the node and its next child per level, i.e. nexts[top] - 1 is the index of the next child to descend into */
+  private static int javaDepthFirst(int[][] children, boolean inOrder) {
+    int aggregate = 0;
+    final int[] nodes = new int[children.length];
+    final int[] nexts = new int[children.length];
+    int top = 0;
+    while (top >= 0) {
+      final int node = nodes[top];
+      final int[] nodeChildren = children[node];
+      if (nexts[top] == 0) {
+        nexts[top] = 1;
+        if (nodeChildren.length > 0) {
+          top++;
+          nodes[top] = nodeChildren[0];
+          nexts[top] = 0;
+          continue;
+        }
+      }
+      if (nexts[top] == 1) {
+        if (inOrder) {
+          aggregate ^= node;
+        }
+        nexts[top] = 2;
+      }
+      final int childIndex = nexts[top] - 1;
+      if (childIndex < nodeChildren.length) {
+        nexts[top]++;
+        top++;
+        nodes[top] = nodeChildren[childIndex];
+        nexts[top] = 0;
+      } else {
+        if (!inOrder) {
+          aggregate ^= node;
+        }
+        top--;
+      }
+    }
+    return aggregate;
+  }
+
+  static int javaLevelOrder(int[][] children) {
+    int aggregate = 0;
+    final int[] queue = new int[children.length];
+    int head = 0, tail = 0;
+    queue[tail++] = 0;
+    while (head < tail) {
+      final int node = queue[head++];
+      aggregate ^= node;
+      for (int child : children[node]) {
+        queue[tail++] = child;
+      }
+    }
+    return aggregate;
+  }
+
+  @State(Scope.Benchmark)
+  public static class Base {
+    @Param({"1000", "100000"})
+    public int CONTAINER_SIZE;
+
+    @Param({"DEEP", "WIDE", "BALANCED"})
+    public Shape SHAPE;
+
+    int EXPECTED_AGGREGATE;
+    Integer[] IDS;
+    /* the parent id of every id, null for the root */
+    Integer[] PARENTS;
+
+    int[][] javaMutable;
+    Tree.Node<Integer> vavrImmutable;
+
+    @Setup
+    public void setup() {
+      IDS = JmhRunner.fillArrayWithSize(CONTAINER_SIZE);
+      PARENTS = Array.of(IDS).map(SHAPE::parent).toJavaArray(Integer[]::new);
+      EXPECTED_AGGREGATE = Array.of(IDS).reduce(JmhRunner::aggregate);
+
+      javaMutable = javaBuild(IDS, PARENTS);
+      vavrImmutable = vavrBuild();
+      assert vavrImmutable.size() == CONTAINER_SIZE;
+    }
+
+    Tree.Node<Integer> vavrBuild() {
+      final Integer[] parents = PARENTS;
+      return Tree.build(Array.of(IDS), id -> id, id -> parents[id]).head();
+    }
+  }
+
+  public static class TreeBuild extends Base {
+    @Setup
+    public void reportStackSafety() {
+      final Map<String, Supplier<?>> operations = LinkedHashMap.<String, Supplier<?>> empty()
+          .put("build", this::vavrBuild)
+          .put("traverse(PRE_ORDER)", () -> vavrImmutable.traverse(Tree.Order.PRE_ORDER).size())
+          .put("traverse(POST_ORDER)", () -> vavrImmutable.traverse(Tree.Order.POST_ORDER).size())
+          .put("traverse(IN_ORDER)", () -> vavrImmutable.traverse(Tree.Order.IN_ORDER).size())
+          .put("traverse(LEVEL_ORDER)", () -> vavrImmutable.traverse(Tree.Order.LEVEL_ORDER).size())
+          .put("map", () -> vavrImmutable.map(id -> id + 1))
+          .put("fold", () -> vavrImmutable.fold(0, JmhRunner::aggregate))
+          .put("values", () -> vavrImmutable.values().size())
+          .put("replace", () -> vavrImmutable.replace(CONTAINER_SIZE - 1, -1))
+          .put("hashCode", () -> vavrImmutable.hashCode());
+      final String report = operations
+          .map(operation -> operation._1 + "=" + (JmhRunner.runOnDefaultStack(operation._1, operation._2).isDefined() ? "overflows" : "ok"))
+          .mkString(", ");
+      System.out.println(String.format("%nTree stack safety with a default sized stack (%s, %d nodes): %s", SHAPE, CONTAINER_SIZE, report));
+    }
+
+    @Benchmark
+    public Object java_mutable() {
+      final int[][] values = javaBuild(IDS, PARENTS);
+      assert values.length == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_immutable() {
+      final Tree.Node<Integer> values = vavrBuild();
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+  }
+
+  public static class TreeTraverse extends Base {
+    @Param({"PRE_ORDER", "POST_ORDER", "IN_ORDER", "LEVEL_ORDER"})
+    public Tree.Order ORDER;
+
+    @Benchmark
+    public int java_mutable() {
+      final int aggregate;
+      switch (ORDER) {
+        case PRE_ORDER:
+          aggregate = javaPreOrder(javaMutable);
+          break;
+        case POST_ORDER:
+          aggregate = javaPostOrder(javaMutable);
+          break;
+        case IN_ORDER:
+          aggregate = javaInOrder(javaMutable);
+          break;
+        default:
+          aggregate = javaLevelOrder(javaMutable);
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int vavr_immutable() {
+      int aggregate = 0;
+      for (Tree.Node<Integer> node : vavrImmutable.traverse(ORDER)) {
+        aggregate ^= node.get();
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+  }
+
+  public static class TreeMapValues extends Base {
+    @Benchmark
+    public Object java_mutable() {
+      final int[] values = new int[CONTAINER_SIZE];
+      final int[] stack = new int[CONTAINER_SIZE];
+      int top = 0;
+      while (top >= 0) {
+        final int node = stack[top--];
+        values[node] = node + 1;
+        for (int child : javaMutable[node]) {
+          stack[++top] = child;
+        }
+      }
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_immutable() {
+      final Tree<Integer> values = vavrImmutable.map(id -> id + 1);
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+  }
+
+  public static class TreeFold extends Base {
+    @Benchmark
+    public int java_mutable() {
+      final int aggregate = javaPreOrder(javaMutable);
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int vavr_immutable() {
+      final int aggregate = vavrImmutable.fold(0, JmhRunner::aggregate);
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+  }
+
+  /**
+   * The values of all nodes in pre-order, as a flat sequence
+   */
+  public static class TreeFlatten extends Base {
+    @Benchmark
+    public Object java_mutable() {
+      final java.util.ArrayList<Integer> values = new java.util.ArrayList<>(CONTAINER_SIZE);
+      final int[] stack = new int[CONTAINER_SIZE];
+      int top = 0;
+      while (top >= 0) {
+        final int node = stack[top--];
+        values.add(node);
+        final int[] nodeChildren = javaMutable[node];
+        for (int i = nodeChildren.length - 1; i >= 0; i--) {
+          stack[++top] = nodeChildren[i];
+        }
+      }
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_immutable() {
+      final Seq<Integer> values = vavrImmutable.values().toVector();
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+  }
+
+  /**
+   * Replaces the last id, i.e. the deepest node of the chain, a leaf otherwise.
+   * <br>
+   * The mutable baseline copies the values of all nodes to stay persistent.
+   */
+  public static class TreeReplace extends Base {
+    int[] javaValues;
+
+    @Setup
+    public void setupValues() {
+      javaValues = new int[CONTAINER_SIZE];
+      for (int id = 0; id < CONTAINER_SIZE; id++) {
+        javaValues[id] = id;
+      }
+    }
+
+    @Benchmark
+    public Object java_mutable() {
+      final int[] values = javaValues.clone();
+      values[CONTAINER_SIZE - 1] = -1;
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_immutable() {
+      final Tree<Integer> values = vavrImmutable.replace(CONTAINER_SIZE - 1, -1);
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+  }
+}
@@ -0,0 +1,271 @@
+/*  __    __  __  __    __  ___
+ * \  \  /  /    \  \  /  /  __/
+ *  \  \/  /  /\  \  \/  /  /
+ *   \____/__/  \__\____/__/
+ *
+ * Copyright 2014-2019 Vavr, http://vavr.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vavr.concurrent;
+
+import io.vavr.JmhRunner;
+import io.vavr.collection.Array;
+import io.vavr.collection.Seq;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+import static io.vavr.JmhRunner.Includes.*;
+
+/**
+ * {@link Future} and {@link Promise} compared with {@link CompletableFuture} and Scala's {@code Future}, all of them running on the same {@code EXECUTOR}:
+ * a {@link java.util.concurrent.ForkJoinPool}, a fixed thread pool or the calling thread.
+ * <br>
+ * Every operation waits for its result, i.e. the latency percentiles contain the hand-offs between the threads.
+ */
+@SuppressWarnings({"UnnecessaryFullyQualifiedName", "WeakerAccess", "unchecked", "rawtypes"})
+public class FutureBenchmark {
+  static final Array<Class<?>> CLASSES = Array.of(
+      FutureOf.class,
+      FutureChain.class,
+      FutureSequence.class,
+      FutureOnCompleteFanOut.class,
+      PromiseComplete.class
+  );
+
+  public static void main(String... args) {
+    JmhRunner.runNormalWithLatencyNoAsserts(CLASSES, JAVA, SCALA, VAVR);
+  }
+
+  static final int POOL_SIZE = 4;
+
+  static final scala.concurrent.duration.Duration INF = scala.concurrent.duration.Duration$.MODULE$.Inf();
+
+  public enum ExecutorType {
+    FORK_JOIN,
+    FIXED,
+    DIRECT
+  }
+
+  @State(Scope.Benchmark)
+  public static class Base {
+    @Param({"FORK_JOIN", "FIXED", "DIRECT"})
+    public ExecutorType EXECUTOR;
+
+    ExecutorService pool;
+    Executor executor;
+    scala.concurrent.ExecutionContext executionContext;
+
+    @Setup
+    public void setup() {
+      switch (EXECUTOR) {
+        case FORK_JOIN:
+          pool = new java.util.concurrent.ForkJoinPool(POOL_SIZE);
+          executor = pool;
+          break;
+        case FIXED:
+          pool = java.util.concurrent.Executors.newFixedThreadPool(POOL_SIZE);
+          executor = pool;
+          break;
+        default:
+          executor = Runnable::run;
+      }
+      executionContext = scala.concurrent.ExecutionContext$.MODULE$.fromExecutor(executor);
+    }
+
+    @TearDown
+    public void tearDown() {
+      if (pool != null) {
+        pool.shutdownNow();
+      }
+    }
+  }
+
+  public static class FutureOf extends Base {
+    @Benchmark
+    public Object java_completable() {
+      return CompletableFuture.supplyAsync(() -> 1, executor).join();
+    }
+
+    @Benchmark
+    public Object scala_future() throws Exception {
+      return scala.concurrent.Await.result(scala.concurrent.Future$.MODULE$.apply(() -> 1, executionContext), INF);
+    }
+
+    @Benchmark
+    public Object vavr_future() {
+      return Future.of(executor, () -> 1).get();
+    }
+  }
+
+  /**
+   * Alternating {@code map} and {@code flatMap} stages, the flatMaps into already completed futures
+   */
+  public static class FutureChain extends Base {
+    @Param({"16"})
+    public int CHAIN_LENGTH;
+
+    @Benchmark
+    public int java_completable() {
+      CompletableFuture<Integer> future = CompletableFuture.supplyAsync(() -> 0, executor);
+      for (int i = 0; i < CHAIN_LENGTH; i += 2) {
+        future = future.thenApplyAsync(v -> v + 1, executor).thenComposeAsync(v -> CompletableFuture.completedFuture(v + 1), executor);
+      }
+      final int result = future.join();
+      assert result == CHAIN_LENGTH;
+      return result;
+    }
+
+    @Benchmark
+    public int scala_future() throws Exception {
+      scala.concurrent.Future<Integer> future = scala.concurrent.Future$.MODULE$.apply(() -> 0, executionContext);
+      for (int i = 0; i < CHAIN_LENGTH; i += 2) {
+        future = future.map(v -> v + 1, executionContext).flatMap(v -> scala.concurrent.Future$.MODULE$.successful(v + 1), executionContext);
+      }
+      final int result = scala.concurrent.Await.result(future, INF);
+      assert result == CHAIN_LENGTH;
+      return result;
+    }
+
+    @Benchmark
+    public int vavr_future() {
+      Future<Integer> future = Future.of(executor, () -> 0);
+      for (int i = 0; i < CHAIN_LENGTH; i += 2) {
+        future = future.map(v -> v + 1).flatMap(v -> Future.successful(executor, v + 1));
+      }
+      final int result = future.get();
+      assert result == CHAIN_LENGTH;
+      return result;
+    }
+  }
+
+  public static class FutureSequence extends Base {
+    @Param({"1000"})
+    public int CONTAINER_SIZE;
+
+    @Benchmark
+    public int java_completable() {
+      final CompletableFuture<Integer>[] futures = new CompletableFuture[CONTAINER_SIZE];
+      for (int i = 0; i < CONTAINER_SIZE; i++) {
+        final int value = i;
+        futures[i] = CompletableFuture.supplyAsync(() -> value, executor);
+      }
+      final java.util.List<Integer> values = CompletableFuture.allOf(futures)
+          .thenApply(ignored -> java.util.Arrays.stream(futures).map(CompletableFuture::join).collect(java.util.stream.Collectors.toList()))
+          .join();
+      assert values.size() == CONTAINER_SIZE;
+      return values.size();
+    }
+
+    @Benchmark
+    public int scala_future() throws Exception {
+      final java.util.List<scala.concurrent.Future<Integer>> futures = new java.util.ArrayList<>(CONTAINER_SIZE);
+      for (int i = 0; i < CONTAINER_SIZE; i++) {
+        final int value = i;
+        futures.add(scala.concurrent.Future$.MODULE$.apply(() -> value, executionContext));
+      }
+      final scala.concurrent.Future<scala.collection.immutable.List<Integer>> sequenced = scala.concurrent.Future$.MODULE$.sequence(
+          scala.collection.JavaConverters.asScalaBuffer(futures).toList(),
+          (scala.collection.generic.CanBuildFrom) scala.collection.immutable.List$.MODULE$.canBuildFrom(),
+          executionContext);
+      final scala.collection.immutable.List<Integer> values = scala.concurrent.Await.result(sequenced, INF);
+      assert values.size() == CONTAINER_SIZE;
+      return values.size();
+    }
+
+    @Benchmark
+    public int vavr_future() {
+      final Array<Future<Integer>> futures = Array.range(0, CONTAINER_SIZE).map(value -> Future.of(executor, () -> value));
+      final Seq<Integer> values = Future.sequence(executor, futures).get();
+      assert values.size() == CONTAINER_SIZE;
+      return values.size();
+    }
+  }
+
+  /**
+   * Registers {@code FAN_OUT} callbacks on an incomplete future, completes it and waits for all callbacks to run
+   */
+  public static class FutureOnCompleteFanOut extends Base {
+    @Param({"64"})
+    public int FAN_OUT;
+
+    @Benchmark
+    public Object java_completable() throws InterruptedException {
+      final CountDownLatch callbacks = new CountDownLatch(FAN_OUT);
+      final CompletableFuture<Integer> future = new CompletableFuture<>();
+      for (int i = 0; i < FAN_OUT; i++) {
+        future.whenCompleteAsync((value, error) -> callbacks.countDown(), executor);
+      }
+      future.complete(1);
+      callbacks.await();
+      return callbacks;
+    }
+
+    @Benchmark
+    public Object scala_future() throws InterruptedException {
+      final CountDownLatch callbacks = new CountDownLatch(FAN_OUT);
+      final scala.concurrent.Promise<Integer> promise = scala.concurrent.Promise$.MODULE$.apply();
+      for (int i = 0; i < FAN_OUT; i++) {
+        promise.future().onComplete(result -> {
+          callbacks.countDown();
+          return null;
+        }, executionContext);
+      }
+      promise.success(1);
+      callbacks.await();
+      return callbacks;
+    }
+
+    @Benchmark
+    public Object vavr_future() throws InterruptedException {
+      final CountDownLatch callbacks = new CountDownLatch(FAN_OUT);
+      final Promise<Integer> promise = Promise.make(executor);
+      for (int i = 0; i < FAN_OUT; i++) {
+        promise.future().onComplete(result -> callbacks.countDown());
+      }
+      promise.success(1);
+      callbacks.await();
+      return callbacks;
+    }
+  }
+
+  /**
+   * Completes a promise and reads the value of its future
+   */
+  public static class PromiseComplete extends Base {
+    @Benchmark
+    public Object java_completable() {
+      final CompletableFuture<Integer> promise = new CompletableFuture<>();
+      promise.complete(1);
+      return promise.join();
+    }
+
+    @Benchmark
+    public Object scala_future() throws Exception {
+      final scala.concurrent.Promise<Integer> promise = scala.concurrent.Promise$.MODULE$.apply();
+      promise.success(1);
+      return scala.concurrent.Await.result(promise.future(), INF);
+    }
+
+    @Benchmark
+    public Object vavr_future() {
+      final Promise<Integer> promise = Promise.make(executor);
+      promise.success(1);
+      return promise.future().get();
+    }
+  }
+}
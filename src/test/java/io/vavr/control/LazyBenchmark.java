@@ -26,17 +26,29 @@ import io.vavr.collection.Iterator;
 import org.openjdk.jmh.annotations.*;
 import org.openjdk.jmh.infra.Blackhole;
 
+import java.util.Collections;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
 import static io.vavr.API.Array;
+import static io.vavr.JmhRunner.Includes.GUAVA;
 import static io.vavr.JmhRunner.Includes.JAVA;
 import static io.vavr.JmhRunner.Includes.VAVR;
 
 public class LazyBenchmark {
     static final Array<Class<?>> CLASSES = Array(
-            Get.class
+            Get.class,
+            ContendedGet.class
     );
 
     public static void main(String... args) {
-        JmhRunner.runSlowNoAsserts(CLASSES, JAVA, VAVR);
+        JmhRunner.runSlowNoAsserts(Array(Get.class), JAVA, VAVR);
+        JmhRunner.runNormalWithLatencyNoAsserts(Array(ContendedGet.class), JAVA, GUAVA, VAVR);
     }
 
     @State(Scope.Benchmark)
@@ -101,4 +113,112 @@ public class LazyBenchmark {
             }
         }
     }
+
+    /**
+     * {@link #RACERS} threads get the same, not yet evaluated value, as with a shared singleton at startup.
+     * Every operation is a round: a fresh instance is created, the racers are released at once by a barrier,
+     * and the round ends when all of them got the value, i.e. every round races for the first evaluation.
+     * <br>
+     * The latency percentiles are the times of a round, i.e. to the first value of the slowest racer.
+     * {@code java_eager} returns a constant, i.e. it is the cost of the round itself (releasing and joining the racers), to be subtracted from the others.
+     * The holder idiom is left out, as a fresh holder needs a freshly loaded class per round.
+     */
+    @State(Scope.Benchmark)
+    @SuppressWarnings("WeakerAccess")
+    public static class ContendedGet {
+        static final int RACERS = 64;
+        static final int INIT_TOKENS = 1_000;
+
+        ExecutorService racers;
+
+        static Integer compute() {
+            Blackhole.consumeCPU(INIT_TOKENS);
+            return INIT_TOKENS;
+        }
+
+        @Setup
+        public void startRacers() {
+            final ThreadPoolExecutor executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(RACERS);
+            executor.prestartAllCoreThreads();
+            racers = executor;
+        }
+
+        @TearDown
+        public void stopRacers() {
+            racers.shutdownNow();
+        }
+
+        /* releases all racers at once on the given fresh instance and waits for all of their results */
+        Integer race(Supplier<Integer> instance) throws Exception {
+            final CyclicBarrier start = new CyclicBarrier(RACERS);
+            final java.util.List<Callable<Integer>> tasks = Collections.nCopies(RACERS, () -> {
+                start.await();
+                return instance.get();
+            });
+            Integer result = null;
+            for (java.util.concurrent.Future<Integer> future : racers.invokeAll(tasks)) {
+                result = future.get();
+                assert result == INIT_TOKENS;
+            }
+            return result;
+        }
+
+        @Benchmark
+        public Integer java_eager() throws Exception {
+            return race(() -> INIT_TOKENS);
+        }
+
+        @Benchmark
+        public Integer java_double_checked() throws Exception {
+            return race(new DoubleChecked());
+        }
+
+        @Benchmark
+        public Integer java_cas() throws Exception {
+            return race(new Cas());
+        }
+
+        @Benchmark
+        public Integer guava_memoize() throws Exception {
+            return race(com.google.common.base.Suppliers.memoize(ContendedGet::compute));
+        }
+
+        @Benchmark
+        public Integer vavr_lazy() throws Exception {
+            return race(Lazy.of(ContendedGet::compute));
+        }
+
+        static final class DoubleChecked implements Supplier<Integer> {
+            private volatile Integer value;
+
+            @Override
+            public Integer get() {
+                Integer result = value;
+                if (result == null) {
+                    synchronized (this) {
+                        result = value;
+                        if (result == null) {
+                            value = result = compute();
+                        }
+                    }
+                }
+                return result;
+            }
+        }
+
+        /* racing threads may compute the value more than once, the first one wins */
+        static final class Cas implements Supplier<Integer> {
+            private final AtomicReference<Integer> value = new AtomicReference<>();
+
+            @Override
+            public Integer get() {
+                final Integer result = value.get();
+                if (result != null) {
+                    return result;
+                }
+                value.compareAndSet(null, compute());
+                return value.get();
+            }
+        }
+    }
 }
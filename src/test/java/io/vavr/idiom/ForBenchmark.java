@@ -21,7 +21,12 @@ package io.vavr.idiom;
 
 import io.vavr.JmhRunner;
 import io.vavr.collection.Array;
+import io.vavr.collection.Iterator;
+import io.vavr.concurrent.Future;
+import io.vavr.control.Option;
+import io.vavr.control.Try;
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
@@ -29,6 +34,8 @@ import org.openjdk.jmh.annotations.State;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.BiFunction;
 
 import static io.vavr.API.*;
@@ -37,16 +44,25 @@ import static java.util.stream.Collectors.toList;
 
 /**
  * Benchmark for nested loops vs Vavr's For().yield comprehensions.
+ * <br>
+ * The {@code For1..For8} benchmarks yield the sum of the {@code ARITY} generated values, compared with nested loops (or their equivalents)
+ * and with the {@code flatMap} chains a comprehension stands for.
+ * Run with {@link JmhRunner#runNormalWithAllocationNoAsserts}, i.e. the allocated bytes per yielded value show
+ * whether {@code yield} materializes the intermediate levels.
  *
  * @see For2
  */
 public class ForBenchmark {
     static final Array<Class<?>> CLASSES = Array(
-            For.class
+            For.class,
+            IterableFor.class,
+            OptionFor.class,
+            TryFor.class,
+            FutureFor.class
     );
 
     public static void main(String... args) {
-        JmhRunner.runNormalNoAsserts(CLASSES);
+        JmhRunner.runNormalWithAllocationNoAsserts(CLASSES);
     }
 
     @State(Scope.Benchmark)
@@ -93,4 +109,322 @@ public class ForBenchmark {
         }
     }
 
+    @State(Scope.Benchmark)
+    public static class ArityBase {
+        @Param({"1", "2", "3", "4", "5", "6", "7", "8"})
+        public int ARITY;
+    }
+
+    /**
+     * Cartesian products of {@code ARITY} generators of the same elements, i.e. of 2 elements if {@code SMALL},
+     * of about a million results in total if {@code LARGE}.
+     */
+    public static class IterableFor extends ArityBase {
+        static final int LARGE_RESULTS = 1_000_000;
+
+        @Param({"SMALL", "LARGE"})
+        public String GENERATORS;
+
+        /* as an Iterable, i.e. For(...) yields Iterators */
+        Iterable<Integer> GEN;
+        List<Integer> JAVA_GEN;
+        long EXPECTED;
+
+        @Setup
+        public void setup() {
+            final int size = GENERATORS.equals("SMALL") ? 2 : (int) Math.pow(LARGE_RESULTS, 1.0 / ARITY);
+            final io.vavr.collection.List<Integer> elements = io.vavr.collection.List.ofAll(Arrays.stream(getRandomValues(size, 0, true))).map(i -> i % 1000);
+            GEN = elements;
+            JAVA_GEN = elements.toJavaList();
+            /* every element occurs size^(ARITY-1) times per position */
+            EXPECTED = ARITY * (long) Math.pow(size, ARITY - 1) * elements.map(Integer::longValue).sum().longValue();
+        }
+
+        Iterator<Integer> vavrFor() {
+            switch (ARITY) {
+                case 1:
+                    return For(GEN).yield(a -> a);
+                case 2:
+                    return For(GEN, GEN).yield((a, b) -> a + b);
+                case 3:
+                    return For(GEN, GEN, GEN).yield((a, b, c) -> a + b + c);
+                case 4:
+                    return For(GEN, GEN, GEN, GEN).yield((a, b, c, d) -> a + b + c + d);
+                case 5:
+                    return For(GEN, GEN, GEN, GEN, GEN).yield((a, b, c, d, e) -> a + b + c + d + e);
+                case 6:
+                    return For(GEN, GEN, GEN, GEN, GEN, GEN).yield((a, b, c, d, e, f) -> a + b + c + d + e + f);
+                case 7:
+                    return For(GEN, GEN, GEN, GEN, GEN, GEN, GEN).yield((a, b, c, d, e, f, g) -> a + b + c + d + e + f + g);
+                default:
+                    return For(GEN, GEN, GEN, GEN, GEN, GEN, GEN, GEN).yield((a, b, c, d, e, f, g, h) -> a + b + c + d + e + f + g + h);
+            }
+        }
+
+        /* nested loops of the given depth */
+        long javaNested(int level, int partial) {
+            long result = 0;
+            for (Integer element : JAVA_GEN) {
+                result += (level == ARITY - 1) ? partial + element : javaNested(level + 1, partial + element);
+            }
+            return result;
+        }
+
+        Iterator<Integer> vavrFlatMap(int level, int partial) {
+            return (level == ARITY - 1)
+                   ? Iterator.ofAll(GEN).map(element -> partial + element)
+                   : Iterator.ofAll(GEN).flatMap(element -> vavrFlatMap(level + 1, partial + element));
+        }
+
+        static long sum(Iterator<Integer> values) {
+            long result = 0;
+            while (values.hasNext()) {
+                result += values.next();
+            }
+            return result;
+        }
+
+        @Benchmark
+        public long java_nested_loops() {
+            final long result = javaNested(0, 0);
+            assert result == EXPECTED;
+            return result;
+        }
+
+        @Benchmark
+        public long vavr_flat_map() {
+            final long result = sum(vavrFlatMap(0, 0));
+            assert result == EXPECTED;
+            return result;
+        }
+
+        @Benchmark
+        public long vavr_for() {
+            final long result = sum(vavrFor());
+            assert result == EXPECTED;
+            return result;
+        }
+    }
+
+    public static class OptionFor extends ArityBase {
+        Integer[] VALUES;
+        Option<Integer>[] OPTIONS;
+        int EXPECTED;
+
+        @Setup
+        @SuppressWarnings("unchecked")
+        public void setup() {
+            VALUES = Array.range(1, 9).toJavaArray(Integer[]::new);
+            OPTIONS = Array.of(VALUES).map(Option::some).toJavaArray(Option[]::new);
+            EXPECTED = ARITY * (ARITY + 1) / 2;
+        }
+
+        Option<Integer> vavrFor() {
+            switch (ARITY) {
+                case 1:
+                    return For(OPTIONS[0]).yield(a -> a);
+                case 2:
+                    return For(OPTIONS[0], OPTIONS[1]).yield((a, b) -> a + b);
+                case 3:
+                    return For(OPTIONS[0], OPTIONS[1], OPTIONS[2]).yield((a, b, c) -> a + b + c);
+                case 4:
+                    return For(OPTIONS[0], OPTIONS[1], OPTIONS[2], OPTIONS[3]).yield((a, b, c, d) -> a + b + c + d);
+                case 5:
+                    return For(OPTIONS[0], OPTIONS[1], OPTIONS[2], OPTIONS[3], OPTIONS[4]).yield((a, b, c, d, e) -> a + b + c + d + e);
+                case 6:
+                    return For(OPTIONS[0], OPTIONS[1], OPTIONS[2], OPTIONS[3], OPTIONS[4], OPTIONS[5]).yield((a, b, c, d, e, f) -> a + b + c + d + e + f);
+                case 7:
+                    return For(OPTIONS[0], OPTIONS[1], OPTIONS[2], OPTIONS[3], OPTIONS[4], OPTIONS[5], OPTIONS[6]).yield((a, b, c, d, e, f, g) -> a + b + c + d + e + f + g);
+                default:
+                    return For(OPTIONS[0], OPTIONS[1], OPTIONS[2], OPTIONS[3], OPTIONS[4], OPTIONS[5], OPTIONS[6], OPTIONS[7]).yield((a, b, c, d, e, f, g, h) -> a + b + c + d + e + f + g + h);
+            }
+        }
+
+        Option<Integer> vavrFlatMap(int level, int partial) {
+            return (level == ARITY - 1)
+                   ? OPTIONS[level].map(value -> partial + value)
+                   : OPTIONS[level].flatMap(value -> vavrFlatMap(level + 1, partial + value));
+        }
+
+        @Benchmark
+        public int java_null_checks() {
+            int result = 0;
+            for (int i = 0; i < ARITY; i++) {
+                final Integer value = VALUES[i];
+                if (value == null) {
+                    return -1;
+                }
+                result += value;
+            }
+            assert result == EXPECTED;
+            return result;
+        }
+
+        @Benchmark
+        public int vavr_flat_map() {
+            final int result = vavrFlatMap(0, 0).get();
+            assert result == EXPECTED;
+            return result;
+        }
+
+        @Benchmark
+        public int vavr_for() {
+            final int result = vavrFor().get();
+            assert result == EXPECTED;
+            return result;
+        }
+    }
+
+    public static class TryFor extends ArityBase {
+        Integer[] VALUES;
+        Try<Integer>[] TRIES;
+        int EXPECTED;
+
+        @Setup
+        @SuppressWarnings("unchecked")
+        public void setup() {
+            VALUES = Array.range(1, 9).toJavaArray(Integer[]::new);
+            TRIES = Array.of(VALUES).map(Try::success).toJavaArray(Try[]::new);
+            EXPECTED = ARITY * (ARITY + 1) / 2;
+        }
+
+        int value(int i) {
+            if (VALUES[i] == null) {
+                throw new IllegalStateException();
+            }
+            return VALUES[i];
+        }
+
+        Try<Integer> vavrFor() {
+            switch (ARITY) {
+                case 1:
+                    return For(TRIES[0]).yield(a -> a);
+                case 2:
+                    return For(TRIES[0], TRIES[1]).yield((a, b) -> a + b);
+                case 3:
+                    return For(TRIES[0], TRIES[1], TRIES[2]).yield((a, b, c) -> a + b + c);
+                case 4:
+                    return For(TRIES[0], TRIES[1], TRIES[2], TRIES[3]).yield((a, b, c, d) -> a + b + c + d);
+                case 5:
+                    return For(TRIES[0], TRIES[1], TRIES[2], TRIES[3], TRIES[4]).yield((a, b, c, d, e) -> a + b + c + d + e);
+                case 6:
+                    return For(TRIES[0], TRIES[1], TRIES[2], TRIES[3], TRIES[4], TRIES[5]).yield((a, b, c, d, e, f) -> a + b + c + d + e + f);
+                case 7:
+                    return For(TRIES[0], TRIES[1], TRIES[2], TRIES[3], TRIES[4], TRIES[5], TRIES[6]).yield((a, b, c, d, e, f, g) -> a + b + c + d + e + f + g);
+                default:
+                    return For(TRIES[0], TRIES[1], TRIES[2], TRIES[3], TRIES[4], TRIES[5], TRIES[6], TRIES[7]).yield((a, b, c, d, e, f, g, h) -> a + b + c + d + e + f + g + h);
+            }
+        }
+
+        Try<Integer> vavrFlatMap(int level, int partial) {
+            return (level == ARITY - 1)
+                   ? TRIES[level].map(value -> partial + value)
+                   : TRIES[level].flatMap(value -> vavrFlatMap(level + 1, partial + value));
+        }
+
+        @Benchmark
+        public int java_try_catch() {
+            int result = 0;
+            try {
+                for (int i = 0; i < ARITY; i++) {
+                    result += value(i);
+                }
+            } catch (IllegalStateException e) {
+                return -1;
+            }
+            assert result == EXPECTED;
+            return result;
+        }
+
+        @Benchmark
+        public int vavr_flat_map() {
+            final int result = vavrFlatMap(0, 0).get();
+            assert result == EXPECTED;
+            return result;
+        }
+
+        @Benchmark
+        public int vavr_for() {
+            final int result = vavrFor().get();
+            assert result == EXPECTED;
+            return result;
+        }
+    }
+
+    /**
+     * Comprehensions of completed futures, i.e. the overhead of composing them and getting the result.
+     * <br>
+     * Both sides compose on the calling thread: {@code thenCompose} of completed {@code CompletableFuture}s runs synchronously,
+     * and the Vavr futures run their {@code flatMap}/{@code map} on a direct executor (as the {@code DIRECT} executor of {@code FutureBenchmark}),
+     * i.e. no thread hand-offs are measured.
+     */
+    public static class FutureFor extends ArityBase {
+        static final Executor DIRECT = Runnable::run;
+
+        CompletableFuture<Integer>[] JAVA_FUTURES;
+        Future<Integer>[] FUTURES;
+        int EXPECTED;
+
+        @Setup
+        @SuppressWarnings("unchecked")
+        public void setup() {
+            JAVA_FUTURES = Array.range(1, 9).map(CompletableFuture::completedFuture).toJavaArray(CompletableFuture[]::new);
+            FUTURES = Array.range(1, 9).map(value -> Future.successful(DIRECT, value)).toJavaArray(Future[]::new);
+            EXPECTED = ARITY * (ARITY + 1) / 2;
+        }
+
+        Future<Integer> vavrFor() {
+            switch (ARITY) {
+                case 1:
+                    return For(FUTURES[0]).yield(a -> a);
+                case 2:
+                    return For(FUTURES[0], FUTURES[1]).yield((a, b) -> a + b);
+                case 3:
+                    return For(FUTURES[0], FUTURES[1], FUTURES[2]).yield((a, b, c) -> a + b + c);
+                case 4:
+                    return For(FUTURES[0], FUTURES[1], FUTURES[2], FUTURES[3]).yield((a, b, c, d) -> a + b + c + d);
+                case 5:
+                    return For(FUTURES[0], FUTURES[1], FUTURES[2], FUTURES[3], FUTURES[4]).yield((a, b, c, d, e) -> a + b + c + d + e);
+                case 6:
+                    return For(FUTURES[0], FUTURES[1], FUTURES[2], FUTURES[3], FUTURES[4], FUTURES[5]).yield((a, b, c, d, e, f) -> a + b + c + d + e + f);
+                case 7:
+                    return For(FUTURES[0], FUTURES[1], FUTURES[2], FUTURES[3], FUTURES[4], FUTURES[5], FUTURES[6]).yield((a, b, c, d, e, f, g) -> a + b + c + d + e + f + g);
+                default:
+                    return For(FUTURES[0], FUTURES[1], FUTURES[2], FUTURES[3], FUTURES[4], FUTURES[5], FUTURES[6], FUTURES[7]).yield((a, b, c, d, e, f, g, h) -> a + b + c + d + e + f + g + h);
+            }
+        }
+
+        CompletableFuture<Integer> javaCompose(int level, int partial) {
+            return (level == ARITY - 1)
+                   ? JAVA_FUTURES[level].thenApply(value -> partial + value)
+                   : JAVA_FUTURES[level].thenCompose(value -> javaCompose(level + 1, partial + value));
+        }
+
+        Future<Integer> vavrFlatMap(int level, int partial) {
+            return (level == ARITY - 1)
+                   ? FUTURES[level].map(value -> partial + value)
+                   : FUTURES[level].flatMap(value -> vavrFlatMap(level + 1, partial + value));
+        }
+
+        @Benchmark
+        public int java_completable_compose() {
+            final int result = javaCompose(0, 0).join();
+            assert result == EXPECTED;
+            return result;
+        }
+
+        @Benchmark
+        public int vavr_flat_map() {
+            final int result = vavrFlatMap(0, 0).get();
+            assert result == EXPECTED;
+            return result;
+        }
+
+        @Benchmark
+        public int vavr_for() {
+            final int result = vavrFor().get();
+            assert result == EXPECTED;
+            return result;
+        }
+    }
 }
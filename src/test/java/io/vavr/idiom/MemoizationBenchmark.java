@@ -0,0 +1,316 @@
+/*  __    __  __  __    __  ___
+ * \  \  /  /    \  \  /  /  __/
+ *  \  \/  /  /\  \  \/  /  /
+ *   \____/__/  \__\____/__/
+ *
+ * Copyright 2014-2019 Vavr, http://vavr.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vavr.idiom;
+
+import io.vavr.Function1;
+import io.vavr.Function2;
+import io.vavr.JmhRunner;
+import io.vavr.MemoryUsage;
+import io.vavr.Tuple;
+import io.vavr.Tuple2;
+import io.vavr.collection.Array;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static io.vavr.API.Array;
+import static io.vavr.JmhRunner.Includes.*;
+import static io.vavr.JmhRunner.shuffle;
+
+/**
+ * Benchmark for Function1.memoized() and Function2.memoized() vs ConcurrentHashMap.computeIfAbsent and Guava's LoadingCache,
+ * caching {@code CARDINALITY} distinct keys.
+ * <br>
+ * The setup of {@link Hit} prints the retained bytes per cached entry.
+ * The contended hits are swept over 1, 2, 4, 8 and 16 threads, by a subclass of {@link ConcurrentHit} per thread count.
+ */
+public class MemoizationBenchmark {
+    static final Array<Class<?>> CLASSES = Array(
+            Hit.class,
+            Miss.class,
+            ConcurrentHit01.class,
+            ConcurrentHit02.class,
+            ConcurrentHit04.class,
+            ConcurrentHit08.class,
+            ConcurrentHit16.class
+    );
+
+    public static void main(String... args) {
+        JmhRunner.runNormalNoAsserts(CLASSES, JAVA, GUAVA, VAVR);
+    }
+
+    /* the looked up value, cheap to expose the overhead of the caches */
+    static Integer price(Integer key) {
+        return -key;
+    }
+
+    static Integer price(Integer key, Integer quantity) {
+        return -key * quantity;
+    }
+
+    static <K> com.google.common.cache.LoadingCache<K, Integer> guavaLoadingCache(Function1<K, Integer> loader) {
+        return com.google.common.cache.CacheBuilder.newBuilder().build(com.google.common.cache.CacheLoader.from(loader::apply));
+    }
+
+    @State(Scope.Benchmark)
+    public static class Base {
+        @Param({"100", "10000", "1000000"})
+        public int CARDINALITY;
+
+        Integer[] KEYS;
+        int EXPECTED_AGGREGATE;
+
+        java.util.Map<Integer, Integer> javaConcurrentMap;
+        java.util.Map<Tuple2<Integer, Integer>, Integer> javaConcurrentMap2;
+        com.google.common.cache.LoadingCache<Integer, Integer> guavaLoadingCache;
+        Function1<Integer, Integer> vavrMemoized;
+        Function2<Integer, Integer, Integer> vavrMemoized2;
+
+        @Setup
+        public void setup() {
+            /* distinct keys, i.e. every key of the setup is a cached entry and every lookup of Miss misses */
+            KEYS = Array.ofAll(shuffle(Array.range(0, CARDINALITY).toJavaStream().mapToInt(Integer::intValue).toArray(), new Random(0))).toJavaArray(Integer[]::new);
+            EXPECTED_AGGREGATE = Array.of(KEYS).map(MemoizationBenchmark::price).reduce(JmhRunner::aggregate);
+
+            javaConcurrentMap = new ConcurrentHashMap<>();
+            javaConcurrentMap2 = new ConcurrentHashMap<>();
+            guavaLoadingCache = guavaLoadingCache(MemoizationBenchmark::price);
+            vavrMemoized = Function1.of(MemoizationBenchmark::price).memoized();
+            vavrMemoized2 = Function2.of(MemoizationBenchmark::price).memoized();
+            for (Integer key : KEYS) {
+                javaConcurrentMap.computeIfAbsent(key, MemoizationBenchmark::price);
+                javaConcurrentMap2.computeIfAbsent(Tuple.of(key, 1), pair -> price(pair._1, pair._2));
+                guavaLoadingCache.getUnchecked(key);
+                vavrMemoized.apply(key);
+                vavrMemoized2.apply(key, 1);
+            }
+        }
+    }
+
+    public static class Hit extends Base {
+        @Setup
+        public void printRetainedBytesPerEntry() {
+            final int entries = javaConcurrentMap.size();
+            assert entries == CARDINALITY && guavaLoadingCache.size() == CARDINALITY;
+            System.out.println(String.format("%nRetained bytes per cached entry (%d entries): java_concurrent_map=%d, java_concurrent_map_2=%d, guava_loading_cache=%d, vavr_memoized=%d, vavr_memoized_2=%d",
+                    entries,
+                    (MemoryUsage.byteSize(javaConcurrentMap) - MemoryUsage.byteSize(new ConcurrentHashMap<>())) / entries,
+                    (MemoryUsage.byteSize(javaConcurrentMap2) - MemoryUsage.byteSize(new ConcurrentHashMap<>())) / entries,
+                    (MemoryUsage.byteSize(guavaLoadingCache) - MemoryUsage.byteSize(guavaLoadingCache(MemoizationBenchmark::price))) / entries,
+                    (MemoryUsage.byteSize(vavrMemoized) - MemoryUsage.byteSize(Function1.of(MemoizationBenchmark::price).memoized())) / entries,
+                    (MemoryUsage.byteSize(vavrMemoized2) - MemoryUsage.byteSize(Function2.of(MemoizationBenchmark::price).memoized())) / entries));
+        }
+
+        @Benchmark
+        public int java_concurrent_map() {
+            int aggregate = 0;
+            for (Integer key : KEYS) {
+                aggregate ^= javaConcurrentMap.computeIfAbsent(key, MemoizationBenchmark::price);
+            }
+            assert aggregate == EXPECTED_AGGREGATE;
+            return aggregate;
+        }
+
+        @Benchmark
+        public int java_concurrent_map_2() {
+            int aggregate = 0;
+            for (Integer key : KEYS) {
+                aggregate ^= javaConcurrentMap2.computeIfAbsent(Tuple.of(key, 1), pair -> price(pair._1, pair._2));
+            }
+            assert aggregate == EXPECTED_AGGREGATE;
+            return aggregate;
+        }
+
+        @Benchmark
+        public int guava_loading_cache() {
+            int aggregate = 0;
+            for (Integer key : KEYS) {
+                aggregate ^= guavaLoadingCache.getUnchecked(key);
+            }
+            assert aggregate == EXPECTED_AGGREGATE;
+            return aggregate;
+        }
+
+        @Benchmark
+        public int vavr_memoized() {
+            int aggregate = 0;
+            for (Integer key : KEYS) {
+                aggregate ^= vavrMemoized.apply(key);
+            }
+            assert aggregate == EXPECTED_AGGREGATE;
+            return aggregate;
+        }
+
+        @Benchmark
+        public int vavr_memoized_2() {
+            int aggregate = 0;
+            for (Integer key : KEYS) {
+                aggregate ^= vavrMemoized2.apply(key, 1);
+            }
+            assert aggregate == EXPECTED_AGGREGATE;
+            return aggregate;
+        }
+    }
+
+    /**
+     * Looks up every key once in an empty cache, i.e. every lookup misses and caches the value
+     */
+    public static class Miss extends Base {
+        @State(Scope.Thread)
+        public static class Initialized {
+            java.util.Map<Integer, Integer> javaConcurrentMap;
+            java.util.Map<Tuple2<Integer, Integer>, Integer> javaConcurrentMap2;
+            com.google.common.cache.LoadingCache<Integer, Integer> guavaLoadingCache;
+            Function1<Integer, Integer> vavrMemoized;
+            Function2<Integer, Integer, Integer> vavrMemoized2;
+
+            @Setup(Level.Invocation)
+            public void initializeMutable() {
+                javaConcurrentMap = new ConcurrentHashMap<>();
+                javaConcurrentMap2 = new ConcurrentHashMap<>();
+                guavaLoadingCache = guavaLoadingCache(MemoizationBenchmark::price);
+                vavrMemoized = Function1.of(MemoizationBenchmark::price).memoized();
+                vavrMemoized2 = Function2.of(MemoizationBenchmark::price).memoized();
+            }
+        }
+
+        @Benchmark
+        public int java_concurrent_map(Initialized state) {
+            int aggregate = 0;
+            for (Integer key : KEYS) {
+                aggregate ^= state.javaConcurrentMap.computeIfAbsent(key, MemoizationBenchmark::price);
+            }
+            assert aggregate == EXPECTED_AGGREGATE;
+            return aggregate;
+        }
+
+        @Benchmark
+        public int java_concurrent_map_2(Initialized state) {
+            int aggregate = 0;
+            for (Integer key : KEYS) {
+                aggregate ^= state.javaConcurrentMap2.computeIfAbsent(Tuple.of(key, 1), pair -> price(pair._1, pair._2));
+            }
+            assert aggregate == EXPECTED_AGGREGATE;
+            return aggregate;
+        }
+
+        @Benchmark
+        public int guava_loading_cache(Initialized state) {
+            int aggregate = 0;
+            for (Integer key : KEYS) {
+                aggregate ^= state.guavaLoadingCache.getUnchecked(key);
+            }
+            assert aggregate == EXPECTED_AGGREGATE;
+            return aggregate;
+        }
+
+        @Benchmark
+        public int vavr_memoized(Initialized state) {
+            int aggregate = 0;
+            for (Integer key : KEYS) {
+                aggregate ^= state.vavrMemoized.apply(key);
+            }
+            assert aggregate == EXPECTED_AGGREGATE;
+            return aggregate;
+        }
+
+        @Benchmark
+        public int vavr_memoized_2(Initialized state) {
+            int aggregate = 0;
+            for (Integer key : KEYS) {
+                aggregate ^= state.vavrMemoized2.apply(key, 1);
+            }
+            assert aggregate == EXPECTED_AGGREGATE;
+            return aggregate;
+        }
+    }
+
+    /**
+     * The hits of {@link Hit} from {@code @Threads} threads, i.e. run by the subclasses below, for the scaling under contention.
+     * An operation looks up every key, as in {@link Hit}, i.e. the scores are comparable.
+     */
+    public abstract static class ConcurrentHit extends Base {
+        @Benchmark
+        public int java_concurrent_map() {
+            int aggregate = 0;
+            for (Integer key : KEYS) {
+                aggregate ^= javaConcurrentMap.computeIfAbsent(key, MemoizationBenchmark::price);
+            }
+            assert aggregate == EXPECTED_AGGREGATE;
+            return aggregate;
+        }
+
+        @Benchmark
+        public int java_concurrent_map_2() {
+            int aggregate = 0;
+            for (Integer key : KEYS) {
+                aggregate ^= javaConcurrentMap2.computeIfAbsent(Tuple.of(key, 1), pair -> price(pair._1, pair._2));
+            }
+            assert aggregate == EXPECTED_AGGREGATE;
+            return aggregate;
+        }
+
+        @Benchmark
+        public int guava_loading_cache() {
+            int aggregate = 0;
+            for (Integer key : KEYS) {
+                aggregate ^= guavaLoadingCache.getUnchecked(key);
+            }
+            assert aggregate == EXPECTED_AGGREGATE;
+            return aggregate;
+        }
+
+        @Benchmark
+        public int vavr_memoized() {
+            int aggregate = 0;
+            for (Integer key : KEYS) {
+                aggregate ^= vavrMemoized.apply(key);
+            }
+            assert aggregate == EXPECTED_AGGREGATE;
+            return aggregate;
+        }
+
+        @Benchmark
+        public int vavr_memoized_2() {
+            int aggregate = 0;
+            for (Integer key : KEYS) {
+                aggregate ^= vavrMemoized2.apply(key, 1);
+            }
+            assert aggregate == EXPECTED_AGGREGATE;
+            return aggregate;
+        }
+    }
+
+    @Threads(1)
+    public static class ConcurrentHit01 extends ConcurrentHit {}
+
+    @Threads(2)
+    public static class ConcurrentHit02 extends ConcurrentHit {}
+
+    @Threads(4)
+    public static class ConcurrentHit04 extends ConcurrentHit {}
+
+    @Threads(8)
+    public static class ConcurrentHit08 extends ConcurrentHit {}
+
+    @Threads(16)
+    public static class ConcurrentHit16 extends ConcurrentHit {}
+}
@@ -0,0 +1,243 @@
+/*  __    __  __  __    __  ___
+ * \  \  /  /    \  \  /  /  __/
+ *  \  \/  /  /\  \  \/  /  /
+ *   \____/__/  \__\____/__/
+ *
+ * Copyright 2014-2019 Vavr, http://vavr.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vavr.idiom;
+
+import io.vavr.JmhRunner;
+import io.vavr.collection.Array;
+import io.vavr.collection.List;
+import io.vavr.collection.Seq;
+import io.vavr.control.Either;
+import io.vavr.control.Option;
+import io.vavr.control.Validation;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.Random;
+import java.util.function.Function;
+
+import static io.vavr.API.Array;
+import static io.vavr.JmhRunner.Includes.JAVA;
+import static io.vavr.JmhRunner.Includes.VAVR;
+
+/**
+ * Benchmark for chains of {@code DEPTH} steps of Option vs Optional vs null checks, Either vs exceptions and Validation vs an error list.
+ * The steps alternate between {@code map} and a {@code flatMap} into a check, the first check past the middle of the chain fails if {@code FAILING}.
+ * <br>
+ * Runs with the GC profiler, i.e. the allocated bytes per step are {@code gc.alloc.rate.norm / DEPTH}.
+ * Zero allocations show where escape analysis eliminated the wrappers.
+ */
+public class MonadicChainBenchmark {
+    static final Array<Class<?>> CLASSES = Array(
+            OptionChain.class,
+            EitherChain.class,
+            ValidationChain.class
+    );
+
+    public static void main(String... args) {
+        JmhRunner.runNormalWithAllocationNoAsserts(CLASSES, JAVA, VAVR);
+    }
+
+    static final String ERROR = "invalid";
+
+    static final class ValidationException extends RuntimeException {
+        ValidationException(String message) {
+            super(message);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class Base {
+        @Param({"1", "2", "4", "8", "16", "32"})
+        public int DEPTH;
+
+        @Param({"false", "true"})
+        public boolean FAILING;
+
+        int START;
+        /* the value failing the check, i.e. the value before the first check step past the middle of the chain if FAILING */
+        int FAILURE;
+        int EXPECTED;
+
+        @Setup
+        public void setup() {
+            START = new Random(0).nextInt(1000);
+            final int failingStep = (DEPTH / 2) | 1;
+            final boolean fails = FAILING && failingStep < DEPTH;
+            FAILURE = fails ? START + failingStep : Integer.MIN_VALUE;
+            EXPECTED = fails ? -1 : START + DEPTH;
+        }
+
+        boolean isValid(int value) {
+            return value != FAILURE;
+        }
+    }
+
+    public static class OptionChain extends Base {
+        final Function<Integer, Integer> increment = value -> value + 1;
+        final Function<Integer, Optional<Integer>> checkOptional = value -> isValid(value) ? Optional.of(value + 1) : Optional.empty();
+        final Function<Integer, Option<Integer>> checkOption = value -> isValid(value) ? Option.some(value + 1) : Option.none();
+
+        @Benchmark
+        public int java_null() {
+            Integer value = START;
+            for (int i = 0; i < DEPTH && value != null; i++) {
+                if (i % 2 == 0) {
+                    value = value + 1;
+                } else {
+                    value = isValid(value) ? value + 1 : null;
+                }
+            }
+            final int result = value == null ? -1 : value;
+            assert result == EXPECTED;
+            return result;
+        }
+
+        @Benchmark
+        public int java_optional() {
+            Optional<Integer> value = Optional.of(START);
+            for (int i = 0; i < DEPTH; i++) {
+                value = (i % 2 == 0) ? value.map(increment) : value.flatMap(checkOptional);
+            }
+            final int result = value.orElse(-1);
+            assert result == EXPECTED;
+            return result;
+        }
+
+        @Benchmark
+        public int vavr_option() {
+            Option<Integer> value = Option.some(START);
+            for (int i = 0; i < DEPTH; i++) {
+                value = (i % 2 == 0) ? value.map(increment) : value.flatMap(checkOption);
+            }
+            final int result = value.getOrElse(-1);
+            assert result == EXPECTED;
+            return result;
+        }
+    }
+
+    /**
+     * The failing check throws a {@link ValidationException} (with a stack trace) or returns a {@link Either.Left}
+     */
+    public static class EitherChain extends Base {
+        final Function<Integer, Integer> increment = value -> value + 1;
+        final Function<Integer, Either<String, Integer>> checkEither = value -> isValid(value) ? Either.right(value + 1) : Either.left(ERROR);
+
+        int check(int value) {
+            if (!isValid(value)) {
+                throw new ValidationException(ERROR);
+            }
+            return value + 1;
+        }
+
+        @Benchmark
+        public int java_exception() {
+            int result;
+            try {
+                int value = START;
+                for (int i = 0; i < DEPTH; i++) {
+                    value = (i % 2 == 0) ? value + 1 : check(value);
+                }
+                result = value;
+            } catch (ValidationException e) {
+                result = -1;
+            }
+            assert result == EXPECTED;
+            return result;
+        }
+
+        @Benchmark
+        public int vavr_either() {
+            Either<String, Integer> value = Either.right(START);
+            for (int i = 0; i < DEPTH; i++) {
+                value = (i % 2 == 0) ? value.map(increment) : value.flatMap(checkEither);
+            }
+            final int result = value.getOrElse(-1);
+            assert result == EXPECTED;
+            return result;
+        }
+    }
+
+    /**
+     * Validates {@code DEPTH} values and sums them up, collecting all errors, i.e. every second value is invalid if {@code FAILING}.
+     * <br>
+     * {@code vavr_validation_ap} combines the result so far with the next value per step, as with {@code Validation.combine(...).ap(...)} in a validation layer.
+     */
+    public static class ValidationChain extends Base {
+        int[] VALUES;
+        int EXPECTED_RESULT;
+
+        @Setup
+        public void setupValues() {
+            VALUES = new int[DEPTH];
+            int sum = 0, errors = 0;
+            for (int i = 0; i < DEPTH; i++) {
+                VALUES[i] = (FAILING && i % 2 == 1) ? -i : START + i;
+                if (VALUES[i] >= 0) {
+                    sum += VALUES[i];
+                } else {
+                    errors++;
+                }
+            }
+            EXPECTED_RESULT = errors == 0 ? sum : -errors;
+        }
+
+        static Validation<Seq<String>, Integer> validate(int value) {
+            return value >= 0 ? Validation.valid(value) : Validation.invalid(List.of(ERROR));
+        }
+
+        @Benchmark
+        public int java_error_list() {
+            final java.util.List<String> errors = new ArrayList<>();
+            int sum = 0;
+            for (int value : VALUES) {
+                if (value >= 0) {
+                    sum += value;
+                } else {
+                    errors.add(ERROR);
+                }
+            }
+            final int result = errors.isEmpty() ? sum : -errors.size();
+            assert result == EXPECTED_RESULT;
+            return result;
+        }
+
+        @Benchmark
+        public int vavr_validation_sequence() {
+            final int result = Validation.sequence(Array.ofAll(VALUES).map(ValidationChain::validate))
+                    .fold(errors -> -errors.size(), values -> values.foldLeft(0, Integer::sum));
+            assert result == EXPECTED_RESULT;
+            return result;
+        }
+
+        @Benchmark
+        public int vavr_validation_ap() {
+            Validation<Seq<String>, Integer> sum = Validation.valid(0);
+            for (int value : VALUES) {
+                sum = Validation.combine(sum, validate(value))
+                        .ap(Integer::sum)
+                        .mapError(errors -> errors.flatMap(Function.identity()));
+            }
+            final int result = sum.fold(errors -> -errors.size(), Function.identity());
+            assert result == EXPECTED_RESULT;
+            return result;
+        }
+    }
+}
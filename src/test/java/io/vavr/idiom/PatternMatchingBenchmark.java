@@ -20,8 +20,16 @@
 package io.vavr.idiom;
 
 import io.vavr.JmhRunner;
+import io.vavr.Match;
+import io.vavr.Tuple;
+import io.vavr.Tuple2;
 import io.vavr.collection.Array;
+import io.vavr.collection.List;
+import io.vavr.control.Either;
+import io.vavr.control.Option;
+import io.vavr.match.CompiledMatch;
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
@@ -30,32 +38,52 @@ import org.openjdk.jmh.infra.Blackhole;
 import java.util.Random;
 
 import static io.vavr.API.*;
+import static io.vavr.Patterns.*;
+import static io.vavr.Predicates.instanceOf;
 
 /**
- * Benchmark for nested loops vs Vavr's For().yield comprehensions.
- *
- * @see For2
+ * Benchmark for Vavr's Match vs switch, instanceof chains and if/else decomposition.
+ * <br>
+ * Runs with the GC profiler, i.e. shows the allocation of the {@code Match} and {@code Case} objects per match.
+ * See the {@code jdk21} profile for the Java 21 record and sealed type switch baselines.
  */
 public class PatternMatchingBenchmark {
 
     static final Array<Class<?>> CLASSES = Array(
-            MatchVsSwitchIntValues.class
+            MatchVsSwitchIntValues.class,
+            TypeTest.class,
+            OptionDecomposition.class,
+            EitherDecomposition.class,
+            TupleDecomposition.class,
+            ListDecomposition.class,
+            NestedDecomposition.class,
+            GuardCases.class
     );
 
     public static void main(String... args) {
-        JmhRunner.runNormalNoAsserts(CLASSES);
+        JmhRunner.runNormalWithAllocationNoAsserts(CLASSES);
     }
 
+    static final int INSTANCES = 1000;
+
     @State(Scope.Benchmark)
     public static class MatchVsSwitchIntValues {
 
         int[] VALUES;
+        CompiledMatch<Integer, String> COMPILED_MATCH;
 
         @Setup
         public void setup() {
             final int INSTANCES = 1000;
             final int CASES = 5;
             VALUES = Array.range(0, INSTANCES).map(i -> new Random(0).nextInt(CASES)).toJavaStream().mapToInt(i -> i).toArray();
+            COMPILED_MATCH = CompiledMatch.<Integer, String> builder()
+                    .constant(0, "0")
+                    .constant(1, "1")
+                    .constant(2, "2")
+                    .constant(3, "3")
+                    .caseOf(Case($(), "4"))
+                    .build();
         }
 
         @Benchmark
@@ -99,5 +127,380 @@ public class PatternMatchingBenchmark {
                 bh.consume(result);
             }
         }
+
+        @Benchmark
+        public void vavr_compiled_match(Blackhole bh) {
+            for (int i : VALUES) {
+                final String result = COMPILED_MATCH.apply(i);
+                assert String.valueOf(i).equals(result);
+                bh.consume(result);
+            }
+        }
+    }
+
+    public static abstract class Shape {
+        /* for the assertions */
+        abstract int area();
+    }
+
+    static final class Circle extends Shape {
+        final int radius;
+
+        Circle(int radius) { this.radius = radius; }
+
+        @Override
+        int area() { return 3 * radius * radius; }
+    }
+
+    static final class Square extends Shape {
+        final int side;
+
+        Square(int side) { this.side = side; }
+
+        @Override
+        int area() { return side * side; }
+    }
+
+    static final class Rectangle extends Shape {
+        final int width;
+        final int height;
+
+        Rectangle(int width, int height) {
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        int area() { return width * height; }
+    }
+
+    static final class Triangle extends Shape {
+        final int base;
+        final int height;
+
+        Triangle(int base, int height) {
+            this.base = base;
+            this.height = height;
+        }
+
+        @Override
+        int area() { return base * height / 2; }
+    }
+
+    @State(Scope.Benchmark)
+    public static class TypeTest {
+        Shape[] SHAPES;
+
+        @Setup
+        public void setup() {
+            final Random random = new Random(0);
+            SHAPES = Array.range(0, INSTANCES).map(i -> {
+                final int size = 1 + random.nextInt(10);
+                switch (random.nextInt(4)) {
+                    case 0:
+                        return new Circle(size);
+                    case 1:
+                        return new Square(size);
+                    case 2:
+                        return new Rectangle(size, size + 1);
+                    default:
+                        return new Triangle(size, size + 1);
+                }
+            }).toJavaArray(Shape[]::new);
+        }
+
+        @Benchmark
+        public void java_instanceof(Blackhole bh) {
+            for (Shape shape : SHAPES) {
+                final int result;
+                if (shape instanceof Circle) {
+                    final Circle circle = (Circle) shape;
+                    result = 3 * circle.radius * circle.radius;
+                } else if (shape instanceof Square) {
+                    final Square square = (Square) shape;
+                    result = square.side * square.side;
+                } else if (shape instanceof Rectangle) {
+                    final Rectangle rectangle = (Rectangle) shape;
+                    result = rectangle.width * rectangle.height;
+                } else {
+                    final Triangle triangle = (Triangle) shape;
+                    result = triangle.base * triangle.height / 2;
+                }
+                assert result == shape.area();
+                bh.consume(result);
+            }
+        }
+
+        @Benchmark
+        public void vavr_match(Blackhole bh) {
+            for (Shape shape : SHAPES) {
+                final int result = Match(shape).of(
+                        Case($(instanceOf(Circle.class)), s -> 3 * ((Circle) s).radius * ((Circle) s).radius),
+                        Case($(instanceOf(Square.class)), s -> ((Square) s).side * ((Square) s).side),
+                        Case($(instanceOf(Rectangle.class)), s -> ((Rectangle) s).width * ((Rectangle) s).height),
+                        Case($(instanceOf(Triangle.class)), s -> ((Triangle) s).base * ((Triangle) s).height / 2)
+                );
+                assert result == shape.area();
+                bh.consume(result);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class OptionDecomposition {
+        Option<Integer>[] OPTIONS;
+
+        @Setup
+        @SuppressWarnings("unchecked")
+        public void setup() {
+            final Random random = new Random(0);
+            OPTIONS = Array.range(0, INSTANCES).map(i -> random.nextBoolean() ? Option.some(i) : Option.<Integer> none()).toJavaArray(Option[]::new);
+        }
+
+        @Benchmark
+        public void java_if(Blackhole bh) {
+            for (Option<Integer> option : OPTIONS) {
+                final int result = option.isDefined() ? option.get() * 2 : -1;
+                bh.consume(result);
+            }
+        }
+
+        @Benchmark
+        public void vavr_match(Blackhole bh) {
+            for (Option<Integer> option : OPTIONS) {
+                final int result = Match(option).of(
+                        Case($Some($()), value -> value * 2),
+                        Case($None(), -1)
+                );
+                assert result == (option.isDefined() ? option.get() * 2 : -1);
+                bh.consume(result);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class EitherDecomposition {
+        Either<String, Integer>[] EITHERS;
+
+        @Setup
+        @SuppressWarnings("unchecked")
+        public void setup() {
+            final Random random = new Random(0);
+            EITHERS = Array.range(0, INSTANCES).map(i -> random.nextBoolean() ? Either.<String, Integer> right(i) : Either.<String, Integer> left("error " + i)).toJavaArray(Either[]::new);
+        }
+
+        @Benchmark
+        public void java_if(Blackhole bh) {
+            for (Either<String, Integer> either : EITHERS) {
+                final int result = either.isRight() ? either.get() : either.getLeft().length();
+                bh.consume(result);
+            }
+        }
+
+        @Benchmark
+        public void vavr_match(Blackhole bh) {
+            for (Either<String, Integer> either : EITHERS) {
+                final int result = Match(either).of(
+                        Case($Right($()), value -> value),
+                        Case($Left($()), String::length)
+                );
+                assert result == (either.isRight() ? either.get() : either.getLeft().length());
+                bh.consume(result);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class TupleDecomposition {
+        Tuple2<Integer, Integer>[] TUPLES;
+
+        @Setup
+        @SuppressWarnings("unchecked")
+        public void setup() {
+            final Random random = new Random(0);
+            TUPLES = Array.range(0, INSTANCES).map(i -> Tuple.of(random.nextInt(3), random.nextInt(3))).toJavaArray(Tuple2[]::new);
+        }
+
+        @Benchmark
+        public void java_if(Blackhole bh) {
+            for (Tuple2<Integer, Integer> tuple : TUPLES) {
+                final int result;
+                if (tuple._1 == 0) {
+                    result = tuple._2;
+                } else if (tuple._2 == 0) {
+                    result = tuple._1;
+                } else {
+                    result = tuple._1 * tuple._2;
+                }
+                bh.consume(result);
+            }
+        }
+
+        @Benchmark
+        public void vavr_match(Blackhole bh) {
+            for (Tuple2<Integer, Integer> tuple : TUPLES) {
+                final int result = Match(tuple).of(
+                        Case($Tuple2($(0), $()), (first, second) -> second),
+                        Case($Tuple2($(), $(0)), (first, second) -> first),
+                        Case($Tuple2($(), $()), (first, second) -> first * second)
+                );
+                bh.consume(result);
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ListDecomposition {
+        List<Integer>[] LISTS;
+
+        @Setup
+        @SuppressWarnings("unchecked")
+        public void setup() {
+            final Random random = new Random(0);
+            LISTS = Array.range(0, INSTANCES).map(i -> List.range(0, random.nextInt(4))).toJavaArray(List[]::new);
+        }
+
+        @Benchmark
+        public void java_if(Blackhole bh) {
+            for (List<Integer> list : LISTS) {
+                final int result;
+                if (list.isEmpty()) {
+                    result = -1;
+                } else if (list.tail().isEmpty()) {
+                    result = list.head();
+                } else {
+                    result = list.head() + list.tail().head();
+                }
+                bh.consume(result);
+            }
+        }
+
+        @Benchmark
+        public void vavr_match(Blackhole bh) {
+            for (List<Integer> list : LISTS) {
+                final int result = Match(list).of(
+                        Case($Nil(), -1),
+                        Case($Cons($(), $Nil()), (head, tail) -> head),
+                        Case($Cons($(), $Cons($(), $())), (head, tail) -> head + tail.head())
+                );
+                bh.consume(result);
+            }
+        }
+    }
+
+    /**
+     * Matches {@code Option<Tuple2<Integer, Option<Integer>>>}, i.e. patterns nested three levels deep
+     */
+    @State(Scope.Benchmark)
+    public static class NestedDecomposition {
+        Option<Tuple2<Integer, Option<Integer>>>[] VALUES;
+
+        @Setup
+        @SuppressWarnings("unchecked")
+        public void setup() {
+            final Random random = new Random(0);
+            VALUES = Array.range(0, INSTANCES).map(i -> {
+                switch (random.nextInt(3)) {
+                    case 0:
+                        return Option.<Tuple2<Integer, Option<Integer>>> none();
+                    case 1:
+                        return Option.some(Tuple.of(i, Option.<Integer> none()));
+                    default:
+                        return Option.some(Tuple.of(i, Option.some(i)));
+                }
+            }).toJavaArray(Option[]::new);
+        }
+
+        @Benchmark
+        public void java_if(Blackhole bh) {
+            for (Option<Tuple2<Integer, Option<Integer>>> value : VALUES) {
+                final int result;
+                if (value.isEmpty()) {
+                    result = 0;
+                } else if (value.get()._2.isEmpty()) {
+                    result = value.get()._1;
+                } else {
+                    result = value.get()._1 + value.get()._2.get();
+                }
+                bh.consume(result);
+            }
+        }
+
+        @Benchmark
+        public void vavr_match(Blackhole bh) {
+            for (Option<Tuple2<Integer, Option<Integer>>> value : VALUES) {
+                final int result = Match(value).of(
+                        Case($Some($Tuple2($(), $Some($()))), tuple -> tuple._1 + tuple._2.get()),
+                        Case($Some($Tuple2($(), $None())), tuple -> tuple._1),
+                        Case($None(), 0)
+                );
+                bh.consume(result);
+            }
+        }
+    }
+
+    /**
+     * Matches values of {@code 0..CASES-1} against {@code CASES} guards, i.e. {@code value <= k} for every case {@code k}
+     */
+    @State(Scope.Benchmark)
+    public static class GuardCases {
+        @Param({"2", "10", "50"})
+        public int CASES;
+
+        int[] VALUES;
+        String[] RESULTS;
+        CompiledMatch<Integer, String> COMPILED_MATCH;
+
+        @Setup
+        public void setup() {
+            final Random random = new Random(0);
+            VALUES = Array.range(0, INSTANCES).map(i -> random.nextInt(CASES)).toJavaStream().mapToInt(i -> i).toArray();
+            RESULTS = Array.range(0, CASES).map(String::valueOf).toJavaArray(String[]::new);
+            CompiledMatch.Builder<Integer, String> builder = CompiledMatch.builder();
+            for (int k = 0; k < CASES; k++) {
+                final int bound = k;
+                builder = builder.caseOf(Case($((Integer v) -> v <= bound), RESULTS[k]));
+            }
+            COMPILED_MATCH = builder.build();
+        }
+
+        @Benchmark
+        public void java_if(Blackhole bh) {
+            for (int value : VALUES) {
+                String result = null;
+                for (int k = 0; k < CASES; k++) {
+                    if (value <= k) {
+                        result = RESULTS[k];
+                        break;
+                    }
+                }
+                assert RESULTS[value].equals(result);
+                bh.consume(result);
+            }
+        }
+
+        @Benchmark
+        @SuppressWarnings("unchecked")
+        public void vavr_match(Blackhole bh) {
+            for (int value : VALUES) {
+                final Match.Case<Integer, String>[] cases = new Match.Case[CASES];
+                for (int k = 0; k < CASES; k++) {
+                    final int bound = k;
+                    cases[k] = Case($(v -> v <= bound), RESULTS[k]);
+                }
+                final String result = Match(value).of(cases);
+                assert RESULTS[value].equals(result);
+                bh.consume(result);
+            }
+        }
+
+        @Benchmark
+        public void vavr_compiled_match(Blackhole bh) {
+            for (int value : VALUES) {
+                final String result = COMPILED_MATCH.apply(value);
+                assert RESULTS[value].equals(result);
+                bh.consume(result);
+            }
+        }
     }
 }
@@ -23,19 +23,27 @@ import io.vavr.JmhRunner;
 import io.vavr.collection.Array;
 import org.junit.Test;
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.infra.Blackhole;
 
+import java.util.Random;
+
+import static io.vavr.API.$;
 import static io.vavr.API.Array;
+import static io.vavr.API.Case;
 import static io.vavr.API.Try;
+import static io.vavr.Predicates.instanceOf;
 
 /**
  * Benchmark for Try vs try/catch.
  */
 public class TryBenchmark {
     static final Array<Class<?>> CLASSES = Array(
-            Try.class
+            Try.class,
+            FailurePath.class
     );
 
     public static void main(String... args) {
@@ -75,4 +83,141 @@ public class TryBenchmark {
             }
         }
     }
+
+    public enum ExceptionType {
+        STACK_TRACE,
+        STACKLESS,
+        PREALLOCATED
+    }
+
+    static final class ServiceException extends RuntimeException {
+        ServiceException(String message, boolean writableStackTrace) {
+            super(message, null, false, writableStackTrace);
+        }
+    }
+
+    /**
+     * Benchmark for Try vs try/catch on the failure path, i.e. {@code OPERATIONS} service calls, each of them
+     * {@code STACK_DEPTH} frames deep and failing with {@code FAILURE_PERCENTAGE} probability.
+     * <br>
+     * The service throws a new exception with a stack trace, a new one without or a preallocated one, see {@link ExceptionType}.
+     * The {@code _chain} variants call the service 3 times in a row, i.e. fail if any of the calls fails.
+     */
+    @State(Scope.Benchmark)
+    public static class FailurePath {
+        static final int OPERATIONS = 100;
+        static final int CHAIN_LENGTH = 3;
+
+        @Param({"0", "1", "10", "50", "100"})
+        public int FAILURE_PERCENTAGE;
+
+        @Param({"1", "20", "80"})
+        public int STACK_DEPTH;
+
+        @Param({"STACK_TRACE", "STACKLESS", "PREALLOCATED"})
+        public ExceptionType EXCEPTION;
+
+        boolean[] FAILURES;
+        ServiceException PREALLOCATED_EXCEPTION;
+
+        @Setup
+        public void setup() {
+            final Random random = new Random(0);
+            FAILURES = new boolean[OPERATIONS * CHAIN_LENGTH];
+            for (int i = 0; i < FAILURES.length; i++) {
+                FAILURES[i] = random.nextInt(100) < FAILURE_PERCENTAGE;
+            }
+            PREALLOCATED_EXCEPTION = new ServiceException("preallocated", false);
+        }
+
+        ServiceException newException(String message) {
+            switch (EXCEPTION) {
+                case STACK_TRACE:
+                    return new ServiceException(message, true);
+                case STACKLESS:
+                    return new ServiceException(message, false);
+                default:
+                    return PREALLOCATED_EXCEPTION;
+            }
+        }
+
+        /* the value of the i-th call, after descending the given frames */
+        int call(int depth, int i) {
+            if (depth > 1) {
+                return call(depth - 1, i) + 1;
+            } else if (FAILURES[i]) {
+                throw newException("failed");
+            } else {
+                return 1;
+            }
+        }
+
+        @Benchmark
+        public void java_try_catch(Blackhole bh) {
+            for (int i = 0; i < OPERATIONS; i++) {
+                int result;
+                try {
+                    result = call(STACK_DEPTH, i);
+                } catch (ServiceException e) {
+                    result = 0;
+                }
+                assert result == (FAILURES[i] ? 0 : STACK_DEPTH);
+                bh.consume(result);
+            }
+        }
+
+        @Benchmark
+        public void java_try_catch_chain(Blackhole bh) {
+            for (int i = 0; i < OPERATIONS; i++) {
+                final int first = i * CHAIN_LENGTH;
+                int result;
+                try {
+                    result = 0;
+                    for (int j = first; j < first + CHAIN_LENGTH; j++) {
+                        result += call(STACK_DEPTH, j);
+                    }
+                } catch (ServiceException e) {
+                    result = 0;
+                }
+                bh.consume(result);
+            }
+        }
+
+        @Benchmark
+        public void vavr_try_recover(Blackhole bh) {
+            for (int i = 0; i < OPERATIONS; i++) {
+                final int i2 = i;
+                final int result = Try(() -> call(STACK_DEPTH, i2))
+                        .recover(ServiceException.class, 0)
+                        .get();
+                assert result == (FAILURES[i] ? 0 : STACK_DEPTH);
+                bh.consume(result);
+            }
+        }
+
+        /* translates the failure, as when wrapping it into a domain error */
+        @Benchmark
+        public void vavr_try_map_failure(Blackhole bh) {
+            for (int i = 0; i < OPERATIONS; i++) {
+                final int i2 = i;
+                final io.vavr.control.Try<Integer> result = Try(() -> call(STACK_DEPTH, i2))
+                        .mapFailure(Case($(instanceOf(ServiceException.class)), e -> newException("translated")));
+                assert result.isFailure() == FAILURES[i];
+                bh.consume(result);
+            }
+        }
+
+        @Benchmark
+        public void vavr_try_flat_map_chain(Blackhole bh) {
+            for (int i = 0; i < OPERATIONS; i++) {
+                final int first = i * CHAIN_LENGTH;
+                io.vavr.control.Try<Integer> result = Try(() -> 0);
+                for (int j = first; j < first + CHAIN_LENGTH; j++) {
+                    final int j2 = j;
+                    result = result.flatMap(sum -> Try(() -> sum + call(STACK_DEPTH, j2)));
+                }
+                bh.consume(result.getOrElse(0));
+            }
+        }
+    }
 }
@@ -21,26 +21,40 @@ package io.vavr.idiom;
 
 import io.vavr.JmhRunner;
 import io.vavr.Tuple;
+import io.vavr.Tuple2;
+import io.vavr.Tuple3;
 import io.vavr.collection.Array;
 import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
 import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 
+import java.util.HashMap;
+import java.util.Objects;
+
 import static io.vavr.API.Array;
+import static io.vavr.JmhRunner.getRandomValues;
 
 /**
- * Benchmark for Tuple[2,4,8] vs an array.
+ * Benchmark for Tuple[2,4,8] vs an array, and for tuples as hash keys and in hot loops.
+ * <br>
+ * Runs with the GC profiler, i.e. shows the allocations (e.g. of boxing the components) per operation.
  */
 @State(Scope.Benchmark)
 public class TupleBenchmark {
     static final Array<Class<?>> CLASSES = Array(
             Tuple2Benchmark.class,
             Tuple4Benchmark.class,
-            Tuple8Benchmark.class
+            Tuple8Benchmark.class,
+            TupleHashCode.class,
+            TupleEquals.class,
+            TupleKeyedMap.class,
+            TupleUpdate.class
     );
 
     public static void main(String... args) {
-        JmhRunner.runNormalNoAsserts(CLASSES);
+        JmhRunner.runNormalWithAllocationNoAsserts(CLASSES);
     }
 
     public static class Tuple2Benchmark {
@@ -66,4 +80,296 @@ public class TupleBenchmark {
         @Benchmark
         public Object vavr_tuple() { return Tuple.of(0, 1, 2, 3, 4, 5, 6, 7); }
     }
+
+    /**
+     * A key of two ints, with equals and hashCode as a Java 16+ record would generate them
+     */
+    static final class PairKey {
+        final int first;
+        final int second;
+
+        PairKey(int first, int second) {
+            this.first = first;
+            this.second = second;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            } else if (!(o instanceof PairKey)) {
+                return false;
+            } else {
+                final PairKey that = (PairKey) o;
+                return first == that.first && second == that.second;
+            }
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Integer.hashCode(first) + Integer.hashCode(second);
+        }
+    }
+
+    static long pack(int first, int second) {
+        return ((long) first << 32) | (second & 0xFFFFFFFFL);
+    }
+
+    @State(Scope.Benchmark)
+    public static class KeysBase {
+        @Param({"1000", "100000"})
+        public int CONTAINER_SIZE;
+
+        /* outside of the Integer cache, i.e. every boxing creates a new, equal but not identical instance */
+        static final int OFFSET = 1 << 20;
+
+        int[] FIRSTS;
+        int[] SECONDS;
+        int[] THIRDS;
+
+        @Setup
+        public void setup() {
+            FIRSTS = Array.of(getRandomValues(CONTAINER_SIZE, 0)).toJavaStream().mapToInt(i -> i + OFFSET).toArray();
+            SECONDS = Array.of(getRandomValues(CONTAINER_SIZE, 1)).toJavaStream().mapToInt(i -> i + OFFSET).toArray();
+            THIRDS = Array.of(getRandomValues(CONTAINER_SIZE, 2)).toJavaStream().mapToInt(i -> i + OFFSET).toArray();
+        }
+    }
+
+    /**
+     * Hashes existing tuples, and tuples created from primitive ints, i.e. including the boxing of the components
+     */
+    public static class TupleHashCode extends KeysBase {
+        Tuple2<Integer, Integer>[] TUPLES2;
+        Tuple3<Integer, Integer, Integer>[] TUPLES3;
+        PairKey[] PAIR_KEYS;
+
+        @Setup
+        @SuppressWarnings("unchecked")
+        public void setupTuples() {
+            TUPLES2 = Array.range(0, CONTAINER_SIZE).map(i -> Tuple.of(FIRSTS[i], SECONDS[i])).toJavaArray(Tuple2[]::new);
+            TUPLES3 = Array.range(0, CONTAINER_SIZE).map(i -> Tuple.of(FIRSTS[i], SECONDS[i], THIRDS[i])).toJavaArray(Tuple3[]::new);
+            PAIR_KEYS = Array.range(0, CONTAINER_SIZE).map(i -> new PairKey(FIRSTS[i], SECONDS[i])).toJavaArray(PairKey[]::new);
+        }
+
+        @Benchmark
+        public int java_objects_hash() {
+            int aggregate = 0;
+            for (int i = 0; i < CONTAINER_SIZE; i++) {
+                aggregate ^= Objects.hash(FIRSTS[i], SECONDS[i]);
+            }
+            return aggregate;
+        }
+
+        @Benchmark
+        public int java_pair_key() {
+            int aggregate = 0;
+            for (PairKey key : PAIR_KEYS) {
+                aggregate ^= key.hashCode();
+            }
+            return aggregate;
+        }
+
+        @Benchmark
+        public int java_packed_long() {
+            int aggregate = 0;
+            for (int i = 0; i < CONTAINER_SIZE; i++) {
+                aggregate ^= Long.hashCode(pack(FIRSTS[i], SECONDS[i]));
+            }
+            return aggregate;
+        }
+
+        @Benchmark
+        public int vavr_tuple2() {
+            int aggregate = 0;
+            for (Tuple2<Integer, Integer> tuple : TUPLES2) {
+                aggregate ^= tuple.hashCode();
+            }
+            return aggregate;
+        }
+
+        @Benchmark
+        public int vavr_tuple2_boxing() {
+            int aggregate = 0;
+            for (int i = 0; i < CONTAINER_SIZE; i++) {
+                aggregate ^= Tuple.of(FIRSTS[i], SECONDS[i]).hashCode();
+            }
+            return aggregate;
+        }
+
+        @Benchmark
+        public int vavr_tuple3() {
+            int aggregate = 0;
+            for (Tuple3<Integer, Integer, Integer> tuple : TUPLES3) {
+                aggregate ^= tuple.hashCode();
+            }
+            return aggregate;
+        }
+
+        @Benchmark
+        public int vavr_tuple3_boxing() {
+            int aggregate = 0;
+            for (int i = 0; i < CONTAINER_SIZE; i++) {
+                aggregate ^= Tuple.of(FIRSTS[i], SECONDS[i], THIRDS[i]).hashCode();
+            }
+            return aggregate;
+        }
+    }
+
+    /**
+     * Compares equal, but not identical keys, as when looking up a freshly created key
+     */
+    public static class TupleEquals extends KeysBase {
+        Tuple2<Integer, Integer>[] TUPLES;
+        Tuple2<Integer, Integer>[] TUPLE_COPIES;
+        PairKey[] PAIR_KEYS;
+        PairKey[] PAIR_KEY_COPIES;
+
+        @Setup
+        @SuppressWarnings("unchecked")
+        public void setupTuples() {
+            TUPLES = Array.range(0, CONTAINER_SIZE).map(i -> Tuple.of(FIRSTS[i], SECONDS[i])).toJavaArray(Tuple2[]::new);
+            TUPLE_COPIES = Array.range(0, CONTAINER_SIZE).map(i -> Tuple.of(Integer.valueOf(FIRSTS[i]), Integer.valueOf(SECONDS[i]))).toJavaArray(Tuple2[]::new);
+            PAIR_KEYS = Array.range(0, CONTAINER_SIZE).map(i -> new PairKey(FIRSTS[i], SECONDS[i])).toJavaArray(PairKey[]::new);
+            PAIR_KEY_COPIES = Array.range(0, CONTAINER_SIZE).map(i -> new PairKey(FIRSTS[i], SECONDS[i])).toJavaArray(PairKey[]::new);
+        }
+
+        @Benchmark
+        public int java_pair_key() {
+            int equal = 0;
+            for (int i = 0; i < CONTAINER_SIZE; i++) {
+                if (PAIR_KEYS[i].equals(PAIR_KEY_COPIES[i])) {
+                    equal++;
+                }
+            }
+            assert equal == CONTAINER_SIZE;
+            return equal;
+        }
+
+        @Benchmark
+        public int vavr_tuple2() {
+            int equal = 0;
+            for (int i = 0; i < CONTAINER_SIZE; i++) {
+                if (TUPLES[i].equals(TUPLE_COPIES[i])) {
+                    equal++;
+                }
+            }
+            assert equal == CONTAINER_SIZE;
+            return equal;
+        }
+    }
+
+    /**
+     * Puts {@code CONTAINER_SIZE} entries into a HashMap and gets them by freshly created keys, as a hash join does
+     */
+    public static class TupleKeyedMap extends KeysBase {
+        HashMap<Tuple2<Integer, Integer>, Integer> tupleMap;
+        HashMap<Long, Integer> packedMap;
+        HashMap<PairKey, Integer> pairKeyMap;
+
+        @Setup
+        public void setupMaps() {
+            tupleMap = new HashMap<>();
+            packedMap = new HashMap<>();
+            pairKeyMap = new HashMap<>();
+            for (int i = 0; i < CONTAINER_SIZE; i++) {
+                tupleMap.put(Tuple.of(FIRSTS[i], SECONDS[i]), i);
+                packedMap.put(pack(FIRSTS[i], SECONDS[i]), i);
+                pairKeyMap.put(new PairKey(FIRSTS[i], SECONDS[i]), i);
+            }
+        }
+
+        @Benchmark
+        public Object java_packed_long_put() {
+            final HashMap<Long, Integer> values = new HashMap<>();
+            for (int i = 0; i < CONTAINER_SIZE; i++) {
+                values.put(pack(FIRSTS[i], SECONDS[i]), i);
+            }
+            return values;
+        }
+
+        @Benchmark
+        public Object java_pair_key_put() {
+            final HashMap<PairKey, Integer> values = new HashMap<>();
+            for (int i = 0; i < CONTAINER_SIZE; i++) {
+                values.put(new PairKey(FIRSTS[i], SECONDS[i]), i);
+            }
+            return values;
+        }
+
+        @Benchmark
+        public Object vavr_tuple2_put() {
+            final HashMap<Tuple2<Integer, Integer>, Integer> values = new HashMap<>();
+            for (int i = 0; i < CONTAINER_SIZE; i++) {
+                values.put(Tuple.of(FIRSTS[i], SECONDS[i]), i);
+            }
+            return values;
+        }
+
+        @Benchmark
+        public int java_packed_long_get() {
+            int aggregate = 0;
+            for (int i = 0; i < CONTAINER_SIZE; i++) {
+                aggregate ^= packedMap.get(pack(FIRSTS[i], SECONDS[i]));
+            }
+            return aggregate;
+        }
+
+        @Benchmark
+        public int java_pair_key_get() {
+            int aggregate = 0;
+            for (int i = 0; i < CONTAINER_SIZE; i++) {
+                aggregate ^= pairKeyMap.get(new PairKey(FIRSTS[i], SECONDS[i]));
+            }
+            return aggregate;
+        }
+
+        @Benchmark
+        public int vavr_tuple2_get() {
+            int aggregate = 0;
+            for (int i = 0; i < CONTAINER_SIZE; i++) {
+                aggregate ^= tupleMap.get(Tuple.of(FIRSTS[i], SECONDS[i]));
+            }
+            return aggregate;
+        }
+    }
+
+    /**
+     * Derives new tuples from existing ones, i.e. {@code map1}, {@code update2}, {@code map} and {@code apply} per tuple
+     */
+    public static class TupleUpdate extends KeysBase {
+        Tuple2<Integer, Integer>[] TUPLES;
+        PairKey[] PAIR_KEYS;
+
+        @Setup
+        @SuppressWarnings("unchecked")
+        public void setupTuples() {
+            TUPLES = Array.range(0, CONTAINER_SIZE).map(i -> Tuple.of(FIRSTS[i], SECONDS[i])).toJavaArray(Tuple2[]::new);
+            PAIR_KEYS = Array.range(0, CONTAINER_SIZE).map(i -> new PairKey(FIRSTS[i], SECONDS[i])).toJavaArray(PairKey[]::new);
+        }
+
+        @Benchmark
+        public int java_pair_key() {
+            int aggregate = 0;
+            for (PairKey key : PAIR_KEYS) {
+                final PairKey mapped = new PairKey(key.first + 1, key.second);
+                final PairKey updated = new PairKey(mapped.first, 0);
+                final PairKey swapped = new PairKey(updated.second, updated.first);
+                aggregate ^= swapped.first + swapped.second;
+            }
+            return aggregate;
+        }
+
+        @Benchmark
+        public int vavr_tuple2() {
+            int aggregate = 0;
+            for (Tuple2<Integer, Integer> tuple : TUPLES) {
+                aggregate ^= tuple
+                        .map1(first -> first + 1)
+                        .update2(0)
+                        .map((first, second) -> Tuple.of(second, first))
+                        .apply((first, second) -> first + second);
+            }
+            return aggregate;
+        }
+    }
 }
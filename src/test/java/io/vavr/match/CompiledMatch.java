@@ -0,0 +1,228 @@
+/*  __    __  __  __    __  ___
+ * \  \  /  /    \  \  /  /  __/
+ *  \  \/  /  /\  \  \/  /  /
+ *   \____/__/  \__\____/__/
+ *
+ * Copyright 2014-2019 Vavr, http://vavr.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vavr.match;
+
+import io.vavr.Function1;
+import io.vavr.Match;
+import io.vavr.collection.Array;
+import io.vavr.collection.Vector;
+import io.vavr.control.Option;
+
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * An immutable dispatch table of cases, built once and applied many times,
+ * i.e. without allocating a {@code Match} and its {@code Case}s per match as {@code Match(value).of(...)} does.
+ * <br>
+ * The first matching case wins, as with {@code Match}.
+ * The {@link Builder#constant} cases, i.e. the ones of {@code $(value)} patterns, are found by a table lookup (instead of testing them one by one),
+ * an array indexed by the value if all constants are dense {@code Integer}s, as a {@code tableswitch}, a hash table otherwise.
+ * Only the general cases preceding the found constant are tested.
+ */
+public final class CompiledMatch<T, R> implements Function1<T, R> {
+
+  private static final long serialVersionUID = 1L;
+
+  /* the position of a value without a constant case */
+  private static final int NONE = Integer.MAX_VALUE;
+
+  /* the maximum size of a dense table, relative to the number of constants */
+  private static final int MAX_DENSE_TABLE_FACTOR = 4;
+
+  private final ConstantTable constants;
+  /* the result functions of the constant cases, by position */
+  private final Function<? super T, ? extends R>[] constantResults;
+  private final Match.Case<T, R>[] generals;
+  /* the positions of the general cases, ascending */
+  private final int[] generalPositions;
+
+  private CompiledMatch(ConstantTable constants, Function<? super T, ? extends R>[] constantResults, Match.Case<T, R>[] generals, int[] generalPositions) {
+    this.constants = constants;
+    this.constantResults = constantResults;
+    this.generals = generals;
+    this.generalPositions = generalPositions;
+  }
+
+  public static <T, R> Builder<T, R> builder() {
+    return new Builder<>(Vector.empty());
+  }
+
+  /**
+   * Returns the result of the first matching case
+   *
+   * @throws NoSuchElementException if no case matches
+   */
+  @Override
+  public R apply(T value) {
+    final int constant = constants.position(value);
+    final Match.Case<T, R>[] generals = this.generals;
+    for (int i = 0; i < generals.length && generalPositions[i] < constant; i++) {
+      if (generals[i].isDefinedAt(value)) {
+        return generals[i].apply(value);
+      }
+    }
+    if (constant != NONE) {
+      return constantResults[constant].apply(value);
+    }
+    throw new NoSuchElementException("no case matches " + value);
+  }
+
+  /**
+   * Returns the result of the first matching case, if any
+   */
+  public Option<R> option(T value) {
+    final int constant = constants.position(value);
+    for (int i = 0; i < generals.length && generalPositions[i] < constant; i++) {
+      if (generals[i].isDefinedAt(value)) {
+        return Option.some(generals[i].apply(value));
+      }
+    }
+    return (constant != NONE) ? Option.some(constantResults[constant].apply(value)) : Option.none();
+  }
+
+  /**
+   * Collects the cases in order, the builders are immutable
+   */
+  public static final class Builder<T, R> {
+    private final Vector<Entry<T, R>> cases;
+
+    private Builder(Vector<Entry<T, R>> cases) {
+      this.cases = cases;
+    }
+
+    /**
+     * The case of {@code $(value)}, i.e. matching the values equal to the given one
+     */
+    public Builder<T, R> constant(T value, R result) {
+      return constant(value, ignored -> result);
+    }
+
+    public Builder<T, R> constant(T value, Function<? super T, ? extends R> result) {
+      return new Builder<>(cases.append(new Entry<>(value, result, null)));
+    }
+
+    @SuppressWarnings("unchecked")
+    public Builder<T, R> caseOf(Match.Case<? extends T, ? extends R> general) {
+      return new Builder<>(cases.append(new Entry<>(null, null, (Match.Case<T, R>) general)));
+    }
+
+    @SuppressWarnings("unchecked")
+    public CompiledMatch<T, R> build() {
+      final Function<? super T, ? extends R>[] constantResults = new Function[cases.size()];
+      final java.util.Map<Object, Integer> positions = new java.util.HashMap<>();
+      Array<Match.Case<T, R>> generals = Array.empty();
+      Array<Integer> generalPositions = Array.empty();
+      for (int position = 0; position < cases.size(); position++) {
+        final Entry<T, R> entry = cases.get(position);
+        if (entry.general != null) {
+          generals = generals.append(entry.general);
+          generalPositions = generalPositions.append(position);
+        } else if (!positions.containsKey(entry.constant)) {
+          /* a preceding equal constant wins */
+          positions.put(entry.constant, position);
+          constantResults[position] = entry.result;
+        }
+      }
+      return new CompiledMatch<>(
+          ConstantTable.of(positions),
+          constantResults,
+          generals.toJavaArray(Match.Case[]::new),
+          generalPositions.toJavaStream().mapToInt(Integer::intValue).toArray());
+    }
+  }
+
+  /* either a constant case with its result function or a general case */
+  private static final class Entry<T, R> {
+    final T constant;
+    final Function<? super T, ? extends R> result;
+    final Match.Case<T, R> general;
+
+    Entry(T constant, Function<? super T, ? extends R> result, Match.Case<T, R> general) {
+      this.constant = constant;
+      this.result = result;
+      this.general = general;
+    }
+  }
+
+  /**
+   * Maps the constants to the positions of their cases
+   */
+  private static abstract class ConstantTable {
+    abstract int position(Object value);
+
+    static ConstantTable of(java.util.Map<Object, Integer> positions) {
+      if (positions.isEmpty()) {
+        return new ConstantTable() {
+          @Override
+          int position(Object value) {
+            return NONE;
+          }
+        };
+      } else if (positions.keySet().stream().allMatch(key -> key instanceof Integer)) {
+        final int min = positions.keySet().stream().mapToInt(key -> (Integer) key).min().getAsInt();
+        final int max = positions.keySet().stream().mapToInt(key -> (Integer) key).max().getAsInt();
+        final long range = (long) max - min + 1;
+        if (range <= (long) MAX_DENSE_TABLE_FACTOR * positions.size()) {
+          final int[] table = new int[(int) range];
+          java.util.Arrays.fill(table, NONE);
+          positions.forEach((key, position) -> table[(Integer) key - min] = position);
+          return new DenseIntTable(min, table);
+        }
+      }
+      return new HashTable(positions);
+    }
+  }
+
+  private static final class DenseIntTable extends ConstantTable {
+    private final int min;
+    private final int[] table;
+
+    DenseIntTable(int min, int[] table) {
+      this.min = min;
+      this.table = table;
+    }
+
+    @Override
+    int position(Object value) {
+      if (value instanceof Integer) {
+        final int index = (Integer) value - min;
+        if (index >= 0 && index < table.length) {
+          return table[index];
+        }
+      }
+      return NONE;
+    }
+  }
+
+  private static final class HashTable extends ConstantTable {
+    private final java.util.Map<Object, Integer> positions;
+
+    HashTable(java.util.Map<Object, Integer> positions) {
+      this.positions = positions;
+    }
+
+    @Override
+    int position(Object value) {
+      final Integer position = positions.get(value);
+      return (position == null) ? NONE : position;
+    }
+  }
+}
@@ -0,0 +1,588 @@
+/*  __    __  __  __    __  ___
+ * \  \  /  /    \  \  /  /  __/
+ *  \  \/  /  /\  \  \/  /  /
+ *   \____/__/  \__\____/__/
+ *
+ * Copyright 2014-2019 Vavr, http://vavr.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vavr.rrb;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * A prototype of a persistent vector backed by a relaxed radix balanced tree (RRB-tree, Bagwell and Rompf),
+ * i.e. a bit mapped trie (as {@code io.vavr.collection.Vector}) whose nodes may be relaxed, i.e. not full.
+ * <br>
+ * A relaxed node stores the cumulative sizes of its children, which are searched from the radix index onward.
+ * This allows concatenation (and hence insertion and prepending) in O(log n), by merging the right spine of the left tree
+ * with the left spine of the right tree and redistributing their children, instead of rebuilding the right tree.
+ * The redistribution keeps at most {@link #EXTRAS} nodes more than the optimum per merged level, bounding the extra search steps.
+ * <br>
+ * The operations of {@code VectorBenchmark} are implemented (but for the primitive leaves), benchmarked by {@link RrbVectorBenchmark}.
+ * {@link #map} keeps the shape of the tree, the other bulk operations build a balanced one.
+ */
+public final class RrbVector<T> implements Iterable<T> {
+
+  private static final int BITS = 5;
+  private static final int WIDTH = 1 << BITS;
+  private static final int MASK = WIDTH - 1;
+
+  /* the allowed number of nodes above the optimum after a concatenation */
+  private static final int EXTRAS = 2;
+  /* the nodes with more than WIDTH - INVARIANT items are kept when redistributing */
+  private static final int INVARIANT = 1;
+
+  private static final Object[] EMPTY_ARRAY = new Object[0];
+  private static final RrbVector<?> EMPTY = new RrbVector<>(EMPTY_ARRAY, 0, 0);
+
+  /* a leaf, i.e. an array of the elements if the shift is 0, a Node otherwise */
+  private final Object root;
+  private final int shift;
+  private final int size;
+
+  private RrbVector(Object root, int shift, int size) {
+    this.root = root;
+    this.shift = shift;
+    this.size = size;
+  }
+
+  @SuppressWarnings("unchecked")
+  public static <T> RrbVector<T> empty() {
+    return (RrbVector<T>) EMPTY;
+  }
+
+  @SafeVarargs
+  public static <T> RrbVector<T> of(T... elements) {
+    return ofArray(elements.clone());
+  }
+
+  public static <T> RrbVector<T> ofAll(Iterable<? extends T> elements) {
+    final ArrayList<Object> list = new ArrayList<>();
+    for (T element : elements) {
+      list.add(element);
+    }
+    return ofArray(list.toArray());
+  }
+
+  public static <T> RrbVector<T> fill(int n, Supplier<? extends T> supplier) {
+    final Object[] elements = new Object[Math.max(0, n)];
+    for (int i = 0; i < elements.length; i++) {
+      elements[i] = supplier.get();
+    }
+    return ofArray(elements);
+  }
+
+  /* builds a balanced tree, i.e. without relaxed nodes */
+  private static <T> RrbVector<T> ofArray(Object[] elements) {
+    if (elements.length == 0) {
+      return empty();
+    }
+    Object[] nodes = group(elements);
+    int shift = 0;
+    while (nodes.length > 1) {
+      shift += BITS;
+      final Object[] parents = group(nodes);
+      for (int i = 0; i < parents.length; i++) {
+        parents[i] = node((Object[]) parents[i], shift);
+      }
+      nodes = parents;
+    }
+    return new RrbVector<>(nodes[0], shift, elements.length);
+  }
+
+  /* the items in chunks of WIDTH */
+  private static Object[] group(Object[] items) {
+    final Object[] chunks = new Object[(items.length + MASK) >>> BITS];
+    for (int i = 0; i < chunks.length; i++) {
+      chunks[i] = Arrays.copyOfRange(items, i << BITS, Math.min(items.length, (i + 1) << BITS));
+    }
+    return chunks;
+  }
+
+  /* drops the roots with a single child */
+  private static <T> RrbVector<T> of(Object root, int shift, int size) {
+    while (shift > 0 && ((Node) root).children.length == 1) {
+      root = ((Node) root).children[0];
+      shift -= BITS;
+    }
+    return new RrbVector<>(root, shift, size);
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * @throws IndexOutOfBoundsException if the index is not in {@code [0, size)}
+   */
+  @SuppressWarnings("unchecked")
+  public T get(int index) {
+    checkIndex(index, size);
+    Object node = root;
+    for (int shift = this.shift; shift > 0; shift -= BITS) {
+      final Node parent = (Node) node;
+      final int child = parent.childAt(index, shift);
+      index -= parent.offsetOf(child, shift);
+      node = parent.children[child];
+    }
+    return (T) ((Object[]) node)[index];
+  }
+
+  /**
+   * @throws NoSuchElementException if the vector is empty
+   */
+  public T head() {
+    if (isEmpty()) {
+      throw new NoSuchElementException("head of empty RrbVector");
+    }
+    return get(0);
+  }
+
+  /**
+   * @throws UnsupportedOperationException if the vector is empty, as {@code Vector.tail}
+   */
+  public RrbVector<T> tail() {
+    if (isEmpty()) {
+      throw new UnsupportedOperationException("tail of empty RrbVector");
+    }
+    return drop(1);
+  }
+
+  /**
+   * @throws IndexOutOfBoundsException if the index is not in {@code [0, size)}
+   */
+  public RrbVector<T> update(int index, T element) {
+    checkIndex(index, size);
+    return new RrbVector<>(updated(root, shift, index, element), shift, size);
+  }
+
+  private static Object updated(Object node, int shift, int index, Object element) {
+    if (shift == 0) {
+      final Object[] leaf = ((Object[]) node).clone();
+      leaf[index] = element;
+      return leaf;
+    } else {
+      final Node parent = (Node) node;
+      final int child = parent.childAt(index, shift);
+      final Object[] children = parent.children.clone();
+      children[child] = updated(children[child], shift - BITS, index - parent.offsetOf(child, shift), element);
+      return new Node(children, parent.sizes);
+    }
+  }
+
+  public RrbVector<T> append(T element) {
+    return appendAll(of(element));
+  }
+
+  public RrbVector<T> prepend(T element) {
+    return of(element).appendAll(this);
+  }
+
+  public RrbVector<T> prependAll(RrbVector<? extends T> that) {
+    return RrbVector.<T> narrow(that).appendAll(this);
+  }
+
+  /**
+   * Concatenates the vectors in O(log n), the result shares all but the merged spines with them
+   */
+  public RrbVector<T> appendAll(RrbVector<? extends T> that) {
+    if (that.isEmpty()) {
+      return this;
+    } else if (this.isEmpty()) {
+      return narrow(that);
+    } else {
+      final int shift = Math.max(this.shift, that.shift);
+      final Object[] nodes = concat(this.root, this.shift, that.root, that.shift);
+      final Object root = (nodes.length == 1) ? nodes[0] : node(nodes, shift + BITS);
+      return of(root, (nodes.length == 1) ? shift : shift + BITS, this.size + that.size);
+    }
+  }
+
+  /**
+   * @throws IndexOutOfBoundsException if the index is not in {@code [0, size]}
+   */
+  public RrbVector<T> insert(int index, T element) {
+    checkIndex(index, size + 1);
+    return take(index).append(element).appendAll(drop(index));
+  }
+
+  public RrbVector<T> take(int n) {
+    if (n <= 0) {
+      return empty();
+    } else if (n >= size) {
+      return this;
+    } else {
+      return of(taken(root, shift, n), shift, n);
+    }
+  }
+
+  public RrbVector<T> drop(int n) {
+    if (n <= 0) {
+      return this;
+    } else if (n >= size) {
+      return empty();
+    } else {
+      return of(dropped(root, shift, n), shift, size - n);
+    }
+  }
+
+  public RrbVector<T> slice(int beginIndex, int endIndex) {
+    return drop(beginIndex).take(endIndex - Math.max(0, beginIndex));
+  }
+
+  /* the first n elements, 0 < n <= size of the node */
+  private static Object taken(Object node, int shift, int n) {
+    if (shift == 0) {
+      final Object[] leaf = (Object[]) node;
+      return (n == leaf.length) ? leaf : Arrays.copyOf(leaf, n);
+    } else {
+      final Node parent = (Node) node;
+      final int child = parent.childAt(n - 1, shift);
+      final Object[] children = Arrays.copyOf(parent.children, child + 1);
+      children[child] = taken(children[child], shift - BITS, n - parent.offsetOf(child, shift));
+      return node(children, shift);
+    }
+  }
+
+  /* without the first n elements, 0 <= n < size of the node */
+  private static Object dropped(Object node, int shift, int n) {
+    if (n == 0) {
+      return node;
+    } else if (shift == 0) {
+      final Object[] leaf = (Object[]) node;
+      return Arrays.copyOfRange(leaf, n, leaf.length);
+    } else {
+      final Node parent = (Node) node;
+      final int child = parent.childAt(n, shift);
+      final Object[] children = Arrays.copyOfRange(parent.children, child, parent.children.length);
+      children[0] = dropped(children[0], shift - BITS, n - parent.offsetOf(child, shift));
+      return node(children, shift);
+    }
+  }
+
+  /**
+   * Maps node by node, i.e. the result has the same (possibly relaxed) shape and sizes, without searching or rebalancing
+   */
+  public <U> RrbVector<U> map(Function<? super T, ? extends U> mapper) {
+    return isEmpty() ? empty() : new RrbVector<>(mapped(root, shift, mapper), shift, size);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> Object mapped(Object node, int shift, Function<? super T, ?> mapper) {
+    if (shift == 0) {
+      final Object[] leaf = (Object[]) node;
+      final Object[] results = new Object[leaf.length];
+      for (int i = 0; i < leaf.length; i++) {
+        results[i] = mapper.apply((T) leaf[i]);
+      }
+      return results;
+    } else {
+      final Node parent = (Node) node;
+      final Object[] children = new Object[parent.children.length];
+      for (int i = 0; i < children.length; i++) {
+        children[i] = mapped(parent.children[i], shift - BITS, mapper);
+      }
+      return new Node(children, parent.sizes);
+    }
+  }
+
+  public RrbVector<T> filter(Predicate<? super T> predicate) {
+    final ArrayList<Object> results = new ArrayList<>();
+    for (T element : this) {
+      if (predicate.test(element)) {
+        results.add(element);
+      }
+    }
+    return (results.size() == size) ? this : ofArray(results.toArray());
+  }
+
+  /**
+   * The groups in the order of their first elements
+   */
+  public <C> Map<C, RrbVector<T>> groupBy(Function<? super T, ? extends C> classifier) {
+    final Map<C, ArrayList<Object>> groups = new LinkedHashMap<>();
+    for (T element : this) {
+      groups.computeIfAbsent(classifier.apply(element), key -> new ArrayList<>()).add(element);
+    }
+    final Map<C, RrbVector<T>> results = new LinkedHashMap<>();
+    groups.forEach((key, group) -> results.put(key, ofArray(group.toArray())));
+    return results;
+  }
+
+  /**
+   * In natural order
+   *
+   * @throws ClassCastException if the elements are not {@link Comparable}
+   */
+  public RrbVector<T> sorted() {
+    final Object[] elements = toArray();
+    Arrays.sort(elements);
+    return ofArray(elements);
+  }
+
+  @SuppressWarnings("unchecked")
+  public RrbVector<T> sorted(Comparator<? super T> comparator) {
+    final T[] elements = (T[]) toArray();
+    Arrays.sort(elements, comparator);
+    return ofArray(elements);
+  }
+
+  public Object[] toArray() {
+    final Object[] results = new Object[size];
+    int index = 0;
+    for (T element : this) {
+      results[index++] = element;
+    }
+    return results;
+  }
+
+  /**
+   * Merges the trees and returns the resulting nodes (one or two) at the larger of the shifts.
+   * Descends along the adjacent spines, rebalancing the merged children on the way up.
+   */
+  private static Object[] concat(Object left, int leftShift, Object right, int rightShift) {
+    if (leftShift > rightShift) {
+      final Object[] children = ((Node) left).children;
+      final Object[] middle = concat(children[children.length - 1], leftShift - BITS, right, rightShift);
+      return rebalance(Arrays.copyOf(children, children.length - 1), middle, EMPTY_ARRAY, leftShift);
+    } else if (leftShift < rightShift) {
+      final Object[] children = ((Node) right).children;
+      final Object[] middle = concat(left, leftShift, children[0], rightShift - BITS);
+      return rebalance(EMPTY_ARRAY, middle, Arrays.copyOfRange(children, 1, children.length), rightShift);
+    } else if (leftShift == 0) {
+      final Object[] leftLeaf = (Object[]) left, rightLeaf = (Object[]) right;
+      if (leftLeaf.length + rightLeaf.length <= WIDTH) {
+        final Object[] leaf = Arrays.copyOf(leftLeaf, leftLeaf.length + rightLeaf.length);
+        System.arraycopy(rightLeaf, 0, leaf, leftLeaf.length, rightLeaf.length);
+        return new Object[] { leaf };
+      } else {
+        return new Object[] { leftLeaf, rightLeaf };
+      }
+    } else {
+      final Object[] leftChildren = ((Node) left).children, rightChildren = ((Node) right).children;
+      final Object[] middle = concat(leftChildren[leftChildren.length - 1], leftShift - BITS, rightChildren[0], rightShift - BITS);
+      return rebalance(Arrays.copyOf(leftChildren, leftChildren.length - 1), middle, Arrays.copyOfRange(rightChildren, 1, rightChildren.length), leftShift);
+    }
+  }
+
+  /* the nodes at the given shift, containing the given children after redistributing them */
+  private static Object[] rebalance(Object[] left, Object[] middle, Object[] right, int shift) {
+    final Object[] all = new Object[left.length + middle.length + right.length];
+    System.arraycopy(left, 0, all, 0, left.length);
+    System.arraycopy(middle, 0, all, left.length, middle.length);
+    System.arraycopy(right, 0, all, left.length + middle.length, right.length);
+
+    final int[] plan = plan(all, shift - BITS);
+    final Object[] children = (plan == null) ? all : redistribute(all, plan, shift - BITS);
+    if (children.length <= WIDTH) {
+      return new Object[] { node(children, shift) };
+    } else {
+      return new Object[] { node(Arrays.copyOf(children, WIDTH), shift), node(Arrays.copyOfRange(children, WIDTH, children.length), shift) };
+    }
+  }
+
+  /**
+   * The numbers of items of the redistributed nodes, null if the nodes are balanced enough already.
+   * Merges the items of the first too small nodes into their successors, until at most {@link #EXTRAS} nodes more than the optimum remain.
+   */
+  private static int[] plan(Object[] nodes, int shift) {
+    final int[] counts = new int[nodes.length];
+    int total = 0;
+    for (int i = 0; i < nodes.length; i++) {
+      counts[i] = items(nodes[i], shift).length;
+      total += counts[i];
+    }
+    final int optimal = (total + MASK) >>> BITS;
+    int length = counts.length;
+    if (length <= optimal + EXTRAS) {
+      return null;
+    }
+    for (int i = 0; length > optimal + EXTRAS; i--) {
+      while (counts[i] > WIDTH - INVARIANT) {
+        i++;
+      }
+      int remaining = counts[i];
+      do {
+        final int count = Math.min(remaining + counts[i + 1], WIDTH);
+        remaining += counts[i + 1] - count;
+        counts[i] = count;
+        i++;
+      } while (remaining > 0);
+      System.arraycopy(counts, i + 1, counts, i, length - i - 1);
+      length--;
+    }
+    return Arrays.copyOf(counts, length);
+  }
+
+  /* the nodes with the items of the given ones, as counted by the plan, reusing the unchanged ones */
+  private static Object[] redistribute(Object[] nodes, int[] plan, int shift) {
+    final Object[] results = new Object[plan.length];
+    int node = 0, offset = 0;
+    for (int i = 0; i < plan.length; i++) {
+      if (offset == 0 && items(nodes[node], shift).length == plan[i]) {
+        results[i] = nodes[node++];
+      } else {
+        final Object[] items = new Object[plan[i]];
+        for (int filled = 0; filled < items.length; ) {
+          final Object[] source = items(nodes[node], shift);
+          final int count = Math.min(source.length - offset, items.length - filled);
+          System.arraycopy(source, offset, items, filled, count);
+          filled += count;
+          offset += count;
+          if (offset == source.length) {
+            node++;
+            offset = 0;
+          }
+        }
+        results[i] = (shift == 0) ? items : node(items, shift);
+      }
+    }
+    return results;
+  }
+
+  /* the elements of a leaf or the children of a node */
+  private static Object[] items(Object node, int shift) {
+    return (shift == 0) ? (Object[]) node : ((Node) node).children;
+  }
+
+  /* a node at the given shift, relaxed unless all but its last child are full */
+  private static Node node(Object[] children, int shift) {
+    final int[] sizes = new int[children.length];
+    boolean isBalanced = true;
+    for (int i = 0, sum = 0; i < children.length; i++) {
+      final int childSize = sizeOf(children[i], shift - BITS);
+      isBalanced &= (i == children.length - 1) || (childSize == 1 << shift);
+      sum += childSize;
+      sizes[i] = sum;
+    }
+    return new Node(children, isBalanced ? null : sizes);
+  }
+
+  private static int sizeOf(Object node, int shift) {
+    if (shift == 0) {
+      return ((Object[]) node).length;
+    } else {
+      final Node parent = (Node) node;
+      if (parent.sizes != null) {
+        return parent.sizes[parent.sizes.length - 1];
+      } else {
+        final int last = parent.children.length - 1;
+        return (last << shift) + sizeOf(parent.children[last], shift - BITS);
+      }
+    }
+  }
+
+  private static void checkIndex(int index, int size) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("index " + index + " out of bounds for length " + size);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> RrbVector<T> narrow(RrbVector<? extends T> vector) {
+    return (RrbVector<T>) vector;
+  }
+
+  /**
+   * Iterates a leaf at a time, i.e. searches the tree once per leaf
+   */
+  @Override
+  public Iterator<T> iterator() {
+    return new Iterator<T>() {
+      int index = 0;
+      Object[] leaf = EMPTY_ARRAY;
+      int position = 0;
+
+      @Override
+      public boolean hasNext() {
+        return index < size;
+      }
+
+      @Override
+      @SuppressWarnings("unchecked")
+      public T next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        if (position == leaf.length) {
+          Object node = root;
+          position = index;
+          for (int shift = RrbVector.this.shift; shift > 0; shift -= BITS) {
+            final Node parent = (Node) node;
+            final int child = parent.childAt(position, shift);
+            position -= parent.offsetOf(child, shift);
+            node = parent.children[child];
+          }
+          leaf = (Object[]) node;
+        }
+        index++;
+        return (T) leaf[position++];
+      }
+    };
+  }
+
+  @Override
+  public String toString() {
+    final StringBuilder builder = new StringBuilder("RrbVector(");
+    for (T element : this) {
+      builder.append(builder.length() > "RrbVector(".length() ? ", " : "").append(element);
+    }
+    return builder.append(')').toString();
+  }
+
+  private static final class Node {
+    final Object[] children;
+    /* the cumulative sizes of the children, null if the node is balanced, i.e. all children but the last one are full */
+    final int[] sizes;
+
+    Node(Object[] children, int[] sizes) {
+      this.children = children;
+      this.sizes = sizes;
+    }
+
+    /* the index of the child containing the element at the given index */
+    int childAt(int index, int shift) {
+      int child = index >>> shift;
+      if (sizes != null) {
+        while (sizes[child] <= index) {
+          child++;
+        }
+      }
+      return child;
+    }
+
+    /* the index of the first element of the given child */
+    int offsetOf(int child, int shift) {
+      if (child == 0) {
+        return 0;
+      } else {
+        return (sizes == null) ? child << shift : sizes[child - 1];
+      }
+    }
+  }
+}
@@ -0,0 +1,646 @@
+/*  __    __  __  __    __  ___
+ * \  \  /  /    \  \  /  /  __/
+ *  \  \/  /  /\  \  \/  /  /
+ *   \____/__/  \__\____/__/
+ *
+ * Copyright 2014-2019 Vavr, http://vavr.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vavr.rrb;
+
+import io.vavr.JmhRunner;
+import io.vavr.collection.Array;
+import io.vavr.collection.CollectionBenchmarkBase;
+import io.vavr.collection.Vector;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Objects;
+import java.util.Random;
+
+import static io.vavr.JmhRunner.Includes.CLOJURE;
+import static io.vavr.JmhRunner.Includes.VAVR;
+import static io.vavr.JmhRunner.getRandomValues;
+import static io.vavr.JmhRunner.shuffle;
+import static java.util.Arrays.asList;
+
+/**
+ * Benchmark for the {@link RrbVector} prototype ({@code vavr_rrb}) vs {@link Vector} and Clojure's {@code PersistentVector}
+ * on the operations relaxed nodes should speed up (concatenation, inserting in the middle and slicing) and the one they might slow down (random access),
+ * followed by the other operations of {@code VectorBenchmark}, i.e. the cost of the prototype where it doesn't help.
+ * <br>
+ * {@code vavr_rrb_relaxed} is the same vector concatenated from short slices, i.e. every level relaxed, for the operations following its shape.
+ * <br>
+ * Clojure has no concatenation (without {@code core.rrb-vector}), it conjoins the elements of the right vector into the left one, as {@code into} does.
+ * <br>
+ * The prototype is checked by {@link RrbVectorCheck} first, as the assertions of the benchmarks are disabled.
+ */
+@SuppressWarnings({"UnnecessaryFullyQualifiedName", "WeakerAccess"})
+public class RrbVectorBenchmark {
+  static final Array<Class<?>> CLASSES = Array.of(
+      RrbConcat.class,
+      RrbInsert.class,
+      RrbSlice.class,
+      RrbGet.class,
+      RrbCreate.class,
+      RrbHead.class,
+      RrbTail.class,
+      RrbUpdate.class,
+      RrbMap.class,
+      RrbFilter.class,
+      RrbPrepend.class,
+      RrbAppend.class,
+      RrbGroupBy.class,
+      RrbSort.class,
+      RrbIterate.class,
+      RrbFill.class
+  );
+
+  public static void main(String... args) {
+    RrbVectorCheck.main();
+    JmhRunner.runNormalNoAsserts(CLASSES, CLOJURE, VAVR);
+  }
+
+  static clojure.lang.PersistentVector clojureInto(clojure.lang.PersistentVector values, Iterable<?> elements) {
+    clojure.lang.ITransientCollection results = values.asTransient();
+    for (Object element : elements) {
+      results = results.conj(element);
+    }
+    return (clojure.lang.PersistentVector) results.persistent();
+  }
+
+  public static class Base extends CollectionBenchmarkBase {
+    int EXPECTED_AGGREGATE;
+    Integer[] ELEMENTS;
+    int[] RANDOMIZED_INDICES;
+
+    clojure.lang.PersistentVector clojureImmutable;
+    Vector<Integer> vavrImmutable;
+    RrbVector<Integer> vavrRrb;
+    RrbVector<Integer> vavrRrbRelaxed;
+
+    @Setup
+    public void setup() {
+      final Random random = new Random(0);
+      ELEMENTS = getRandomValues(CONTAINER_SIZE, false, random);
+      RANDOMIZED_INDICES = shuffle(Array.range(0, CONTAINER_SIZE).toJavaStream().mapToInt(Integer::intValue).toArray(), random);
+      EXPECTED_AGGREGATE = Array.of(ELEMENTS).reduce(JmhRunner::aggregate);
+
+      clojureImmutable = clojure.lang.PersistentVector.create(asList(ELEMENTS));
+      vavrImmutable = Vector.of(ELEMENTS);
+      vavrRrb = RrbVector.of(ELEMENTS);
+      assert Array.ofAll(vavrRrb).equals(Array.ofAll(vavrImmutable));
+
+      RrbVector<Integer> values = RrbVector.empty();
+      for (int i = 0; i < CONTAINER_SIZE; i += 7) {
+        values = values.appendAll(vavrRrb.slice(i, i + 7));
+      }
+      vavrRrbRelaxed = values;
+      assert Array.ofAll(vavrRrbRelaxed).equals(Array.ofAll(vavrImmutable));
+    }
+  }
+
+  /**
+   * Concatenates the two halves of the vector, split at {@link #SPLITS} positions, i.e. prepared in the setup
+   */
+  public static class RrbConcat extends Base {
+    static final int SPLITS = 8;
+
+    clojure.lang.PersistentVector[] clojureFronts, clojureBacks;
+    Vector<Integer>[] vavrFronts, vavrBacks;
+    RrbVector<Integer>[] rrbFronts, rrbBacks;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void split() {
+      clojureFronts = new clojure.lang.PersistentVector[SPLITS];
+      clojureBacks = new clojure.lang.PersistentVector[SPLITS];
+      vavrFronts = new Vector[SPLITS];
+      vavrBacks = new Vector[SPLITS];
+      rrbFronts = new RrbVector[SPLITS];
+      rrbBacks = new RrbVector[SPLITS];
+      for (int i = 0; i < SPLITS; i++) {
+        final int split = (i + 1) * CONTAINER_SIZE / (SPLITS + 1);
+        clojureFronts[i] = clojure.lang.PersistentVector.create(asList(ELEMENTS).subList(0, split));
+        clojureBacks[i] = clojure.lang.PersistentVector.create(asList(ELEMENTS).subList(split, CONTAINER_SIZE));
+        vavrFronts[i] = vavrImmutable.take(split);
+        vavrBacks[i] = vavrImmutable.drop(split);
+        rrbFronts[i] = vavrRrb.take(split);
+        rrbBacks[i] = vavrRrb.drop(split);
+      }
+    }
+
+    @Benchmark
+    public void clojure_immutable(Blackhole bh) {
+      for (int i = 0; i < SPLITS; i++) {
+        final clojure.lang.PersistentVector values = clojureInto(clojureFronts[i], clojureBacks[i]);
+        assert values.count() == CONTAINER_SIZE;
+        bh.consume(values);
+      }
+    }
+
+    @Benchmark
+    public void vavr_immutable(Blackhole bh) {
+      for (int i = 0; i < SPLITS; i++) {
+        final Vector<Integer> values = vavrFronts[i].appendAll(vavrBacks[i]);
+        assert values.size() == CONTAINER_SIZE;
+        bh.consume(values);
+      }
+    }
+
+    @Benchmark
+    public void vavr_rrb(Blackhole bh) {
+      for (int i = 0; i < SPLITS; i++) {
+        final RrbVector<Integer> values = rrbFronts[i].appendAll(rrbBacks[i]);
+        assert values.size() == CONTAINER_SIZE;
+        bh.consume(values);
+      }
+    }
+  }
+
+  /**
+   * Builds the vector by inserting every element in the middle
+   */
+  public static class RrbInsert extends Base {
+    @Benchmark
+    public Object clojure_immutable() {
+      clojure.lang.PersistentVector values = clojure.lang.PersistentVector.EMPTY;
+      for (Integer element : ELEMENTS) {
+        final int middle = values.count() / 2;
+        final clojure.lang.PersistentVector front = clojure.lang.PersistentVector.create(values.subList(0, middle)).cons(element);
+        values = clojureInto(front, values.subList(middle, values.count()));
+      }
+      assert values.count() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_immutable() {
+      Vector<Integer> values = Vector.empty();
+      for (Integer element : ELEMENTS) {
+        values = values.insert(values.size() / 2, element);
+      }
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_rrb() {
+      RrbVector<Integer> values = RrbVector.empty();
+      for (Integer element : ELEMENTS) {
+        values = values.insert(values.size() / 2, element);
+      }
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+  }
+
+  /**
+   * Consume the vector one-by-one, from the front and back
+   */
+  public static class RrbSlice extends Base {
+    @Benchmark
+    public void clojure_immutable(Blackhole bh) { /* stores the whole collection underneath */
+      java.util.List<?> values = clojureImmutable;
+      while (!values.isEmpty()) {
+        values = values.subList(1, values.size());
+        values = values.subList(0, values.size() - 1);
+        bh.consume(values);
+      }
+    }
+
+    @Benchmark
+    public void vavr_immutable(Blackhole bh) {
+      Vector<Integer> values = vavrImmutable;
+      while (!values.isEmpty()) {
+        values = values.slice(1, values.size());
+        values = values.slice(0, values.size() - 1);
+        bh.consume(values);
+      }
+    }
+
+    @Benchmark
+    public void vavr_rrb(Blackhole bh) {
+      RrbVector<Integer> values = vavrRrb;
+      while (!values.isEmpty()) {
+        values = values.slice(1, values.size());
+        values = values.slice(0, values.size() - 1);
+        bh.consume(values);
+      }
+    }
+  }
+
+  /**
+   * Randomized access to every element, of a balanced and of a relaxed (i.e. concatenated) vector
+   */
+  public static class RrbGet extends Base {
+    @Benchmark
+    public int clojure_immutable() {
+      int aggregate = 0;
+      for (int i : RANDOMIZED_INDICES) {
+        aggregate ^= (int) clojureImmutable.nth(i);
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int vavr_immutable() {
+      int aggregate = 0;
+      for (int i : RANDOMIZED_INDICES) {
+        aggregate ^= vavrImmutable.get(i);
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int vavr_rrb() {
+      int aggregate = 0;
+      for (int i : RANDOMIZED_INDICES) {
+        aggregate ^= vavrRrb.get(i);
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int vavr_rrb_relaxed() {
+      int aggregate = 0;
+      for (int i : RANDOMIZED_INDICES) {
+        aggregate ^= vavrRrbRelaxed.get(i);
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+  }
+
+  /**
+   * Bulk creation from array based, boxed source
+   */
+  public static class RrbCreate extends Base {
+    @Benchmark
+    public Object clojure_immutable() {
+      final clojure.lang.PersistentVector values = clojure.lang.PersistentVector.create(asList(ELEMENTS));
+      assert values.count() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_immutable() {
+      final Vector<Integer> values = Vector.ofAll(asList(ELEMENTS));
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_rrb() {
+      final RrbVector<Integer> values = RrbVector.ofAll(asList(ELEMENTS));
+      assert values.size() == CONTAINER_SIZE;
+      return values;
+    }
+  }
+
+  public static class RrbHead extends Base {
+    @Benchmark
+    public Object clojure_immutable() {
+      final Object head = clojureImmutable.nth(0);
+      assert Objects.equals(head, ELEMENTS[0]);
+      return head;
+    }
+
+    @Benchmark
+    public Object vavr_immutable() {
+      final Object head = vavrImmutable.head();
+      assert Objects.equals(head, ELEMENTS[0]);
+      return head;
+    }
+
+    @Benchmark
+    public Object vavr_rrb() {
+      final Object head = vavrRrb.head();
+      assert Objects.equals(head, ELEMENTS[0]);
+      return head;
+    }
+
+    @Benchmark
+    public Object vavr_rrb_relaxed() {
+      final Object head = vavrRrbRelaxed.head();
+      assert Objects.equals(head, ELEMENTS[0]);
+      return head;
+    }
+  }
+
+  public static class RrbTail extends Base {
+    @Benchmark
+    public void clojure_immutable(Blackhole bh) { /* stores the whole collection underneath */
+      java.util.List<?> values = clojureImmutable;
+      while (!values.isEmpty()) {
+        values = values.subList(1, values.size());
+        bh.consume(values);
+      }
+    }
+
+    @Benchmark
+    public Object vavr_immutable() {
+      Vector<Integer> values = vavrImmutable;
+      for (int i = 0; i < CONTAINER_SIZE; i++) {
+        values = values.tail();
+      }
+      assert values.isEmpty();
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_rrb() {
+      RrbVector<Integer> values = vavrRrb;
+      for (int i = 0; i < CONTAINER_SIZE; i++) {
+        values = values.tail();
+      }
+      assert values.isEmpty();
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_rrb_relaxed() {
+      RrbVector<Integer> values = vavrRrbRelaxed;
+      for (int i = 0; i < CONTAINER_SIZE; i++) {
+        values = values.tail();
+      }
+      assert values.isEmpty();
+      return values;
+    }
+  }
+
+  /**
+   * Randomized update of every element
+   */
+  public static class RrbUpdate extends Base {
+    @Benchmark
+    public Object clojure_immutable() {
+      clojure.lang.PersistentVector values = clojureImmutable;
+      for (int i : RANDOMIZED_INDICES) {
+        values = values.assocN(i, 0);
+      }
+      assert Array.of(values.toArray()).forAll(e -> Objects.equals(e, 0));
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_immutable() {
+      Vector<Integer> values = vavrImmutable;
+      for (int i : RANDOMIZED_INDICES) {
+        values = values.update(i, 0);
+      }
+      assert values.forAll(e -> e == 0);
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_rrb() {
+      RrbVector<Integer> values = vavrRrb;
+      for (int i : RANDOMIZED_INDICES) {
+        values = values.update(i, 0);
+      }
+      assert Array.ofAll(values).forAll(e -> e == 0);
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_rrb_relaxed() {
+      RrbVector<Integer> values = vavrRrbRelaxed;
+      for (int i : RANDOMIZED_INDICES) {
+        values = values.update(i, 0);
+      }
+      assert Array.ofAll(values).forAll(e -> e == 0);
+      return values;
+    }
+  }
+
+  public static class RrbMap extends Base {
+    private static int mapper(int i) {
+      return i + 1;
+    }
+
+    @Benchmark
+    public Object vavr_immutable() {
+      final Vector<Integer> values = vavrImmutable.map(RrbMap::mapper);
+      assert Array.ofAll(values).equals(Array.of(ELEMENTS).map(RrbMap::mapper));
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_rrb() {
+      final RrbVector<Integer> values = vavrRrb.map(RrbMap::mapper);
+      assert Array.ofAll(values).equals(Array.of(ELEMENTS).map(RrbMap::mapper));
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_rrb_relaxed() {
+      final RrbVector<Integer> values = vavrRrbRelaxed.map(RrbMap::mapper);
+      assert Array.ofAll(values).equals(Array.of(ELEMENTS).map(RrbMap::mapper));
+      return values;
+    }
+  }
+
+  public static class RrbFilter extends Base {
+    private static boolean isOdd(int i) {
+      return (i & 1) == 1;
+    }
+
+    @Benchmark
+    public Object vavr_immutable() {
+      final Vector<Integer> someValues = vavrImmutable.filter(RrbFilter::isOdd);
+      assert Array.ofAll(someValues).equals(Array.of(ELEMENTS).filter(RrbFilter::isOdd));
+      return someValues;
+    }
+
+    @Benchmark
+    public Object vavr_rrb() {
+      final RrbVector<Integer> someValues = vavrRrb.filter(RrbFilter::isOdd);
+      assert Array.ofAll(someValues).equals(Array.of(ELEMENTS).filter(RrbFilter::isOdd));
+      return someValues;
+    }
+
+    @Benchmark
+    public Object vavr_rrb_relaxed() {
+      final RrbVector<Integer> someValues = vavrRrbRelaxed.filter(RrbFilter::isOdd);
+      assert Array.ofAll(someValues).equals(Array.of(ELEMENTS).filter(RrbFilter::isOdd));
+      return someValues;
+    }
+  }
+
+  public static class RrbPrepend extends Base {
+    @Benchmark
+    public Object clojure_immutable() {
+      clojure.lang.PersistentVector values = clojure.lang.PersistentVector.EMPTY;
+      for (Integer element : ELEMENTS) {
+        clojure.lang.PersistentVector prepended = clojure.lang.PersistentVector.create(element);
+        for (Object value : values) {
+          prepended = prepended.cons(value);  /* rebuild everything via append */
+        }
+        values = prepended;
+      }
+      assert values.count() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_immutable() {
+      Vector<Integer> values = Vector.empty();
+      for (Integer element : ELEMENTS) {
+        values = values.prepend(element);
+      }
+      assert Array.ofAll(values).equals(Array.of(ELEMENTS).reverse());
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_rrb() {
+      RrbVector<Integer> values = RrbVector.empty();
+      for (Integer element : ELEMENTS) {
+        values = values.prepend(element);
+      }
+      assert Array.ofAll(values).equals(Array.of(ELEMENTS).reverse());
+      return values;
+    }
+  }
+
+  /**
+   * Add all elements (one-by-one, as we're not testing bulk operations)
+   */
+  public static class RrbAppend extends Base {
+    @Benchmark
+    public Object clojure_immutable() {
+      clojure.lang.PersistentVector values = clojure.lang.PersistentVector.EMPTY;
+      for (Integer element : ELEMENTS) {
+        values = values.cons(element);
+      }
+      assert values.count() == CONTAINER_SIZE;
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_immutable() {
+      Vector<Integer> values = Vector.empty();
+      for (Integer element : ELEMENTS) {
+        values = values.append(element);
+      }
+      assert Array.ofAll(values).equals(Array.of(ELEMENTS));
+      return values;
+    }
+
+    @Benchmark
+    public Object vavr_rrb() {
+      RrbVector<Integer> values = RrbVector.empty();
+      for (Integer element : ELEMENTS) {
+        values = values.append(element);
+      }
+      assert Array.ofAll(values).equals(Array.of(ELEMENTS));
+      return values;
+    }
+  }
+
+  public static class RrbGroupBy extends Base {
+    @Benchmark
+    public Object vavr_immutable() {
+      return vavrImmutable.groupBy(Integer::bitCount);
+    }
+
+    @Benchmark
+    public Object vavr_rrb() {
+      return vavrRrb.groupBy(Integer::bitCount);
+    }
+  }
+
+  public static class RrbSort extends Base {
+    @Benchmark
+    public Object vavr_immutable() {
+      final Vector<Integer> results = vavrImmutable.sorted();
+      assert Array.ofAll(results).equals(Array.of(ELEMENTS).sorted());
+      return results;
+    }
+
+    @Benchmark
+    public Object vavr_rrb() {
+      final RrbVector<Integer> results = vavrRrb.sorted();
+      assert Array.ofAll(results).equals(Array.of(ELEMENTS).sorted());
+      return results;
+    }
+  }
+
+  /**
+   * Sequential access for all elements, of a balanced and of a relaxed vector
+   */
+  public static class RrbIterate extends Base {
+    @Benchmark
+    public int clojure_immutable() {
+      int aggregate = 0;
+      for (final java.util.Iterator<Integer> iterator = clojureImmutable.iterator(); iterator.hasNext(); ) {
+        aggregate ^= iterator.next();
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int vavr_immutable() {
+      int aggregate = 0;
+      for (final io.vavr.collection.Iterator<Integer> iterator = vavrImmutable.iterator(); iterator.hasNext(); ) {
+        aggregate ^= iterator.next();
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int vavr_rrb() {
+      int aggregate = 0;
+      for (final java.util.Iterator<Integer> iterator = vavrRrb.iterator(); iterator.hasNext(); ) {
+        aggregate ^= iterator.next();
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+
+    @Benchmark
+    public int vavr_rrb_relaxed() {
+      int aggregate = 0;
+      for (final java.util.Iterator<Integer> iterator = vavrRrbRelaxed.iterator(); iterator.hasNext(); ) {
+        aggregate ^= iterator.next();
+      }
+      assert aggregate == EXPECTED_AGGREGATE;
+      return aggregate;
+    }
+  }
+
+  public static class RrbFill extends Base {
+    @Benchmark
+    public Object vavr_immutable() {
+      final Vector<Integer> values = Vector.fill(CONTAINER_SIZE, () -> ELEMENTS[0]);
+      final Integer head = values.head();
+      assert Objects.equals(head, ELEMENTS[0]);
+      return head;
+    }
+
+    @Benchmark
+    public Object vavr_rrb() {
+      final RrbVector<Integer> values = RrbVector.fill(CONTAINER_SIZE, () -> ELEMENTS[0]);
+      final Integer head = values.head();
+      assert Objects.equals(head, ELEMENTS[0]);
+      return head;
+    }
+  }
+}
@@ -0,0 +1,236 @@
+/*  __    __  __  __    __  ___
+ * \  \  /  /    \  \  /  /  __/
+ *  \  \/  /  /\  \  \/  /  /
+ *   \____/__/  \__\____/__/
+ *
+ * Copyright 2014-2019 Vavr, http://vavr.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vavr.rrb;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+/**
+ * Randomized check of the {@link RrbVector} prototype against an {@link ArrayList} model,
+ * i.e. of the rebalancing of {@code appendAll}/{@code prependAll} and of the relaxed nodes left by {@code insert}, {@code take} and {@code drop},
+ * and of the bulk operations (e.g. the shape preserving {@code map}) on such relaxed trees.
+ * <br>
+ * The benchmarks only {@code assert} their results, which never runs, as {@link io.vavr.JmhRunner} disables the assertions.
+ * Run this before trusting the numbers of {@link RrbVectorBenchmark}, it fails with an {@link AssertionError}.
+ */
+public class RrbVectorCheck {
+  static final int STEPS = 20_000;
+  static final int MAX_SIZE = 200_000;
+
+  public static void main(String... args) {
+    final long seed = (args.length > 0) ? Long.parseLong(args[0]) : 42;
+    final Random random = new Random(seed);
+    checkRandomOperations(random);
+    checkSelfConcatenation();
+    checkFill();
+    System.out.println("RrbVector matches the ArrayList model (seed " + seed + ")");
+  }
+
+  /**
+   * Applies random operations to a vector and to the model, comparing them every few steps
+   */
+  static void checkRandomOperations(Random random) {
+    int next = 0;
+    RrbVector<Integer> vector = RrbVector.empty();
+    List<Integer> model = new ArrayList<>();
+    for (int step = 0; step < STEPS; step++) {
+      switch (random.nextInt(8)) {
+        case 0:
+          if (model.size() < MAX_SIZE) {
+            final List<Integer> elements = nextElements(random, next);
+            next += elements.size();
+            vector = vector.appendAll(build(elements, random));
+            model.addAll(elements);
+          }
+          break;
+        case 1:
+          if (model.size() < MAX_SIZE) {
+            final List<Integer> elements = nextElements(random, next);
+            next += elements.size();
+            vector = vector.prependAll(build(elements, random));
+            model.addAll(0, elements);
+          }
+          break;
+        case 2: {
+          final int index = random.nextInt(model.size() + 1);
+          vector = vector.insert(index, next);
+          model.add(index, next++);
+          break;
+        }
+        case 3: {
+          final int n = random.nextInt(model.size() + 1);
+          vector = vector.take(n);
+          model = new ArrayList<>(model.subList(0, n));
+          break;
+        }
+        case 4: {
+          final int n = random.nextInt(Math.max(1, model.size() / 8));
+          vector = vector.drop(n);
+          model = new ArrayList<>(model.subList(n, model.size()));
+          break;
+        }
+        case 5:
+          if (!model.isEmpty()) {
+            final int index = random.nextInt(model.size());
+            vector = vector.update(index, -1);
+            model.set(index, -1);
+          }
+          break;
+        case 6:
+          vector = vector.append(next);
+          model.add(next++);
+          break;
+        default:
+          vector = vector.prepend(next);
+          model.add(0, next++);
+      }
+      if (step % 50 == 0 || model.size() < 100) {
+        check(vector, model, "step " + step);
+      }
+      if (step % 500 == 0) {
+        checkBulkOperations(vector, model, "step " + step);
+      }
+    }
+    check(vector, model, "last step");
+    checkBulkOperations(vector, model, "last step");
+  }
+
+  /**
+   * Doubles a vector by concatenating it with its own tail, i.e. deep trees of relaxed nodes sharing their subtrees
+   */
+  static void checkSelfConcatenation() {
+    RrbVector<Integer> vector = RrbVector.of(1, 2, 3);
+    final List<Integer> model = new ArrayList<>(Arrays.asList(1, 2, 3));
+    for (int i = 0; i < 15; i++) {
+      vector = vector.appendAll(vector.drop(1));
+      model.addAll(new ArrayList<>(model.subList(1, model.size())));
+      check(vector, model, "self concatenation " + i);
+    }
+    checkBulkOperations(vector, model, "self concatenation");
+  }
+
+  /**
+   * Fills a vector spanning several leaves, calling the supplier in order
+   */
+  static void checkFill() {
+    final int[] next = {0};
+    final RrbVector<Integer> vector = RrbVector.fill(1000, () -> next[0]++);
+    final List<Integer> model = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      model.add(i);
+    }
+    check(vector, model, "fill");
+    check(RrbVector.fill(0, () -> 1), new ArrayList<>(), "empty fill");
+  }
+
+  /**
+   * The head, tail, map, filter, sorted, groupBy and toArray of the vector vs the same operations of the model
+   */
+  static void checkBulkOperations(RrbVector<Integer> vector, List<Integer> model, String context) {
+    if (!model.isEmpty()) {
+      if (!vector.head().equals(model.get(0))) {
+        throw new AssertionError(context + ": head " + vector.head() + " instead of " + model.get(0));
+      }
+      check(vector.tail(), model.subList(1, model.size()), context + ", tail");
+    }
+    check(vector.map(element -> element * 2), model.stream().map(element -> element * 2).collect(Collectors.toList()), context + ", map");
+    check(vector.filter(element -> (element & 1) == 1), model.stream().filter(element -> (element & 1) == 1).collect(Collectors.toList()), context + ", filter");
+
+    final List<Integer> sorted = new ArrayList<>(model);
+    Collections.sort(sorted);
+    check(vector.sorted(), sorted, context + ", sorted");
+    Collections.reverse(sorted);
+    check(vector.sorted(Comparator.reverseOrder()), sorted, context + ", sorted in reverse");
+
+    final Map<Integer, List<Integer>> groups = new LinkedHashMap<>();
+    for (Integer element : model) {
+      groups.computeIfAbsent(element & 3, key -> new ArrayList<>()).add(element);
+    }
+    final Map<Integer, RrbVector<Integer>> vectorGroups = vector.groupBy(element -> element & 3);
+    if (!new ArrayList<>(vectorGroups.keySet()).equals(new ArrayList<>(groups.keySet()))) {
+      throw new AssertionError(context + ": groups " + vectorGroups.keySet() + " instead of " + groups.keySet());
+    }
+    groups.forEach((key, group) -> check(vectorGroups.get(key), group, context + ", group " + key));
+
+    if (!Arrays.equals(vector.toArray(), model.toArray())) {
+      throw new AssertionError(context + ": toArray differs");
+    }
+  }
+
+  /* a short run (as in the middle of a leaf) or a long one (spanning leaves) of consecutive values */
+  static List<Integer> nextElements(Random random, int next) {
+    final int size = random.nextInt(random.nextBoolean() ? 40 : 3000);
+    final List<Integer> elements = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      elements.add(next + i);
+    }
+    return elements;
+  }
+
+  /* builds the vector in one of the ways leading to differently shaped trees */
+  static RrbVector<Integer> build(List<Integer> elements, Random random) {
+    switch (random.nextInt(3)) {
+      case 0:
+        return RrbVector.ofAll(elements);
+      case 1: {
+        RrbVector<Integer> result = RrbVector.empty();
+        for (Integer element : elements) {
+          result = result.append(element);
+        }
+        return result;
+      }
+      default: {
+        RrbVector<Integer> result = RrbVector.empty();
+        for (int i = elements.size() - 1; i >= 0; i--) {
+          result = result.prepend(elements.get(i));
+        }
+        return result;
+      }
+    }
+  }
+
+  static void check(RrbVector<Integer> vector, List<Integer> model, String context) {
+    if (vector.size() != model.size()) {
+      throw new AssertionError(context + ": size " + vector.size() + " instead of " + model.size());
+    }
+    for (int i = 0; i < model.size(); i++) {
+      if (!vector.get(i).equals(model.get(i))) {
+        throw new AssertionError(context + ": get(" + i + ") is " + vector.get(i) + " instead of " + model.get(i));
+      }
+    }
+    int index = 0;
+    for (Integer element : vector) {
+      if (index >= model.size() || !element.equals(model.get(index))) {
+        throw new AssertionError(context + ": the iterator differs at " + index);
+      }
+      index++;
+    }
+    if (index != model.size()) {
+      throw new AssertionError(context + ": the iterator ended at " + index + " instead of " + model.size());
+    }
+  }
+}
@@ -0,0 +1,217 @@
+/*  __    __  __  __    __  ___
+ * \  \  /  /    \  \  /  /  __/
+ *  \  \/  /  /\  \  \/  /  /
+ *   \____/__/  \__\____/__/
+ *
+ * Copyright 2014-2019 Vavr, http://vavr.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vavr.concurrent;
+
+import io.vavr.JmhRunner;
+import io.vavr.Lazy;
+import io.vavr.collection.Array;
+import io.vavr.collection.Seq;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import static io.vavr.JmhRunner.Includes.*;
+
+/**
+ * Blocking-heavy {@link Future} workloads on platform threads compared with virtual threads, i.e. {@code FAN_OUT} tasks,
+ * each of them blocking for {@code LATENCY_MS} as a stand-in for I/O.
+ * <br>
+ * {@link Blocking#MONITOR} blocks while holding a monitor, which pins the carrier thread of a virtual thread on JDK 21.
+ * The number of {@code jdk.VirtualThreadPinned} events is printed per trial.
+ * <br>
+ * Needs JDK 21, i.e. it is compiled by the {@code jdk21} profile only, see pom.xml.
+ */
+@SuppressWarnings({"UnnecessaryFullyQualifiedName", "WeakerAccess"})
+public class VirtualThreadBenchmark {
+  static final Array<Class<?>> CLASSES = Array.of(
+      BlockingFanOut.class,
+      LazyContention.class
+  );
+
+  public static void main(String... args) {
+    JmhRunner.runNormalWithLatencyNoAsserts(CLASSES, JAVA, VAVR);
+  }
+
+  static final int PLATFORM_POOL_SIZE = 64;
+
+  static final String VIRTUAL_THREAD_PINNED = "jdk.VirtualThreadPinned";
+
+  public enum ExecutorType {
+    FORK_JOIN,
+    PLATFORM,
+    VIRTUAL
+  }
+
+  public enum Blocking {
+    SLEEP,
+    MONITOR
+  }
+
+  @State(Scope.Benchmark)
+  public static class Base {
+    @Param({"FORK_JOIN", "PLATFORM", "VIRTUAL"})
+    public ExecutorType EXECUTOR;
+
+    @Param({"SLEEP", "MONITOR"})
+    public Blocking BLOCKING;
+
+    @Param({"100", "1000"})
+    public int FAN_OUT;
+
+    @Param({"1"})
+    public int LATENCY_MS;
+
+    ExecutorService executor;
+    /* a monitor per task, as the JIT may elide the locking of a local one */
+    Object[] monitors;
+
+    final LongAdder pinned = new LongAdder();
+    jdk.jfr.consumer.RecordingStream pinnedEvents;
+
+    @Setup
+    public void setup() {
+      monitors = Array.fill(FAN_OUT, Object::new).toJavaArray();
+      switch (EXECUTOR) {
+        case FORK_JOIN:
+          executor = new java.util.concurrent.ForkJoinPool();
+          break;
+        case PLATFORM:
+          executor = java.util.concurrent.Executors.newFixedThreadPool(PLATFORM_POOL_SIZE);
+          break;
+        default:
+          executor = java.util.concurrent.Executors.newVirtualThreadPerTaskExecutor();
+      }
+
+      pinnedEvents = new jdk.jfr.consumer.RecordingStream();
+      pinnedEvents.enable(VIRTUAL_THREAD_PINNED).withThreshold(Duration.ZERO);
+      pinnedEvents.onEvent(VIRTUAL_THREAD_PINNED, event -> pinned.increment());
+      pinnedEvents.startAsync();
+    }
+
+    @TearDown
+    public void tearDown() {
+      executor.shutdownNow();
+      pinnedEvents.stop();
+      pinnedEvents.close();
+      System.out.println(String.format("%nCarrier thread pinning (%s, %s, %d tasks): %d %s events", EXECUTOR, BLOCKING, FAN_OUT, pinned.sum(), VIRTUAL_THREAD_PINNED));
+    }
+
+    /* the simulated I/O */
+    int block(int value) {
+      switch (BLOCKING) {
+        case SLEEP:
+          sleep();
+          break;
+        default:
+          synchronized (monitors[value]) {
+            sleep();
+          }
+      }
+      return value;
+    }
+
+    void sleep() {
+      try {
+        Thread.sleep(LATENCY_MS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  public static class BlockingFanOut extends Base {
+    @Benchmark
+    public int java_completable() {
+      final CompletableFuture<?>[] futures = new CompletableFuture<?>[FAN_OUT];
+      for (int i = 0; i < FAN_OUT; i++) {
+        final int value = i;
+        futures[i] = CompletableFuture.supplyAsync(() -> block(value), executor);
+      }
+      CompletableFuture.allOf(futures).join();
+      return futures.length;
+    }
+
+    @Benchmark
+    public int vavr_future() {
+      final Array<Future<Integer>> futures = Array.range(0, FAN_OUT).map(value -> Future.of(executor, () -> block(value)));
+      final Seq<Integer> values = Future.sequence(executor, futures).get();
+      assert values.size() == FAN_OUT;
+      return values.size();
+    }
+  }
+
+  /**
+   * {@code FAN_OUT} tasks get the same, not yet evaluated value, which blocks once while being computed.
+   * <br>
+   * {@link Lazy} computes its value while holding a monitor, i.e. the waiting virtual threads pin their carrier threads.
+   * The baseline guards the computation by a {@link ReentrantLock}, which unmounts waiting virtual threads.
+   * Both memoizers are run by the same {@code CompletableFuture} fan-out, i.e. only the monitor vs the lock differs.
+   */
+  public static class LazyContention extends Base {
+    /* gets the memoized value from FAN_OUT tasks */
+    int fanOut(Supplier<Integer> memoized) {
+      final CompletableFuture<?>[] futures = new CompletableFuture<?>[FAN_OUT];
+      for (int i = 0; i < FAN_OUT; i++) {
+        futures[i] = CompletableFuture.supplyAsync(memoized, executor);
+      }
+      CompletableFuture.allOf(futures).join();
+      return futures.length;
+    }
+
+    @Benchmark
+    public int java_locked() {
+      return fanOut(lockedMemoize(() -> block(1)));
+    }
+
+    @Benchmark
+    public int vavr_lazy() {
+      return fanOut(Lazy.of(() -> block(1)));
+    }
+
+    static <T> Supplier<T> lockedMemoize(Supplier<T> supplier) {
+      final ReentrantLock lock = new ReentrantLock();
+      return new Supplier<T>() {
+        volatile T value;
+
+        @Override
+        public T get() {
+          T result = value;
+          if (result == null) {
+            lock.lock();
+            try {
+              result = value;
+              if (result == null) {
+                value = result = supplier.get();
+              }
+            } finally {
+              lock.unlock();
+            }
+          }
+          return result;
+        }
+      };
+    }
+  }
+}
@@ -0,0 +1,171 @@
+/*  __    __  __  __    __  ___
+ * \  \  /  /    \  \  /  /  __/
+ *  \  \/  /  /\  \  \/  /  /
+ *   \____/__/  \__\____/__/
+ *
+ * Copyright 2014-2019 Vavr, http://vavr.io
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.vavr.idiom;
+
+import io.vavr.JmhRunner;
+import io.vavr.collection.Array;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+
+import static io.vavr.API.*;
+import static io.vavr.Predicates.instanceOf;
+
+/**
+ * Benchmark for Vavr's Match vs Java 21 switch patterns on sealed types and records, see {@link PatternMatchingBenchmark}.
+ * <br>
+ * Needs JDK 21, i.e. it is compiled by the {@code jdk21} profile only, see pom.xml.
+ */
+public class SwitchPatternBenchmark {
+
+    static final Array<Class<?>> CLASSES = Array(
+            SealedTypeTest.class,
+            NestedRecords.class
+    );
+
+    public static void main(String... args) {
+        JmhRunner.runNormalWithAllocationNoAsserts(CLASSES);
+    }
+
+    static final int INSTANCES = 1000;
+
+    sealed interface Shape permits Circle, Square, Rectangle, Triangle {}
+
+    record Circle(int radius) implements Shape {}
+
+    record Square(int side) implements Shape {}
+
+    record Rectangle(int width, int height) implements Shape {}
+
+    record Triangle(int base, int height) implements Shape {}
+
+    record Point(int x, int y) {}
+
+    record Line(Point from, Point to) {}
+
+    @State(Scope.Benchmark)
+    public static class SealedTypeTest {
+        Shape[] SHAPES;
+
+        @Setup
+        public void setup() {
+            final Random random = new Random(0);
+            SHAPES = Array.range(0, INSTANCES).map(i -> {
+                final int size = 1 + random.nextInt(10);
+                return switch (random.nextInt(4)) {
+                    case 0 -> (Shape) new Circle(size);
+                    case 1 -> new Square(size);
+                    case 2 -> new Rectangle(size, size + 1);
+                    default -> new Triangle(size, size + 1);
+                };
+            }).toJavaArray(Shape[]::new);
+        }
+
+        @Benchmark
+        public void java_instanceof(Blackhole bh) {
+            for (Shape shape : SHAPES) {
+                final int result;
+                if (shape instanceof Circle circle) {
+                    result = 3 * circle.radius() * circle.radius();
+                } else if (shape instanceof Square square) {
+                    result = square.side() * square.side();
+                } else if (shape instanceof Rectangle rectangle) {
+                    result = rectangle.width() * rectangle.height();
+                } else {
+                    final Triangle triangle = (Triangle) shape;
+                    result = triangle.base() * triangle.height() / 2;
+                }
+                bh.consume(result);
+            }
+        }
+
+        @Benchmark
+        public void java_switch_pattern(Blackhole bh) {
+            for (Shape shape : SHAPES) {
+                final int result = switch (shape) {
+                    case Circle(int radius) -> 3 * radius * radius;
+                    case Square(int side) -> side * side;
+                    case Rectangle(int width, int height) -> width * height;
+                    case Triangle(int base, int height) -> base * height / 2;
+                };
+                bh.consume(result);
+            }
+        }
+
+        @Benchmark
+        public void vavr_match(Blackhole bh) {
+            for (Shape shape : SHAPES) {
+                final int result = Match(shape).of(
+                        Case($(instanceOf(Circle.class)), s -> 3 * ((Circle) s).radius() * ((Circle) s).radius()),
+                        Case($(instanceOf(Square.class)), s -> ((Square) s).side() * ((Square) s).side()),
+                        Case($(instanceOf(Rectangle.class)), s -> ((Rectangle) s).width() * ((Rectangle) s).height()),
+                        Case($(instanceOf(Triangle.class)), s -> ((Triangle) s).base() * ((Triangle) s).height() / 2)
+                );
+                bh.consume(result);
+            }
+        }
+    }
+
+    /**
+     * Classifies lines by deconstructing their points, with guards
+     */
+    @State(Scope.Benchmark)
+    public static class NestedRecords {
+        Line[] LINES;
+
+        @Setup
+        public void setup() {
+            final Random random = new Random(0);
+            LINES = Array.range(0, INSTANCES)
+                    .map(i -> new Line(new Point(random.nextInt(3), random.nextInt(3)), new Point(random.nextInt(3), random.nextInt(3))))
+                    .toJavaArray(Line[]::new);
+        }
+
+        @Benchmark
+        public void java_switch_pattern(Blackhole bh) {
+            for (Line line : LINES) {
+                final int result = switch (line) {
+                    case Line(Point(var x1, var y1), Point(var x2, var y2)) when x1 == x2 && y1 == y2 -> 0;
+                    case Line(Point(var x1, var y1), Point(var x2, var y2)) when x1 == x2 -> Math.abs(y2 - y1);
+                    case Line(Point(var x1, var y1), Point(var x2, var y2)) when y1 == y2 -> Math.abs(x2 - x1);
+                    case Line(Point from, Point to) -> Math.abs(to.x() - from.x()) + Math.abs(to.y() - from.y());
+                };
+                bh.consume(result);
+            }
+        }
+
+        @Benchmark
+        public void vavr_match(Blackhole bh) {
+            for (Line line : LINES) {
+                final int result = Match(line).of(
+                        Case($(l -> l.from().equals(l.to())), 0),
+                        Case($(l -> l.from().x() == l.to().x()), l -> Math.abs(l.to().y() - l.from().y())),
+                        Case($(l -> l.from().y() == l.to().y()), l -> Math.abs(l.to().x() - l.from().x())),
+                        Case($(), l -> Math.abs(l.to().x() - l.from().x()) + Math.abs(l.to().y() - l.from().y()))
+                );
+                bh.consume(result);
+            }
+        }
+    }
+}